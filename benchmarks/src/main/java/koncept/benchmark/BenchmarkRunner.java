@@ -0,0 +1,49 @@
+package koncept.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with allocation profiling and writes the results to {@code results/<library version>.json}, so
+ * consecutive releases can be compared. Any regular JMH command line option (e.g. an include pattern) is honoured.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        String version = libraryVersion();
+        Path resultsDirectory = Files.createDirectories(Paths.get(System.getProperty("benchmark.results", "results")));
+        Path resultFile = resultsDirectory.resolve(version + ".json");
+
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.toString())
+            .build();
+        new Runner(options).run();
+        System.out.println("Results of KonceptAIClient " + version + " written to " + resultFile);
+    }
+
+    private static String libraryVersion() throws IOException {
+        try (InputStream input = BenchmarkRunner.class.getClassLoader().getResourceAsStream("benchmark.properties")) {
+            Properties properties = new Properties();
+            if (input != null) {
+                properties.load(input);
+            }
+            return properties.getProperty("konceptai.version", "unknown");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package koncept.benchmark;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import koncept.KonceptAIClient;
+import koncept.openai.OpenAIAPIClient;
+
+/**
+ * Shared setup of the benchmarks.
+ */
+final class Benchmarks {
+
+    private static final Logger KONCEPT_LOGGER = Logger.getLogger("koncept");
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Silences the per-call INFO logging of the client, which would otherwise dominate every measurement.
+     */
+    static void quietLogging() {
+        KONCEPT_LOGGER.setLevel(Level.WARNING);
+    }
+
+    static OpenAIAPIClient stubApiClient() {
+        return OpenAIAPIClient.builder()
+            .transport(new StubTransport())
+            .baseUrl("http://localhost/v1")
+            .apiKey("sk-benchmark")
+            .build();
+    }
+
+    static KonceptAIClient stubClient() {
+        return KonceptAIClient.builder(stubApiClient()).build();
+    }
+}
@@ -0,0 +1,47 @@
+package koncept.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import koncept.json.JsonCodec;
+import koncept.openai.model.MessagesListResponse;
+import koncept.openai.model.RunResponse;
+import koncept.openai.model.RunStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Binding of the payloads the client reads most: run records (full and status-only) and message lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+
+    @Benchmark
+    public RunResponse runResponse() throws IOException {
+        return jsonCodec.reader(RunResponse.class).readValue(Payloads.RUN);
+    }
+
+    @Benchmark
+    public RunStatus runStatus() throws IOException {
+        return jsonCodec.reader(RunStatus.class).readValue(Payloads.RUN);
+    }
+
+    @Benchmark
+    public MessagesListResponse messagesListResponse() throws IOException {
+        return jsonCodec.reader(MessagesListResponse.class).readValue(Payloads.MESSAGES);
+    }
+}
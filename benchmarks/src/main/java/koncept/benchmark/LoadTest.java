@@ -0,0 +1,244 @@
+package koncept.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.management.ThreadMXBean;
+import koncept.KonceptAIClient;
+import koncept.concurrent.ClientExecutors;
+import koncept.metrics.LatencyHistogram;
+import koncept.openai.OpenAIAPIClient;
+import koncept.openai.function.NamedParam;
+import koncept.openai.function.ToolFunction;
+
+/**
+ * A soak test of the whole client over real HTTP: N concurrent conversations repeatedly send a message and wait for
+ * the run, with tool call rounds, against an embedded {@link StubAssistantsServer}. After a warmup it reports
+ * throughput, latency percentiles per flow, thread counts and the allocation rate.
+ * <p>
+ * Options are given as {@code --name=value}; see {@link Options#parse(String[])} for the names and defaults, e.g.
+ * {@code java -cp target/benchmarks.jar koncept.benchmark.LoadTest --conversations=500 --mode=async --tool-rounds=2}.
+ */
+public class LoadTest {
+
+    public record Answer(String label, double score) {
+    }
+
+    private static volatile long toolLatencyMillis;
+
+    @ToolFunction(name = StubAssistantsServer.TOOL_NAME)
+    public static String lookup(@NamedParam("key") String key) throws InterruptedException {
+        if (toolLatencyMillis > 0) {
+            Thread.sleep(toolLatencyMillis);
+        }
+        return "value of " + key;
+    }
+
+    /**
+     * @param conversations Number of concurrent conversations, each with its own thread.
+     * @param mode          {@code sync} (a blocking caller per conversation) or {@code async} (chained futures).
+     * @param executors     {@code platform} or {@code virtual} client executors; sync callers run on the io executor.
+     * @param warmup        Time before measuring starts.
+     * @param duration      Measured time.
+     * @param toolRounds    Tool call rounds per run.
+     * @param latency       Simulated latency of every HTTP response.
+     * @param runDuration   Simulated processing time of a run before each tool round and before completion.
+     * @param toolLatency   Simulated execution time of the tool.
+     * @param pollInterval  Poll interval of the client.
+     */
+    record Options(int conversations,
+                   String mode,
+                   String executors,
+                   Duration warmup,
+                   Duration duration,
+                   int toolRounds,
+                   Duration latency,
+                   Duration runDuration,
+                   Duration toolLatency,
+                   Duration pollInterval) {
+
+        static Options parse(final String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                values.put(pair[0], pair[1]);
+            }
+            Options options = new Options(
+                Integer.parseInt(values.getOrDefault("conversations", "100")),
+                values.getOrDefault("mode", "sync"),
+                values.getOrDefault("executors", "platform"),
+                millis(values.getOrDefault("warmup-ms", "5000")),
+                millis(values.getOrDefault("duration-ms", "30000")),
+                Integer.parseInt(values.getOrDefault("tool-rounds", "1")),
+                millis(values.getOrDefault("latency-ms", "20")),
+                millis(values.getOrDefault("run-ms", "200")),
+                millis(values.getOrDefault("tool-ms", "0")),
+                millis(values.getOrDefault("poll-ms", "50")));
+            values.keySet().removeAll(Arrays.asList("conversations", "mode", "executors", "warmup-ms", "duration-ms",
+                "tool-rounds", "latency-ms", "run-ms", "tool-ms", "poll-ms"));
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options " + values.keySet());
+            }
+            return options;
+        }
+
+        private static Duration millis(final String value) {
+            return Duration.ofMillis(Long.parseLong(value));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+        Benchmarks.quietLogging();
+        toolLatencyMillis = options.toolLatency().toMillis();
+        ClientExecutors executors = options.executors().equals("virtual") ? ClientExecutors.virtualThreads() : ClientExecutors.platform();
+
+        try (StubAssistantsServer server = StubAssistantsServer.start(options.latency(), options.runDuration(), options.toolRounds())) {
+            OpenAIAPIClient apiClient = OpenAIAPIClient.builder()
+                .baseUrl(server.baseUrl())
+                .apiKey("sk-loadtest")
+                .build();
+            KonceptAIClient client = KonceptAIClient.builder(apiClient)
+                .pollInterval(options.pollInterval())
+                .maxPollAttempts(Integer.MAX_VALUE)
+                .executors(executors)
+                .build();
+            new LoadTest(options, client, executors, server).run();
+        }
+    }
+
+    private final Options options;
+    private final KonceptAIClient client;
+    private final ClientExecutors executors;
+    private final StubAssistantsServer server;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private volatile long measureFrom;
+    private volatile long measureUntil;
+
+    private LoadTest(final Options options, final KonceptAIClient client, final ClientExecutors executors, final StubAssistantsServer server) {
+        this.options = options;
+        this.client = client;
+        this.executors = executors;
+        this.server = server;
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf(Locale.ROOT, "%d %s conversations on %s executors, %d tool round(s), latency %d ms, run %d ms, poll %d ms%n",
+            options.conversations(), options.mode(), options.executors(), options.toolRounds(), options.latency().toMillis(),
+            options.runDuration().toMillis(), options.pollInterval().toMillis());
+        String[] threadIds = new String[options.conversations()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = client.createThread().id();
+        }
+
+        long start = System.nanoTime();
+        measureFrom = start + options.warmup().toNanos();
+        measureUntil = measureFrom + options.duration().toNanos();
+        CountDownLatch finished = new CountDownLatch(threadIds.length);
+        ExecutorService callers = null;
+        if (options.mode().equals("async")) {
+            for (String threadId : threadIds) {
+                nextAsync(threadId, finished);
+            }
+        } else {
+            Executor executor = executors.usesVirtualThreads() ? executors.io() : (callers = Executors.newFixedThreadPool(threadIds.length));
+            for (String threadId : threadIds) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        long flowStart = System.nanoTime();
+                        try {
+                            client.sendAndRunMessage("How are you?", threadId, "asst_loadtest", Answer.class);
+                            record(flowStart);
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                    }
+                    finished.countDown();
+                });
+            }
+        }
+
+        TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+        long requestsBefore = server.requests();
+        long allocatedBefore = allocatedBytes();
+        int peakBefore = threads.getPeakThreadCount();
+        threads.resetPeakThreadCount();
+        TimeUnit.NANOSECONDS.sleep(measureUntil - System.nanoTime());
+        long allocated = allocatedBytes() - allocatedBefore;
+        long requests = server.requests() - requestsBefore;
+        int liveThreads = threads.getThreadCount();
+        int peakThreads = threads.getPeakThreadCount();
+        finished.await();
+        if (callers != null) {
+            callers.shutdown();
+        }
+        report(allocated, requests, liveThreads, Math.max(peakThreads, liveThreads), peakBefore);
+    }
+
+    private void nextAsync(final String threadId, final CountDownLatch finished) {
+        if (System.nanoTime() >= measureUntil) {
+            finished.countDown();
+            return;
+        }
+        long flowStart = System.nanoTime();
+        client.sendAndRunMessageAsync("How are you?", threadId, "asst_loadtest", Answer.class)
+            .whenComplete((answer, failure) -> {
+                if (failure == null) {
+                    record(flowStart);
+                } else {
+                    errors.increment();
+                }
+                nextAsync(threadId, finished);
+            });
+    }
+
+    private void record(final long flowStart) {
+        long end = System.nanoTime();
+        if (flowStart >= measureFrom && end <= measureUntil) {
+            latencies.record(TimeUnit.NANOSECONDS.toMicros(end - flowStart));
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the live platform threads. Threads that terminated in between and virtual threads are
+     * not accounted for, so with virtual threads this covers the carrier-independent work (server, scheduler) only.
+     */
+    private long allocatedBytes() {
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+
+    private void report(final long allocated, final long requests, final int liveThreads, final int peakThreads, final int peakBeforeMeasuring) {
+        double seconds = options.duration().toNanos() / 1e9;
+        long flows = latencies.count();
+        System.out.printf(Locale.ROOT, "Flows:       %d completed, %d failed, %.1f flows/s%n", flows, errors.sum(), flows / seconds);
+        System.out.printf(Locale.ROOT, "Latency:     p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+            latencies.percentile(50) / 1e3, latencies.percentile(90) / 1e3, latencies.percentile(99) / 1e3,
+            latencies.percentile(99.9) / 1e3, latencies.percentile(100) / 1e3);
+        System.out.printf(Locale.ROOT, "HTTP:        %d requests, %.1f requests/s, %.1f per flow%n",
+            requests, requests / seconds, flows == 0 ? 0.0 : (double) requests / flows);
+        System.out.printf(Locale.ROOT, "Threads:     %d live, %d peak while measuring, %d peak during warmup%n",
+            liveThreads, peakThreads, peakBeforeMeasuring);
+        System.out.printf(Locale.ROOT, "Allocation:  %.1f MB/s, %.1f KB per flow (platform threads)%n",
+            allocated / seconds / (1024 * 1024), flows == 0 ? 0.0 : allocated / 1024.0 / flows);
+    }
+}
@@ -0,0 +1,28 @@
+package koncept.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Realistic API payloads shared by the benchmarks.
+ */
+final class Payloads {
+
+    static final byte[] RUN = load("payloads/run.json");
+    static final byte[] MESSAGES = load("payloads/messages.json");
+
+    private Payloads() {
+    }
+
+    private static byte[] load(final String resource) {
+        try (InputStream input = Payloads.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing benchmark payload: " + resource);
+            }
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
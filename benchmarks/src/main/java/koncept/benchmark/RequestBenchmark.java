@@ -0,0 +1,59 @@
+package koncept.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import koncept.openai.OpenAIAPIClient;
+import koncept.openai.model.Message;
+import koncept.openai.model.MessageResponse;
+import koncept.openai.model.SubmitToolOutputsRunRequest;
+import koncept.openai.model.SubmitToolOutputsRunResponse;
+import koncept.openai.model.ToolOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One low-level API call against the in-process stub: request serialization, request building in
+ * {@code createRequest}, transport dispatch and response binding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBenchmark {
+
+    private OpenAIAPIClient apiClient;
+    private Message message;
+    private SubmitToolOutputsRunRequest toolOutputs;
+
+    @Setup
+    public void setup() {
+        Benchmarks.quietLogging();
+        apiClient = Benchmarks.stubApiClient();
+        message = new Message("user", "I live in a small apartment and work from home. Which pet would fit me best?");
+        toolOutputs = new SubmitToolOutputsRunRequest(List.of(
+            new ToolOutput("call_1", "[{\"name\": \"Bella\", \"species\": \"DOG\"}, {\"name\": \"Milo\", \"species\": \"CAT\"}]"),
+            new ToolOutput("call_2", "{\"available\": true}")
+        ), false);
+    }
+
+    @Benchmark
+    public MessageResponse sendMessage() {
+        return apiClient.sendMessage(message, "thread_1");
+    }
+
+    @Benchmark
+    public SubmitToolOutputsRunResponse submitToolOutputs() {
+        return apiClient.submitToolOutputs(toolOutputs, "thread_1", "run_1");
+    }
+}
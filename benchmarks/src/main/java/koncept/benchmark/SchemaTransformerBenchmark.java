@@ -0,0 +1,57 @@
+package koncept.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import koncept.jsonschema.SchemaTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Schema lookups as done on every assistant creation and tool definition. After the warmup these are cache hits;
+ * {@link koncept.jsonschema.SchemaGenerationBenchmark} measures the generation behind a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaTransformerBenchmark {
+
+    public record Address(String street, String city, String postalCode) {
+    }
+
+    public record Pet(String name, String species, int age, List<String> traits) {
+    }
+
+    public record Match(Pet pet, Address shelter, String reason, double score, List<Pet> alternatives) {
+    }
+
+    private Method toolMethod;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        toolMethod = ToolRegistryBenchmark.class.getMethod("scalars", String.class, int.class, ToolRegistryBenchmark.Experience.class);
+    }
+
+    @Benchmark
+    public ObjectNode responseSchema() {
+        return SchemaTransformer.toJSONSchema(Match.class);
+    }
+
+    @Benchmark
+    public ObjectNode toolParametersSchema() {
+        return SchemaTransformer.toToolParametersSchema(toolMethod);
+    }
+}
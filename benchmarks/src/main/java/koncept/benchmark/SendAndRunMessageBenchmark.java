@@ -0,0 +1,44 @@
+package koncept.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import koncept.KonceptAIClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The whole {@link KonceptAIClient#sendAndRunMessage} flow against the in-process stub, where every run completes on
+ * the first poll: send, run, poll, list messages and bind the structured answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendAndRunMessageBenchmark {
+
+    public record Match(String pet, String reason) {
+    }
+
+    private KonceptAIClient client;
+
+    @Setup
+    public void setup() {
+        Benchmarks.quietLogging();
+        client = Benchmarks.stubClient();
+    }
+
+    @Benchmark
+    public Match sendAndRunMessage() {
+        return client.sendAndRunMessage("Which pet would fit me best?", "thread_1", "asst_1", Match.class);
+    }
+}
@@ -0,0 +1,195 @@
+package koncept.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An embedded stand-in for the Assistants API on a loopback port, for load tests over real HTTP.
+ * <p>
+ * Every response is delayed by the configured latency. A run is {@code in_progress} for the configured run duration,
+ * then asks for tool outputs for the configured number of rounds, each followed by another run duration, and finally
+ * completes with a fixed structured answer. Delays are scheduled rather than slept, so a few server threads serve any
+ * number of concurrent conversations and the server does not compete with the client for threads.
+ * <p>
+ * A run is forgotten a grace period after it was first polled as completed, so long soak runs hold only the runs in
+ * flight and the memory of the server does not grow with their duration.
+ */
+final class StubAssistantsServer implements AutoCloseable {
+
+    static final String TOOL_NAME = "loadtest_lookup";
+
+    // long enough for a late tool output submission from a duplicate status check to still find its run
+    private static final Duration EVICTION_GRACE = Duration.ofSeconds(5);
+
+    private static final String ANSWER = "{\\\"label\\\": \\\"ok\\\", \\\"score\\\": 0.93}";
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService responder;
+    private final Duration latency;
+    private final Duration runDuration;
+    private final int toolRounds;
+    private final Map<String, RunState> runs = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+
+    private StubAssistantsServer(final Duration latency, final Duration runDuration, final int toolRounds) throws IOException {
+        this.latency = latency;
+        this.runDuration = runDuration;
+        this.toolRounds = toolRounds;
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        this.handlers = Executors.newFixedThreadPool(threads, daemon("stub-server"));
+        this.responder = Executors.newScheduledThreadPool(threads, daemon("stub-responder"));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        this.server.createContext("/v1/threads", this::handle);
+        this.server.setExecutor(handlers);
+    }
+
+    static StubAssistantsServer start(final Duration latency, final Duration runDuration, final int toolRounds) throws IOException {
+        StubAssistantsServer stub = new StubAssistantsServer(latency, runDuration, toolRounds);
+        stub.server.start();
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1";
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responder.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        requests.increment();
+        exchange.getRequestBody().readAllBytes();
+        String method = exchange.getRequestMethod();
+        // /v1/threads[/{thread}[/messages | /runs[/{run}[/submit_tool_outputs]]]]
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String body;
+        int status = 200;
+        if (path.length == 3 && method.equals("POST")) {
+            body = "{\"id\": \"thread_" + ids.incrementAndGet() + "\", \"object\": \"thread\", \"created_at\": " + now() + "}";
+        } else if (path.length == 5 && path[4].equals("messages")) {
+            body = method.equals("POST") ? message(path[3], "msg_" + ids.incrementAndGet(), "user", "Load test message")
+                : "{\"object\": \"list\", \"data\": [" + message(path[3], "msg_" + ids.incrementAndGet(), "assistant", ANSWER)
+                + "], \"has_more\": false}";
+        } else if (path.length == 5 && path[4].equals("runs") && method.equals("POST")) {
+            RunState run = new RunState("run_" + ids.incrementAndGet(), path[3]);
+            runs.put(run.id, run);
+            body = run.toJson("queued", null);
+        } else if (path.length >= 6 && runs.containsKey(path[5])) {
+            RunState run = runs.get(path[5]);
+            body = path.length == 7 ? run.submitToolOutputs() : run.poll();
+        } else {
+            status = 404;
+            body = "{\"error\": {\"message\": \"Unknown path " + exchange.getRequestURI().getPath() + "\"}}";
+        }
+        int responseStatus = status;
+        responder.schedule(() -> respond(exchange, responseStatus, body), latency.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream output = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            output.write(bytes);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private static String message(final String threadId, final String id, final String role, final String text) {
+        return "{\"id\": \"" + id + "\", \"object\": \"thread.message\", \"created_at\": " + now() + ", \"thread_id\": \""
+            + threadId + "\", \"role\": \"" + role + "\", \"content\": [{\"type\": \"text\", \"text\": {\"value\": \""
+            + text + "\", \"annotations\": []}}]}";
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static ThreadFactory daemon(final String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class RunState {
+
+        private final String id;
+        private final String threadId;
+        private final long createdAt = now();
+        private long busyUntil = System.nanoTime() + runDuration.toNanos();
+        private int roundsLeft = toolRounds;
+        private boolean awaitingOutputs;
+        private boolean evictionScheduled;
+
+        RunState(final String id, final String threadId) {
+            this.id = id;
+            this.threadId = threadId;
+        }
+
+        synchronized String poll() {
+            if (System.nanoTime() < busyUntil) {
+                return toJson("in_progress", null);
+            }
+            if (roundsLeft > 0) {
+                awaitingOutputs = true;
+                return toJson("requires_action", "{\"type\": \"submit_tool_outputs\", \"submit_tool_outputs\": {\"tool_calls\": ["
+                    + "{\"id\": \"call_" + id + "_" + roundsLeft + "\", \"type\": \"function\", \"function\": {\"name\": \""
+                    + TOOL_NAME + "\", \"arguments\": \"{\\\"key\\\": \\\"" + threadId + "\\\"}\"}}]}}");
+            }
+            if (!evictionScheduled) {
+                evictionScheduled = true;
+                responder.schedule(() -> runs.remove(id), latency.plus(EVICTION_GRACE).toNanos(), TimeUnit.NANOSECONDS);
+            }
+            return toJson("completed", null);
+        }
+
+        synchronized String submitToolOutputs() {
+            if (awaitingOutputs) {
+                awaitingOutputs = false;
+                roundsLeft--;
+                busyUntil = System.nanoTime() + runDuration.toNanos();
+            }
+            return toJson("in_progress", null);
+        }
+
+        String toJson(final String status, final String requiredAction) {
+            return "{\"id\": \"" + id + "\", \"object\": \"thread.run\", \"thread_id\": \"" + threadId + "\", "
+                + "\"assistant_id\": \"asst_loadtest\", \"model\": \"gpt-4o-mini\", \"status\": \"" + status + "\", "
+                + "\"created_at\": " + createdAt + ", \"started_at\": " + createdAt + ", "
+                + "\"completed_at\": " + (status.equals("completed") ? now() : "null") + ", "
+                + "\"required_action\": " + requiredAction + ", "
+                + "\"usage\": " + (status.equals("completed") ? "{\"prompt_tokens\": 120, \"completion_tokens\": 12, \"total_tokens\": 132}" : "null")
+                + "}";
+        }
+    }
+}
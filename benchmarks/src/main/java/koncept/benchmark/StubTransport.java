@@ -0,0 +1,41 @@
+package koncept.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import koncept.openai.HttpMethod;
+import koncept.openai.transport.HttpTransport;
+import koncept.openai.transport.TransportRequest;
+import koncept.openai.transport.TransportResponse;
+
+/**
+ * In-process stand-in for the Assistants API: every run completes on the first poll and the thread's messages are the
+ * {@link Payloads#MESSAGES} payload. No I/O happens, so the benchmarks measure the client's own overhead only.
+ */
+final class StubTransport implements HttpTransport {
+
+    private static final Map<String, List<String>> HEADERS = Map.of("content-type", List.of("application/json"));
+    private static final byte[] MESSAGE = ("{\"id\": \"msg_1\", \"object\": \"thread.message\", \"role\": \"user\", "
+        + "\"content\": [{\"type\": \"text\", \"text\": {\"value\": \"Which pet fits me?\", \"annotations\": []}}]}")
+        .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] THREAD = "{\"id\": \"thread_1\", \"object\": \"thread\", \"created_at\": 1729300000}"
+        .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COMPLETED_RUN = new String(Payloads.RUN, StandardCharsets.UTF_8)
+        .replace("\"in_progress\"", "\"completed\"")
+        .getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public TransportResponse send(final TransportRequest request) {
+        String path = request.uri().getPath();
+        byte[] body;
+        if (path.endsWith("/threads")) {
+            body = THREAD;
+        } else if (path.endsWith("/messages")) {
+            body = request.method() == HttpMethod.POST ? MESSAGE : Payloads.MESSAGES;
+        } else {
+            body = COMPLETED_RUN;
+        }
+        return new TransportResponse(200, HEADERS, body);
+    }
+}
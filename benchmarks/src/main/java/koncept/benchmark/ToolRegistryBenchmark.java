@@ -0,0 +1,75 @@
+package koncept.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import koncept.openai.function.NamedParam;
+import koncept.openai.function.ToolFunction;
+import koncept.openai.function.ToolRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tool dispatch through {@link ToolRegistry#invokeTool}, including argument conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolRegistryBenchmark {
+
+    public enum Experience {
+        NONE, LOW, MEDIUM, HIGH
+    }
+
+    @ToolFunction(name = "benchmark_no_args")
+    public static String noArgs() {
+        return "ok";
+    }
+
+    @ToolFunction(name = "benchmark_scalars")
+    public static String scalars(@NamedParam("name") String name, @NamedParam("count") int count, @NamedParam("experience") Experience experience) {
+        return name + count + experience;
+    }
+
+    @ToolFunction(name = "benchmark_list")
+    public static int list(@NamedParam("types") List<String> types) {
+        return types.size();
+    }
+
+    private Map<String, Object> scalarArguments;
+    private Map<String, Object> listArguments;
+
+    @Setup
+    public void setup() {
+        Benchmarks.quietLogging();
+        scalarArguments = Map.of("name", "Bella", "count", "3", "experience", "MEDIUM");
+        listArguments = Map.of("types", "[\"DOG\", \"CAT\", \"RABBIT\"]");
+    }
+
+    @Benchmark
+    public Object noArguments() {
+        return ToolRegistry.invokeTool("benchmark_no_args", Map.of());
+    }
+
+    @Benchmark
+    public Object scalarConversion() {
+        return ToolRegistry.invokeTool("benchmark_scalars", scalarArguments);
+    }
+
+    @Benchmark
+    public Object listConversion() {
+        return ToolRegistry.invokeTool("benchmark_list", listArguments);
+    }
+}
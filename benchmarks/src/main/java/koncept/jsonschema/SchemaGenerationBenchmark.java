@@ -0,0 +1,50 @@
+package koncept.jsonschema;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import koncept.benchmark.SchemaTransformerBenchmark;
+import koncept.benchmark.ToolRegistryBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Schema generation bypassing the cache of {@link SchemaTransformer}, i.e. the cost of the first lookup of a type and
+ * what {@link SchemaPrecompiler} saves at startup. {@link SchemaTransformerBenchmark} measures the cached lookups.
+ * <p>
+ * Declared in the package of {@link SchemaTransformer} to reach its package-private generation methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaGenerationBenchmark {
+
+    private Method toolMethod;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        toolMethod = ToolRegistryBenchmark.class.getMethod("scalars", String.class, int.class, ToolRegistryBenchmark.Experience.class);
+    }
+
+    @Benchmark
+    public ObjectNode responseSchema() {
+        return SchemaTransformer.generateSchema(SchemaTransformerBenchmark.Match.class);
+    }
+
+    @Benchmark
+    public ObjectNode toolParametersSchema() {
+        return SchemaTransformer.generateToolParametersSchema(toolMethod);
+    }
+}
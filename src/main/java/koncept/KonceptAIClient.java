@@ -1,48 +1,112 @@
 package koncept;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import koncept.concurrent.ClientExecutors;
+import koncept.hedge.HedgedResult;
+import koncept.hedge.RunHedgePolicy;
+import koncept.json.JsonCodec;
+import koncept.json.StructuredOutputListener;
+import koncept.json.StructuredOutputParser;
 import koncept.jsonschema.SchemaTransformer;
+import koncept.metrics.ClientMetrics;
 import koncept.openai.OpenAIAPIClient;
 import koncept.openai.function.ToolRegistry;
 import koncept.openai.model.AssistantRequest;
 import koncept.openai.model.AssistantResponse;
 import koncept.openai.model.AssistantsApiResponseFormatOption;
+import koncept.openai.model.FileResponse;
 import koncept.openai.model.Message;
+import koncept.openai.model.MessageDelta;
 import koncept.openai.model.MessageResponse;
-import koncept.openai.model.MessagesListResponse;
 import koncept.openai.model.OpenAIModel;
 import koncept.openai.model.RequiredAction;
 import koncept.openai.model.ResponseFormatJsonSchema;
+import koncept.openai.model.RunOptions;
 import koncept.openai.model.RunRequest;
 import koncept.openai.model.RunResponse;
+import koncept.openai.model.RunStatus;
+import koncept.openai.model.RunStepsListResponse;
+import koncept.openai.model.RunStreamEvent;
 import koncept.openai.model.SubmitToolOutputsRunRequest;
+import koncept.openai.model.SubmitToolOutputsRunResponse;
 import koncept.openai.model.ThreadResponse;
 import koncept.openai.model.ToolCall;
 import koncept.openai.model.ToolOutput;
+import koncept.openai.model.VectorStoreRequest;
+import koncept.openai.model.VectorStoreResponse;
+import koncept.openai.transport.RequestClass;
+import koncept.timeline.RunResult;
+import koncept.timeline.RunTimeline;
+import koncept.timeline.RunTimelineRecorder;
+import koncept.tokenizer.TokenBudget;
+import koncept.tokenizer.TokenEncoding;
+import koncept.tokenizer.Tokenizer;
 
 public class KonceptAIClient {
 
     private static final java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger(KonceptAIClient.class.getName());
 
     private static volatile KonceptAIClient instance;
+    // a lock rather than synchronized, so virtual threads racing for the singleton do not pin their carrier
+    private static final Lock INSTANCE_LOCK = new ReentrantLock();
     private final OpenAIAPIClient openAIAPIClient;
 
-    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, CompletableFuture<SubmitToolOutputsRunResponse>> pendingToolOutputs;
+    private final ClientExecutors executors;
+    private final TokenBudget tokenBudget;
+    private final RunOptions runOptions;
+    private final Tokenizer tokenizer;
 
-    private KonceptAIClient(boolean traceHttpRequests) {
-        this.openAIAPIClient = OpenAIAPIClient.getInstance(traceHttpRequests);
+    private final Duration pollInterval;
+    private final int maxPollAttempts;
+
+    private KonceptAIClient(final Builder builder) {
+        this.openAIAPIClient = builder.openAIAPIClient;
+        this.pendingToolOutputs = new ConcurrentHashMap<>();
+        this.pollInterval = builder.pollInterval;
+        this.maxPollAttempts = builder.maxPollAttempts;
+        this.executors = builder.executors;
+        this.tokenBudget = builder.tokenBudget;
+        this.runOptions = builder.runOptions;
+        this.tokenizer = builder.tokenBudget == null ? null
+            : builder.tokenizer != null ? builder.tokenizer : Tokenizer.forEncoding(TokenEncoding.O200K_BASE);
+    }
+
+    private KonceptAIClient(final KonceptAIClient source, final OpenAIAPIClient openAIAPIClient) {
+        this.openAIAPIClient = openAIAPIClient;
+        this.pendingToolOutputs = source.pendingToolOutputs;
+        this.pollInterval = source.pollInterval;
+        this.maxPollAttempts = source.maxPollAttempts;
+        this.executors = source.executors;
+        this.tokenBudget = source.tokenBudget;
+        this.runOptions = source.runOptions;
+        this.tokenizer = source.tokenizer;
     }
 
     /**
@@ -55,15 +119,29 @@ public class KonceptAIClient {
      */
     public static KonceptAIClient getInstance(boolean traceHttpRequests) {
         if (instance == null) {
-            synchronized (KonceptAIClient.class) {
+            INSTANCE_LOCK.lock();
+            try {
                 if (instance == null) {
-                    instance = new KonceptAIClient(traceHttpRequests);
+                    instance = builder(OpenAIAPIClient.getInstance(traceHttpRequests)).build();
                 }
+            } finally {
+                INSTANCE_LOCK.unlock();
             }
         }
         return instance;
     }
 
+    /**
+     * Creates a builder for a client that is independent of the singleton, e.g. one running on top of an
+     * {@link OpenAIAPIClient} with a replay transport for offline tests.
+     *
+     * @param openAIAPIClient The low-level client used for all API calls.
+     * @return A new Builder.
+     */
+    public static Builder builder(final OpenAIAPIClient openAIAPIClient) {
+        return new Builder(openAIAPIClient);
+    }
+
     /**
      * Retrieves the raw OpenAI API client used for direct interactions with the OpenAI backend.
      *
@@ -73,7 +151,19 @@ public class KonceptAIClient {
         return this.openAIAPIClient;
     }
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Returns a view of this client whose API calls are scheduled in the given lane by the QoS policy of the
+     * underlying {@link OpenAIAPIClient}, e.g. {@code client.forLane(RequestClass.BULK)} for a nightly batch job
+     * sharing the client with user-facing traffic. Executors, token budget and run options are shared.
+     *
+     * @param requestClass The lane of the API calls made through the view.
+     * @return A client making its API calls in the given lane.
+     */
+    public KonceptAIClient forLane(final RequestClass requestClass) {
+        return requestClass == openAIAPIClient.requestClass() ? this : new KonceptAIClient(this, openAIAPIClient.forLane(requestClass));
+    }
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
 
     /**
      * Creates an assistant with the specified response type.
@@ -117,19 +207,82 @@ public class KonceptAIClient {
                                    final String threadId,
                                    final String assistantId,
                                    final Class<T> responseClass) {
+        return sendAndRunMessage(content, threadId, assistantId, responseClass, null);
+    }
+
+    /**
+     * Works like {@link #sendAndRunMessage(String, String, String, Class)} with run options for this call, e.g. to cap
+     * the history and tokens of a run on a hot conversational path.
+     *
+     * @param content       The content of the message to be sent.
+     * @param threadId      The ID of the thread to which the message is to be sent.
+     * @param assistantId   The ID of the assistant to be run.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param runOptions    Options overriding the client-wide defaults where they are set; may be null.
+     * @param <T>           The type of the response.
+     * @return The response from the assistant parsed into an instance of the specified class.
+     * @throws RuntimeException if an error occurs while sending the message, initiating the run, waiting for completion, or parsing the response.
+     */
+    public <T> T sendAndRunMessage(final String content,
+                                   final String threadId,
+                                   final String assistantId,
+                                   final Class<T> responseClass,
+                                   final RunOptions runOptions) {
+        return sendAndRunMessageWithTimeline(content, threadId, assistantId, responseClass, runOptions).response();
+    }
+
+    /**
+     * Works like {@link #sendAndRunMessage(String, String, String, Class)} and additionally returns the timeline of the
+     * run: server-side lifecycle timestamps, locally observed status transitions, tool call durations and token usage.
+     *
+     * @param content       The content of the message to be sent.
+     * @param threadId      The ID of the thread to which the message is to be sent.
+     * @param assistantId   The ID of the assistant to be run.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param <T>           The type of the response.
+     * @return The parsed response together with the {@link RunTimeline} of the run.
+     * @throws RuntimeException if an error occurs while sending the message, initiating the run, waiting for completion, or parsing the response.
+     */
+    public <T> RunResult<T> sendAndRunMessageWithTimeline(final String content,
+                                                          final String threadId,
+                                                          final String assistantId,
+                                                          final Class<T> responseClass) {
+        return sendAndRunMessageWithTimeline(content, threadId, assistantId, responseClass, null);
+    }
+
+    /**
+     * Works like {@link #sendAndRunMessageWithTimeline(String, String, String, Class)} with run options for this call.
+     *
+     * @param content       The content of the message to be sent.
+     * @param threadId      The ID of the thread to which the message is to be sent.
+     * @param assistantId   The ID of the assistant to be run.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param runOptions    Options overriding the client-wide defaults where they are set; may be null.
+     * @param <T>           The type of the response.
+     * @return The parsed response together with the {@link RunTimeline} of the run.
+     * @throws RuntimeException if an error occurs while sending the message, initiating the run, waiting for completion, or parsing the response.
+     */
+    public <T> RunResult<T> sendAndRunMessageWithTimeline(final String content,
+                                                          final String threadId,
+                                                          final String assistantId,
+                                                          final Class<T> responseClass,
+                                                          final RunOptions runOptions) {
         Message message = new Message("user", content);
+        long estimatedTokens = estimateTokens(message);
+        acquireTokens(estimatedTokens);
         MessageResponse messageResponse = openAIAPIClient.sendMessage(message, threadId);
         LOGGER.info(() -> "Message sent with id: " + messageResponse.id());
         try {
-            RunRequest runRequest = new RunRequest(assistantId);
+            RunTimelineRecorder recorder = new RunTimelineRecorder(threadId);
+            RunRequest runRequest = runRequest(assistantId, runOptions);
             RunResponse runResponseDTO = openAIAPIClient.runMessage(runRequest, threadId);
 
             String runId = runResponseDTO.id();
-            waitUntilRunIsFinished(threadId, runId, 10);
-            MessagesListResponse messagesListResponseDTO = openAIAPIClient.getMessages(threadId);
-            return objectMapper.readValue(
-                messagesListResponseDTO.data().stream().filter(d -> "assistant".equals(d.role())).findFirst().get().content().get(0).text().value(),
-                responseClass);
+            recorder.runCreated(runId);
+            RunTimeline timeline = waitUntilRunIsFinished(threadId, runId, maxPollAttempts, recorder);
+            reconcileTokens(estimatedTokens, timeline);
+            T response = jsonCodec.reader(responseClass).readValue(latestAssistantMessage(threadId));
+            return new RunResult<>(response, timeline);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error in sendAndRunMessage", e);
             throw new RuntimeException(e);
@@ -152,38 +305,330 @@ public class KonceptAIClient {
         String threadId,
         String assistantId,
         Class<T> responseClass) {
+        return sendAndRunMessageAsync(content, threadId, assistantId, responseClass, null);
+    }
+
+    /**
+     * Works like {@link #sendAndRunMessageAsync(String, String, String, Class)} with run options for this call.
+     *
+     * @param content       The content of the message to be sent.
+     * @param threadId      The ID of the thread to which the message is to be sent.
+     * @param assistantId   The ID of the assistant to be run.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param runOptions    Options overriding the client-wide defaults where they are set; may be null.
+     * @param <T>           The type of the response.
+     * @return A CompletableFuture holding the response from the assistant parsed into an instance of the specified class.
+     */
+    public <T> CompletableFuture<T> sendAndRunMessageAsync(
+        String content,
+        String threadId,
+        String assistantId,
+        Class<T> responseClass,
+        RunOptions runOptions) {
         Message message = new Message("user", content);
-        return CompletableFuture.runAsync(() -> openAIAPIClient.sendMessage(message, threadId))
-            .thenComposeAsync(ignored -> runMessageAsync(threadId, assistantId))
-            .thenComposeAsync(runResponse -> {
-                String runId = runResponse.id();
-                return waitUntilRunIsFinishedAsync(threadId, runId)
-                    .thenApplyAsync(ignored2 -> runId);
-            })
-            .thenComposeAsync(ignored -> getMessagesAsync(threadId))
-            .thenApplyAsync(messagesListResponseDTO -> {
+        long estimatedTokens = estimateTokens(message);
+        Executor io = executors.io();
+        return CompletableFuture.runAsync(() -> {
+                acquireTokens(estimatedTokens);
+                openAIAPIClient.sendMessage(message, threadId);
+            }, io)
+            .thenComposeAsync(ignored -> {
+                RunTimelineRecorder recorder = new RunTimelineRecorder(threadId);
+                return runMessageAsync(threadId, runRequest(assistantId, runOptions))
+                    .thenComposeAsync(runResponse -> {
+                        String runId = runResponse.id();
+                        recorder.runCreated(runId);
+                        return waitUntilRunIsFinishedAsync(threadId, runId, recorder)
+                            .thenApply(timeline -> {
+                                reconcileTokens(estimatedTokens, timeline);
+                                return runId;
+                            });
+                    }, io);
+            }, io)
+            .thenComposeAsync(ignored -> latestAssistantMessageAsync(threadId), io)
+            .thenApplyAsync(assistantMessage -> {
                 try {
-                    String assistantMessage = messagesListResponseDTO.data()
-                        .stream()
-                        .filter(d -> "assistant".equals(d.role()))
-                        .findFirst()
-                        .orElseThrow(() -> new RuntimeException("No assistant message found"))
-                        .content()
-                        .get(0)
-                        .text()
-                        .value();
-                    return objectMapper.readValue(assistantMessage, responseClass);
+                    return jsonCodec.reader(responseClass).<T>readValue(assistantMessage);
                 } catch (Exception e) {
                     LOGGER.log(Level.SEVERE, "Error parsing assistant response", e);
                     throw new RuntimeException(e);
                 }
-            })
+            }, io)
             .exceptionally(e -> {
                 LOGGER.log(Level.SEVERE, "Error in sendAndRunMessageAsync", e);
                 throw new RuntimeException(e);
             });
     }
 
+    /**
+     * Sends the message to the primary assistant of the policy and, if no accepted response arrived after the policy's
+     * delay, to its hedge assistant as well, and returns the first response that deserializes and passes the
+     * acceptance predicate. The run that loses is cancelled, and a hedge that has not started yet never starts. An
+     * acceptance predicate that throws rejects the response. The threads of attempts that lost, were rejected or failed
+     * are deleted on a best-effort basis.
+     * <p>
+     * Every attempt runs on a new thread, since a thread cannot have two active runs; hedging is therefore meant for
+     * self-contained prompts rather than for a conversation.
+     *
+     * @param content       The content of the message to be sent.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param policy        The assistants to race, the delay before the hedge and the acceptance predicate.
+     * @param <T>           The type of the response.
+     * @return A CompletableFuture holding the accepted response and the assistant that produced it, completed
+     * exceptionally if neither assistant produced an accepted response.
+     */
+    public <T> CompletableFuture<HedgedResult<T>> sendAndRunMessageHedgedAsync(final String content,
+                                                                               final Class<T> responseClass,
+                                                                               final RunHedgePolicy<? super T> policy) {
+        CompletableFuture<HedgedResult<T>> result = new CompletableFuture<>();
+        List<HedgeAttempt> attempts = List.of(new HedgeAttempt(), new HedgeAttempt());
+        AtomicBoolean hedgeStarted = new AtomicBoolean();
+        AtomicInteger finishedAttempts = new AtomicInteger();
+        AtomicReference<ScheduledFuture<?>> hedgeTimer = new AtomicReference<>();
+
+        Consumer<Integer> start = new Consumer<>() {
+            @Override
+            public void accept(final Integer attempt) {
+                String assistantId = attempt == 0 ? policy.primaryAssistantId() : policy.hedgeAssistantId();
+                runOnNewThreadAsync(content, assistantId, responseClass, attempts.get(attempt), result)
+                    .whenComplete((response, e) -> {
+                        Throwable failure = e;
+                        boolean accepted = false;
+                        if (e == null) {
+                            try {
+                                accepted = policy.acceptance().test(response);
+                            } catch (RuntimeException rejection) {
+                                failure = rejection;
+                            }
+                        }
+                        if (accepted && result.complete(new HedgedResult<>(response, assistantId, hedgeStarted.get()))) {
+                            ScheduledFuture<?> timer = hedgeTimer.get();
+                            if (timer != null) {
+                                timer.cancel(false);
+                            }
+                            cancelRunAsync(attempts.get(1 - attempt).run.get());
+                            return;
+                        }
+                        // a losing, rejected or failed attempt is never read again
+                        deleteThreadAsync(attempts.get(attempt).threadId.get());
+                        if (accepted) {
+                            return;
+                        }
+                        LOGGER.log(Level.WARNING, "Hedged attempt on assistant " + assistantId + " produced no accepted response", failure);
+                        int finished = finishedAttempts.incrementAndGet();
+                        if (attempt == 0 && hedgeStarted.compareAndSet(false, true)) {
+                            accept(1);
+                        } else if (finished == 2) {
+                            result.completeExceptionally(new RuntimeException("No hedged attempt produced an accepted response", failure));
+                        }
+                    });
+            }
+        };
+        start.accept(0);
+        hedgeTimer.set(executors.scheduler().schedule(() -> {
+            if (!result.isDone() && hedgeStarted.compareAndSet(false, true)) {
+                LOGGER.info(() -> "Starting hedge on assistant " + policy.hedgeAssistantId());
+                executors.io().execute(() -> start.accept(1));
+            }
+        }, policy.delay().toNanos(), TimeUnit.NANOSECONDS));
+        return result;
+    }
+
+    private <T> CompletableFuture<T> runOnNewThreadAsync(final String content,
+                                                         final String assistantId,
+                                                         final Class<T> responseClass,
+                                                         final HedgeAttempt attempt,
+                                                         final CompletableFuture<?> decided) {
+        Message message = new Message("user", content);
+        long estimatedTokens = estimateTokens(message);
+        Executor io = executors.io();
+        return CompletableFuture.supplyAsync(() -> {
+                acquireTokens(estimatedTokens);
+                String threadId = openAIAPIClient.createThread().id();
+                attempt.threadId.set(threadId);
+                openAIAPIClient.sendMessage(message, threadId);
+                return threadId;
+            }, io)
+            .thenComposeAsync(threadId -> runMessageAsync(threadId, runRequest(assistantId, null))
+                .thenComposeAsync(runResponse -> {
+                    attempt.run.set(runResponse);
+                    if (decided.isDone()) {
+                        // the other attempt won while this run was being created
+                        cancelRunAsync(runResponse);
+                    }
+                    RunTimelineRecorder recorder = new RunTimelineRecorder(threadId);
+                    recorder.runCreated(runResponse.id());
+                    return waitUntilRunIsFinishedAsync(threadId, runResponse.id(), recorder);
+                }, io)
+                .thenComposeAsync(timeline -> {
+                    reconcileTokens(estimatedTokens, timeline);
+                    if (!"completed".equals(timeline.finalStatus())) {
+                        throw new RuntimeException("Run on assistant " + assistantId + " ended with status " + timeline.finalStatus());
+                    }
+                    return latestAssistantMessageAsync(threadId);
+                }, io), io)
+            .thenApplyAsync(assistantMessage -> {
+                try {
+                    return jsonCodec.reader(responseClass).<T>readValue(assistantMessage);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, io);
+    }
+
+    private void deleteThreadAsync(final String threadId) {
+        if (threadId == null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> openAIAPIClient.deleteThread(threadId), executors.io())
+            .exceptionally(e -> {
+                LOGGER.fine(() -> "Could not delete thread " + threadId + ": " + e);
+                return null;
+            });
+    }
+
+    private void cancelRunAsync(final RunResponse run) {
+        if (run == null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> openAIAPIClient.cancelRun(run.threadId(), run.id()), executors.io())
+            .exceptionally(e -> {
+                // the run may have ended in the meantime
+                LOGGER.fine(() -> "Could not cancel run " + run.id() + ": " + e);
+                return null;
+            });
+    }
+
+    /**
+     * Sends a message to the specified thread and streams a run for the given assistant, parsing the structured
+     * response incrementally while it is generated. The listener sees each field of the response as soon as it is
+     * complete, so early fields (e.g. a classification label) can be acted on before the model finishes the rest.
+     * Tool calls requested during the run are executed and their outputs submitted on the same stream.
+     *
+     * @param content       The content of the message to be sent.
+     * @param threadId      The ID of the thread to which the message is to be sent.
+     * @param assistantId   The ID of the assistant to be run; it should use a {@code json_schema} response format.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param listener      Receives completed fields and partially populated responses while the response streams.
+     * @param <T>           The type of the response.
+     * @return The complete response from the assistant parsed into an instance of the specified class.
+     * @throws RuntimeException if an error occurs while sending the message, streaming the run, or parsing the response.
+     */
+    public <T> T sendAndRunMessageStreaming(final String content,
+                                            final String threadId,
+                                            final String assistantId,
+                                            final Class<T> responseClass,
+                                            final StructuredOutputListener<T> listener) {
+        return sendAndRunMessageStreaming(content, threadId, assistantId, responseClass, listener, null);
+    }
+
+    /**
+     * Works like {@link #sendAndRunMessageStreaming(String, String, String, Class, StructuredOutputListener)} with run
+     * options for this call.
+     *
+     * @param content       The content of the message to be sent.
+     * @param threadId      The ID of the thread to which the message is to be sent.
+     * @param assistantId   The ID of the assistant to be run; it should use a {@code json_schema} response format.
+     * @param responseClass The class type to which the response from the assistant should be parsed.
+     * @param listener      Receives completed fields and partially populated responses while the response streams.
+     * @param runOptions    Options overriding the client-wide defaults where they are set; may be null.
+     * @param <T>           The type of the response.
+     * @return The complete response from the assistant parsed into an instance of the specified class.
+     * @throws RuntimeException if an error occurs while sending the message, streaming the run, or parsing the response.
+     */
+    public <T> T sendAndRunMessageStreaming(final String content,
+                                            final String threadId,
+                                            final String assistantId,
+                                            final Class<T> responseClass,
+                                            final StructuredOutputListener<T> listener,
+                                            final RunOptions runOptions) {
+        Message message = new Message("user", content);
+        long estimatedTokens = estimateTokens(message);
+        acquireTokens(estimatedTokens);
+        MessageResponse messageResponse = openAIAPIClient.sendMessage(message, threadId);
+        LOGGER.info(() -> "Message sent with id: " + messageResponse.id());
+        try (StructuredOutputParser<T> parser = new StructuredOutputParser<>(responseClass, listener)) {
+            RunTimelineRecorder recorder = new RunTimelineRecorder(threadId);
+            Consumer<RunStreamEvent> onEvent = event -> {
+                if ("thread.message.delta".equals(event.event())) {
+                    feedMessageDelta(parser, event);
+                }
+            };
+            RunStatus runStatus = openAIAPIClient.streamRun(runRequest(assistantId, runOptions), threadId, onEvent);
+            while (runStatus != null && runStatus.requiredAction() != null) {
+                recorder.runCreated(runStatus.id());
+                recorder.observe(runStatus);
+                List<ToolOutput> toolOutputs = collectToolOutputs(runStatus.requiredAction(), recorder).join();
+                SubmitToolOutputsRunRequest submitToolOutputsRunRequest = new SubmitToolOutputsRunRequest(toolOutputs, true);
+                runStatus = openAIAPIClient.streamSubmitToolOutputs(submitToolOutputsRunRequest, threadId, runStatus.id(), onEvent);
+            }
+            if (runStatus != null) {
+                recorder.runCreated(runStatus.id());
+                recorder.observe(runStatus);
+                RunTimeline timeline = recorder.finish();
+                openAIAPIClient.metrics().runCompleted(timeline);
+                reconcileTokens(estimatedTokens, timeline);
+            }
+            if (runStatus == null || !"completed".equals(runStatus.status())) {
+                String finalStatus = runStatus == null ? "unknown" : runStatus.status();
+                throw new RuntimeException("Run at thread " + threadId + " ended with status: " + finalStatus);
+            }
+            return parser.complete();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error in sendAndRunMessageStreaming", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long estimateTokens(final Message message) {
+        return tokenBudget == null ? 0 : tokenizer.countMessageTokens(List.of(message));
+    }
+
+    private void acquireTokens(final long estimatedTokens) {
+        if (tokenBudget == null) {
+            return;
+        }
+        try {
+            tokenBudget.acquire(estimatedTokens);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void reconcileTokens(final long estimatedTokens, final RunTimeline timeline) {
+        if (tokenBudget != null && timeline.usage() != null) {
+            tokenBudget.reconcile(estimatedTokens, timeline.usage().totalTokens());
+        }
+    }
+
+    private <T> void feedMessageDelta(final StructuredOutputParser<T> parser, final RunStreamEvent event) {
+        try {
+            MessageDelta messageDelta = jsonCodec.reader(MessageDelta.class).readValue(event.data());
+            if (messageDelta.delta() == null || messageDelta.delta().content() == null) {
+                return;
+            }
+            for (MessageDelta.Content deltaContent : messageDelta.delta().content()) {
+                if ("text".equals(deltaContent.type()) && deltaContent.text() != null && deltaContent.text().value() != null) {
+                    parser.feed(deltaContent.text().value());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fetches the steps of a run on demand, e.g. to break down the tool calls and message creation of a slow run.
+     *
+     * @param threadId The ID of the thread to which the run belongs.
+     * @param runId    The ID of the run.
+     * @return The steps of the run.
+     */
+    public RunStepsListResponse getRunSteps(final String threadId, final String runId) {
+        return openAIAPIClient.getRunSteps(threadId, runId);
+    }
+
     /**
      * Creates a new thread by delegating the call to the OpenAI API client.
      *
@@ -193,42 +638,163 @@ public class KonceptAIClient {
         return openAIAPIClient.createThread();
     }
 
-    private CompletableFuture<RunResponse> runMessageAsync(final String threadId, final String assistantId) {
-        RunRequest runRequest = new RunRequest(assistantId);
-        return CompletableFuture.supplyAsync(() -> openAIAPIClient.runMessage(runRequest, assistantId));
+    /**
+     * Uploads files in parallel, with at most the given number of uploads in flight. Each file is streamed from disk.
+     *
+     * @param files                The files to upload.
+     * @param maxConcurrentUploads The number of files uploaded at once.
+     * @return A CompletableFuture holding the uploaded files in the order of {@code files}, completed exceptionally
+     * if an upload failed; no further uploads are started after a failure.
+     */
+    public CompletableFuture<List<FileResponse>> uploadFilesAsync(final List<Path> files, final int maxConcurrentUploads) {
+        AtomicReferenceArray<FileResponse> uploaded = new AtomicReferenceArray<>(files.size());
+        AtomicInteger nextFile = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        // each worker uploads one file after the other, so no more than maxConcurrentUploads bodies are streamed at once
+        Runnable worker = () -> {
+            int index;
+            while (!failed.get() && (index = nextFile.getAndIncrement()) < files.size()) {
+                try {
+                    uploaded.set(index, openAIAPIClient.uploadFile(files.get(index)));
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+        };
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(1, Math.min(maxConcurrentUploads, files.size()))];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = CompletableFuture.runAsync(worker, executors.io());
+        }
+        return CompletableFuture.allOf(workers)
+            .thenApply(ignored -> {
+                List<FileResponse> responses = new ArrayList<>(files.size());
+                for (int i = 0; i < files.size(); i++) {
+                    responses.add(uploaded.get(i));
+                }
+                return responses;
+            });
     }
 
-    private CompletableFuture<Void> waitUntilRunIsFinishedAsync(final String threadId, final String runId) {
-        return CompletableFuture.runAsync(() -> {
+    /**
+     * Uploads files in parallel into a new vector store and waits until the store has ingested them, checking its
+     * status at the poll interval on the same scheduler as runs. Attach the store to an assistant with
+     * {@link AssistantRequest#withFileSearch(List)}.
+     *
+     * @param vectorStoreName      The name of the vector store.
+     * @param files                The files to upload and ingest.
+     * @param maxConcurrentUploads The number of files uploaded at once.
+     * @param timeout              How long to wait for the ingestion once the files are uploaded.
+     * @return A CompletableFuture holding the vector store once it is no longer {@code in_progress}; its file counts
+     * tell how many files failed to be ingested.
+     */
+    public CompletableFuture<VectorStoreResponse> ingestFilesAsync(final String vectorStoreName,
+                                                                   final List<Path> files,
+                                                                   final int maxConcurrentUploads,
+                                                                   final Duration timeout) {
+        return uploadFilesAsync(files, maxConcurrentUploads)
+            .thenApplyAsync(uploaded -> openAIAPIClient.createVectorStore(
+                new VectorStoreRequest(vectorStoreName, uploaded.stream().map(FileResponse::id).toList())), executors.io())
+            .thenCompose(vectorStore -> awaitIngestionAsync(vectorStore.id(), timeout));
+    }
+
+    private CompletableFuture<VectorStoreResponse> awaitIngestionAsync(final String vectorStoreId, final Duration timeout) {
+        CompletableFuture<VectorStoreResponse> ingested = new CompletableFuture<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        AtomicBoolean checkInFlight = new AtomicBoolean();
+        Runnable check = () -> {
             try {
-                waitUntilRunIsFinished(threadId, runId, 10);
+                VectorStoreResponse vectorStore = openAIAPIClient.getVectorStore(vectorStoreId);
+                if (!"in_progress".equals(vectorStore.status())) {
+                    ingested.complete(vectorStore);
+                }
+            } catch (Exception e) {
+                LOGGER.severe(() -> "Failed to get vector store info, retrying..." + e);
+            } finally {
+                checkInFlight.set(false);
+            }
+        };
+        Runnable tick = () -> {
+            if (System.nanoTime() - deadline > 0) {
+                ingested.completeExceptionally(new RuntimeException("Vector store " + vectorStoreId + " was not ingested within " + timeout));
+            } else if (!ingested.isDone() && checkInFlight.compareAndSet(false, true)) {
+                try {
+                    executors.io().execute(check);
+                } catch (RuntimeException e) {
+                    checkInFlight.set(false);
+                    LOGGER.log(Level.SEVERE, "Failed to schedule status check of vector store " + vectorStoreId, e);
+                }
+            }
+        };
+        ScheduledFuture<?> polling = executors.scheduler().scheduleAtFixedRate(tick, 0, pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        ingested.whenComplete((vectorStore, e) -> polling.cancel(false));
+        return ingested;
+    }
+
+    private RunRequest runRequest(final String assistantId, final RunOptions overrides) {
+        return new RunRequest(assistantId, runOptions.overriddenBy(overrides));
+    }
+
+    private CompletableFuture<RunResponse> runMessageAsync(final String threadId, final RunRequest runRequest) {
+        return CompletableFuture.supplyAsync(() -> openAIAPIClient.runMessage(runRequest, threadId), executors.io());
+    }
+
+    private CompletableFuture<RunTimeline> waitUntilRunIsFinishedAsync(final String threadId, final String runId, final RunTimelineRecorder recorder) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return waitUntilRunIsFinished(threadId, runId, maxPollAttempts, recorder);
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, executors.io());
     }
 
-    private CompletableFuture<MessagesListResponse> getMessagesAsync(final String threadId) {
+    /**
+     * Reads the newest assistant message of a thread; with a conversation store, only the messages not stored yet are
+     * fetched rather than the latest page of the thread.
+     */
+    private String latestAssistantMessage(final String threadId) {
+        List<MessageResponse> newestFirst;
+        if (openAIAPIClient.conversationStore() != null) {
+            openAIAPIClient.syncMessages(threadId);
+            newestFirst = new ArrayList<>(openAIAPIClient.getHistory(threadId));
+            Collections.reverse(newestFirst);
+        } else {
+            newestFirst = openAIAPIClient.getMessages(threadId).data();
+        }
+        return newestFirst.stream()
+            .filter(d -> "assistant".equals(d.role()))
+            .findFirst()
+            .orElseThrow(() -> new RuntimeException("No assistant message found"))
+            .content()
+            .get(0)
+            .text()
+            .value();
+    }
+
+    private CompletableFuture<String> latestAssistantMessageAsync(final String threadId) {
         return CompletableFuture.supplyAsync(() -> {
             try {
-                return openAIAPIClient.getMessages(threadId);
+                return latestAssistantMessage(threadId);
             } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Error fetching messages asynchronously", e);
                 throw new RuntimeException(e);
             }
-        });
+        }, executors.io());
     }
 
-    private boolean isRunDone(final String threadId, final String runId) {
-        RunResponse runResponseDTO;
+    private boolean isRunDone(final String threadId, final String runId, final RunTimelineRecorder recorder) {
+        RunStatus runStatusDTO;
         try {
-            runResponseDTO = openAIAPIClient.getRun(threadId, runId);
-            String runStatus = runResponseDTO.status();
-            if (runResponseDTO.requiredAction() != null) {
-                processRequiredActions(threadId, runId, runResponseDTO.requiredAction());
+            runStatusDTO = openAIAPIClient.getRunStatus(threadId, runId);
+            recorder.observe(runStatusDTO);
+            String runStatus = runStatusDTO.status();
+            if (runStatusDTO.requiredAction() != null && !pendingToolOutputs.containsKey(runId)) {
+                CompletableFuture<SubmitToolOutputsRunResponse> submission = processRequiredActions(threadId, runId, runStatusDTO.requiredAction(), recorder);
+                pendingToolOutputs.put(runId, submission);
+                submission.whenComplete((response, e) -> pendingToolOutputs.remove(runId, submission));
             }
-            LOGGER.info(() -> "Current status of run " + runId + " at thread " + threadId + " is: " + runStatus);
-            System.out.println("Status of your run is currently " + runStatus);
+            LOGGER.fine(() -> "Current status of run " + runId + " at thread " + threadId + " is: " + runStatus);
             return isRunStateFinal(runStatus);
         } catch (Exception e) {
             LOGGER.severe(() -> "Failed to get run info, retrying..." + e);
@@ -236,28 +802,63 @@ public class KonceptAIClient {
         }
     }
 
-    private void processRequiredActions(String threadId, String runId, RequiredAction requiredAction) {
-        Map<String, CompletableFuture<Object>> futuresMap = requiredAction
+    private CompletableFuture<SubmitToolOutputsRunResponse> processRequiredActions(String threadId,
+                                                                                   String runId,
+                                                                                   RequiredAction requiredAction,
+                                                                                   RunTimelineRecorder recorder) {
+        return collectToolOutputs(requiredAction, recorder)
+            .thenApplyAsync(toolOutputs -> {
+                SubmitToolOutputsRunRequest submitToolOutputsRunRequest = new SubmitToolOutputsRunRequest(toolOutputs, false);
+                return openAIAPIClient.submitToolOutputs(submitToolOutputsRunRequest, threadId, runId);
+            }, executors.io())
+            .whenComplete((response, e) -> {
+                if (e != null) {
+                    LOGGER.log(Level.SEVERE, "Failed to submit tool outputs for run " + runId, e);
+                }
+            });
+    }
+
+    private CompletableFuture<List<ToolOutput>> collectToolOutputs(final RequiredAction requiredAction, final RunTimelineRecorder recorder) {
+        List<CompletableFuture<ToolOutput>> outputFutures = requiredAction
             .submitToolOutputs()
             .toolCalls()
             .stream()
-            .collect(Collectors.toMap(
-                ToolCall::id,
-                call -> CompletableFuture.supplyAsync(() -> invokeToolFunction(call))
-            ));
-        CompletableFuture.allOf(
-            futuresMap.values().toArray(new CompletableFuture[0])
-        ).join();
-
-        List<ToolOutput> toolOutputs = futuresMap.entrySet().stream().
-            map(es -> new ToolOutput(es.getKey(), es.getValue().join().toString()))
+            .map(call -> invokeToolFunction(call, recorder).thenApply(result -> new ToolOutput(call.id(), toToolOutput(result))))
             .collect(Collectors.toList());
-        SubmitToolOutputsRunRequest submitToolOutputsRunResponse = new SubmitToolOutputsRunRequest(toolOutputs, false);
-        openAIAPIClient.submitToolOutputs(submitToolOutputsRunResponse, threadId, runId);
+        return CompletableFuture.allOf(outputFutures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> outputFutures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList()));
     }
 
-    private Object invokeToolFunction(ToolCall call) {
-        return ToolRegistry.invokeTool(call.function().name(), call.function().arguments());
+    private CompletableFuture<Object> invokeToolFunction(ToolCall call, RunTimelineRecorder recorder) {
+        String toolName = call.function().name();
+        ClientMetrics metrics = openAIAPIClient.metrics();
+        long submittedAt = System.nanoTime();
+        AtomicLong startedAt = new AtomicLong(submittedAt);
+        Executor instrumentedExecutor = command -> executors.tools().execute(() -> {
+            long now = System.nanoTime();
+            startedAt.set(now);
+            metrics.queueWait("tools", now - submittedAt);
+            command.run();
+        });
+        return ToolRegistry.invokeToolAsync(toolName, call.function().arguments(), instrumentedExecutor)
+            .whenComplete((result, e) -> {
+                long durationNanos = System.nanoTime() - startedAt.get();
+                metrics.toolExecuted(toolName, durationNanos, e == null);
+                recorder.toolCall(call.id(), toolName, Duration.ofNanos(durationNanos), e == null);
+            });
+    }
+
+    private String toToolOutput(final Object result) {
+        if (result instanceof CharSequence text) {
+            return text.toString();
+        }
+        try {
+            return jsonCodec.writerFor(result).writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize tool output: " + result, e);
+        }
     }
 
     private boolean isRunStateFinal(final String runStatus) {
@@ -265,16 +866,145 @@ public class KonceptAIClient {
     }
 
 
-    private void waitUntilRunIsFinished(final String threadId, final String runId, final int maxRetries) throws InterruptedException {
+    private RunTimeline waitUntilRunIsFinished(final String threadId,
+                                               final String runId,
+                                               final int maxRetries,
+                                               final RunTimelineRecorder recorder) throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(1);
         final AtomicInteger attemptCounter = new AtomicInteger(0);
-        Runnable checkTask = () -> {
-            if (isRunDone(threadId, runId) || attemptCounter.incrementAndGet() >= maxRetries) {
-                latch.countDown();
-                scheduler.shutdown();
+        final AtomicInteger pollCounter = new AtomicInteger(0);
+        final AtomicBoolean checkInFlight = new AtomicBoolean();
+        final AtomicBoolean runDone = new AtomicBoolean();
+        Runnable check = () -> {
+            try {
+                pollCounter.incrementAndGet();
+                if (isRunDone(threadId, runId, recorder)) {
+                    runDone.set(true);
+                    latch.countDown();
+                } else if (attemptCounter.incrementAndGet() >= maxRetries) {
+                    latch.countDown();
+                }
+            } finally {
+                checkInFlight.set(false);
             }
         };
-        scheduler.scheduleAtFixedRate(checkTask, 0, 3, TimeUnit.SECONDS);
-        latch.await();
+        // the scheduler thread only times the checks; the blocking status call runs on the io executor, and a tick is
+        // skipped while the previous check of this run is still in flight
+        Runnable tick = () -> {
+            if (latch.getCount() > 0 && checkInFlight.compareAndSet(false, true)) {
+                try {
+                    executors.io().execute(check);
+                } catch (RuntimeException e) {
+                    checkInFlight.set(false);
+                    LOGGER.log(Level.SEVERE, "Failed to schedule status check of run " + runId, e);
+                }
+            }
+        };
+        ScheduledFuture<?> polling = executors.scheduler().scheduleAtFixedRate(tick, 0, pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        try {
+            latch.await();
+        } finally {
+            polling.cancel(false);
+            openAIAPIClient.metrics().runPolled(pollCounter.get());
+        }
+        if (!runDone.get()) {
+            LOGGER.warning(() -> "Stopped waiting for run " + runId + " at thread " + threadId + " after " + maxRetries + " status checks");
+            RunTimeline timeline = recorder.abandon();
+            openAIAPIClient.metrics().runAbandoned(timeline);
+            return timeline;
+        }
+        RunTimeline timeline = recorder.finish();
+        openAIAPIClient.metrics().runCompleted(timeline);
+        return timeline;
+    }
+
+    /**
+     * The thread and run of one attempt of a hedged request, set as they are created.
+     */
+    private static final class HedgeAttempt {
+
+        private final AtomicReference<String> threadId = new AtomicReference<>();
+        private final AtomicReference<RunResponse> run = new AtomicReference<>();
+    }
+
+    /**
+     * Builder for {@link KonceptAIClient} instances.
+     */
+    public static final class Builder {
+
+        private final OpenAIAPIClient openAIAPIClient;
+        private Duration pollInterval = Duration.ofSeconds(3);
+        private int maxPollAttempts = 10;
+        private ClientExecutors executors = ClientExecutors.platform();
+        private TokenBudget tokenBudget;
+        private RunOptions runOptions = RunOptions.defaults();
+        private Tokenizer tokenizer;
+
+        private Builder(final OpenAIAPIClient openAIAPIClient) {
+            this.openAIAPIClient = openAIAPIClient;
+        }
+
+        /**
+         * @param pollInterval The interval between two status checks of a run; defaults to 3 seconds.
+         * @return This builder.
+         */
+        public Builder pollInterval(final Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        /**
+         * @param maxPollAttempts The number of status checks after which waiting for a run is abandoned; defaults to 10.
+         * @return This builder.
+         */
+        public Builder maxPollAttempts(final int maxPollAttempts) {
+            this.maxPollAttempts = maxPollAttempts;
+            return this;
+        }
+
+        /**
+         * @param executors The executors for HTTP calls, status checks and tools; defaults to
+         *                  {@link ClientExecutors#platform()}. Use {@link ClientExecutors#virtualThreads()} on Java 21.
+         * @return This builder.
+         */
+        public Builder executors(final ClientExecutors executors) {
+            this.executors = executors;
+            return this;
+        }
+
+        /**
+         * @param runOptions The options sent with every run unless overridden per call, e.g.
+         *                   {@code RunOptions.defaults().withTruncationStrategy(TruncationStrategy.lastMessages(10))};
+         *                   defaults to {@link RunOptions#defaults()}, leaving everything to the assistant.
+         * @return This builder.
+         */
+        public Builder runOptions(final RunOptions runOptions) {
+            this.runOptions = runOptions;
+            return this;
+        }
+
+        /**
+         * @param tokenBudget A tokens-per-minute budget that messages are admitted against before they are sent, using
+         *                    local token estimates corrected by the usage reported for each run; none by default.
+         * @return This builder.
+         */
+        public Builder tokenBudget(final TokenBudget tokenBudget) {
+            this.tokenBudget = tokenBudget;
+            return this;
+        }
+
+        /**
+         * @param tokenizer The tokenizer for the estimates of the token budget, e.g. {@link Tokenizer#forModel} of the
+         *                  assistants' model; defaults to the {@code o200k_base} encoding.
+         * @return This builder.
+         */
+        public Builder tokenizer(final Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            return this;
+        }
+
+        public KonceptAIClient build() {
+            return new KonceptAIClient(this);
+        }
     }
 }
@@ -0,0 +1,105 @@
+package koncept.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The executors {@link koncept.KonceptAIClient} runs its blocking work on.
+ * <ul>
+ *     <li>{@link #io()} runs HTTP calls of the asynchronous API and the status checks of runs being polled.</li>
+ *     <li>{@link #tools()} runs {@link koncept.openai.function.ToolFunction} invocations.</li>
+ *     <li>{@link #scheduler()} only times the status checks and hands them to {@link #io()}; it never blocks, so a
+ *     single thread serves any number of runs.</li>
+ * </ul>
+ * {@link #platform()} uses the common {@link ForkJoinPool}. {@link #virtualThreads()} starts a virtual thread per task,
+ * so blocking callers, polls and tools scale to tens of thousands of concurrent conversations; it needs to run on Java
+ * 21 or later.
+ */
+public final class ClientExecutors {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "koncept-run-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ClientExecutors PLATFORM = new ClientExecutors(
+        ForkJoinPool.commonPool(), ForkJoinPool.commonPool(), SCHEDULER, false);
+
+    private final Executor io;
+    private final Executor tools;
+    private final ScheduledExecutorService scheduler;
+    private final boolean virtual;
+
+    private ClientExecutors(final Executor io, final Executor tools, final ScheduledExecutorService scheduler, final boolean virtual) {
+        this.io = io;
+        this.tools = tools;
+        this.scheduler = scheduler;
+        this.virtual = virtual;
+    }
+
+    /**
+     * @return The default executors, backed by the common {@link ForkJoinPool} and a shared daemon scheduler thread.
+     */
+    public static ClientExecutors platform() {
+        return PLATFORM;
+    }
+
+    /**
+     * @return Executors starting a virtual thread per task, sharing the daemon scheduler thread of {@link #platform()}.
+     * @throws UnsupportedOperationException if virtual threads are not available, see {@link #virtualThreadsSupported()}.
+     */
+    public static ClientExecutors virtualThreads() {
+        if (!VirtualThreads.isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21");
+        }
+        return VirtualHolder.INSTANCE;
+    }
+
+    /**
+     * @return Whether {@link #virtualThreads()} is available, i.e. the client runs on Java 21 or later.
+     */
+    public static boolean virtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * @param io        Runs HTTP calls and status checks.
+     * @param tools     Runs tool invocations.
+     * @param scheduler Times status checks; tasks scheduled on it must not block.
+     * @return Custom executors, e.g. bounded pools with their own monitoring.
+     */
+    public static ClientExecutors of(final Executor io, final Executor tools, final ScheduledExecutorService scheduler) {
+        return new ClientExecutors(io, tools, scheduler, false);
+    }
+
+    public Executor io() {
+        return io;
+    }
+
+    public Executor tools() {
+        return tools;
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtual;
+    }
+
+    // initialized on first use, so platform-only callers never touch VirtualThreads
+    private static final class VirtualHolder {
+
+        private static final ClientExecutors INSTANCE = create();
+
+        private static ClientExecutors create() {
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("koncept-virtual-");
+            return new ClientExecutors(executor, executor, SCHEDULER, true);
+        }
+    }
+}
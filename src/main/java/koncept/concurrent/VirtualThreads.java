@@ -0,0 +1,67 @@
+package koncept.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads from code compiled for Java 17: the Java 21 API ({@code Thread.ofVirtual()} and
+ * {@code Executors.newThreadPerTaskExecutor}) is looked up once through method handles, and reported as unsupported if
+ * the running JVM does not provide it.
+ */
+final class VirtualThreads {
+
+    private static final Handles HANDLES = Handles.lookup();
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return HANDLES != null;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(final String namePrefix) {
+        if (HANDLES == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21");
+        }
+        try {
+            Object builder = HANDLES.name.invoke(HANDLES.ofVirtual.invoke(), namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) HANDLES.factory.invoke(builder);
+            return (ExecutorService) HANDLES.newThreadPerTaskExecutor.invoke(factory);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create a virtual thread executor", e);
+        }
+    }
+
+    private record Handles(
+        MethodHandle ofVirtual,
+        MethodHandle name,
+        MethodHandle factory,
+        MethodHandle newThreadPerTaskExecutor) {
+
+        /**
+         * @return The handles, or null before Java 21, where the API is missing or a preview feature.
+         */
+        static Handles lookup() {
+            if (Runtime.version().feature() < 21) {
+                return null;
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                return new Handles(
+                    lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualClass)),
+                    lookup.findVirtual(ofVirtualClass, "name", MethodType.methodType(ofVirtualClass, String.class, long.class)),
+                    lookup.findVirtual(ofVirtualClass, "factory", MethodType.methodType(ThreadFactory.class)),
+                    lookup.findStatic(Executors.class, "newThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class, ThreadFactory.class)));
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+    }
+}
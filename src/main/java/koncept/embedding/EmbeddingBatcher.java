@@ -0,0 +1,247 @@
+package koncept.embedding;
+
+import java.nio.FloatBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import koncept.concurrent.ClientExecutors;
+import koncept.openai.OpenAIAPIClient;
+import koncept.openai.model.EmbeddingModel;
+import koncept.openai.model.EmbeddingRequest;
+import koncept.openai.model.EmbeddingStorage;
+import koncept.openai.model.Embeddings;
+
+/**
+ * Merges single-text embedding calls from concurrent callers into multi-input requests: a batch is sent once it holds
+ * the maximum number of texts, or when the maximum delay has passed since its first text arrived, and the vectors are
+ * handed back to the individual callers. The time each text waited for its batch is reported as the
+ * {@code embeddings} queue wait of the client's metrics.
+ */
+public class EmbeddingBatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(EmbeddingBatcher.class.getName());
+    // the most inputs the embeddings endpoint accepts in one request
+    private static final int MAX_INPUTS = 2048;
+
+    private final OpenAIAPIClient openAIAPIClient;
+    private final EmbeddingModel model;
+    private final Integer dimensions;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final EmbeddingStorage storage;
+    private final ClientExecutors executors;
+    private final Lock lock = new ReentrantLock();
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> flushTimer;
+    private boolean closed;
+
+    private EmbeddingBatcher(final Builder builder) {
+        this.openAIAPIClient = builder.openAIAPIClient;
+        this.model = builder.model;
+        this.dimensions = builder.dimensions;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelay = builder.maxDelay;
+        this.storage = builder.storage;
+        this.executors = builder.executors;
+    }
+
+    /**
+     * @param openAIAPIClient The client sending the batched requests.
+     * @param model           The embedding model.
+     * @return A new Builder.
+     */
+    public static Builder builder(final OpenAIAPIClient openAIAPIClient, final EmbeddingModel model) {
+        return new Builder(openAIAPIClient, model);
+    }
+
+    /**
+     * @param text The text to embed.
+     * @return A CompletableFuture holding a copy of the vector of the text.
+     */
+    public CompletableFuture<float[]> embed(final String text) {
+        return embedAsBuffer(text).thenApply(buffer -> {
+            float[] vector = new float[buffer.remaining()];
+            buffer.get(vector);
+            return vector;
+        });
+    }
+
+    /**
+     * @param text The text to embed.
+     * @return A CompletableFuture holding a read-only view of the vector of the text, which is off-heap with
+     * {@link EmbeddingStorage#DIRECT} storage; the views of one batch share their storage.
+     */
+    public CompletableFuture<FloatBuffer> embedAsBuffer(final String text) {
+        Pending request = new Pending(text, System.nanoTime(), new CompletableFuture<>());
+        List<Pending> fullBatch = null;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The embedding batcher is closed");
+            }
+            pending.add(request);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takeBatch();
+            } else if (pending.size() == 1) {
+                flushTimer = executors.scheduler().schedule(this::flush, maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return request.result;
+    }
+
+    /**
+     * Sends the texts collected so far without waiting for the batch to fill up.
+     */
+    public void flush() {
+        List<Pending> batch;
+        lock.lock();
+        try {
+            batch = takeBatch();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Sends the texts collected so far; no more texts are accepted.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        flush();
+    }
+
+    private List<Pending> takeBatch() {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(final List<Pending> batch) {
+        long sentAt = System.nanoTime();
+        for (Pending request : batch) {
+            openAIAPIClient.metrics().queueWait("embeddings", sentAt - request.submittedAt);
+        }
+        List<String> texts = batch.stream().map(Pending::text).toList();
+        CompletableFuture
+            .supplyAsync(() -> openAIAPIClient.createEmbeddings(new EmbeddingRequest(model, texts).withDimensions(dimensions), storage), executors.io())
+            .whenComplete((embeddings, e) -> {
+                if (e == null && embeddings.count() != batch.size()) {
+                    e = new IllegalStateException(embeddings.count() + " embeddings returned for " + batch.size() + " texts");
+                }
+                if (e != null) {
+                    LOGGER.log(Level.SEVERE, "Failed to embed a batch of " + batch.size() + " texts", e);
+                    for (Pending request : batch) {
+                        request.result.completeExceptionally(e);
+                    }
+                    return;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(embeddings.buffer(i));
+                }
+            });
+    }
+
+    private record Pending(String text, long submittedAt, CompletableFuture<FloatBuffer> result) {
+    }
+
+    /**
+     * Builder for {@link EmbeddingBatcher} instances.
+     */
+    public static final class Builder {
+
+        private final OpenAIAPIClient openAIAPIClient;
+        private final EmbeddingModel model;
+        private Integer dimensions;
+        private int maxBatchSize = 256;
+        private Duration maxDelay = Duration.ofMillis(10);
+        private EmbeddingStorage storage = EmbeddingStorage.HEAP;
+        private ClientExecutors executors = ClientExecutors.platform();
+
+        private Builder(final OpenAIAPIClient openAIAPIClient, final EmbeddingModel model) {
+            this.openAIAPIClient = openAIAPIClient;
+            this.model = model;
+        }
+
+        /**
+         * @param dimensions The number of dimensions of the vectors, for models supporting shortened vectors; defaults
+         *                   to those of the model.
+         * @return This builder.
+         */
+        public Builder dimensions(final int dimensions) {
+            this.dimensions = dimensions;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize The number of texts after which a batch is sent right away, from 1 to 2048; defaults to 256.
+         * @return This builder.
+         */
+        public Builder maxBatchSize(final int maxBatchSize) {
+            if (maxBatchSize < 1 || maxBatchSize > MAX_INPUTS) {
+                throw new IllegalArgumentException("The batch size must be from 1 to " + MAX_INPUTS + ": " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param maxDelay The longest time a text waits for its batch to fill up, not negative; defaults to 10 milliseconds.
+         * @return This builder.
+         */
+        public Builder maxDelay(final Duration maxDelay) {
+            if (maxDelay == null || maxDelay.isNegative()) {
+                throw new IllegalArgumentException("The delay of a batch must not be negative: " + maxDelay);
+            }
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * @param storage Where the vectors are decoded to; defaults to {@link EmbeddingStorage#HEAP}.
+         * @return This builder.
+         */
+        public Builder storage(final EmbeddingStorage storage) {
+            this.storage = storage;
+            return this;
+        }
+
+        /**
+         * @param executors The executors for the requests and the batch timer; defaults to {@link ClientExecutors#platform()}.
+         * @return This builder.
+         */
+        public Builder executors(final ClientExecutors executors) {
+            this.executors = executors;
+            return this;
+        }
+
+        public EmbeddingBatcher build() {
+            return new EmbeddingBatcher(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package koncept.exception;
+
+public class TokenBudgetExceededException extends RuntimeException {
+
+    private final long requestedTokens;
+
+    public TokenBudgetExceededException(final String message, final long requestedTokens) {
+        super(message);
+        this.requestedTokens = requestedTokens;
+    }
+
+    public long getRequestedTokens() {
+        return requestedTokens;
+    }
+}
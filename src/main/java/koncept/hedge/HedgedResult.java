@@ -0,0 +1,15 @@
+package koncept.hedge;
+
+/**
+ * The accepted response of a hedged request.
+ *
+ * @param response     The response of the winning run.
+ * @param assistantId  The assistant whose run won.
+ * @param hedgeStarted Whether a run of the hedge assistant was started, i.e. whether the request paid for two runs.
+ * @param <T>          The type of the response.
+ */
+public record HedgedResult<T>(
+    T response,
+    String assistantId,
+    boolean hedgeStarted) {
+}
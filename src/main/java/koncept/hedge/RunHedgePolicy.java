@@ -0,0 +1,39 @@
+package koncept.hedge;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * How {@link koncept.KonceptAIClient#sendAndRunMessageHedgedAsync} races two assistants, typically one on a fast,
+ * cheap model and one on a stronger model, both created with
+ * {@link koncept.KonceptAIClient#createAssistantWithResponseType}. The hedge only starts if the primary has not
+ * produced an accepted response after the delay, or as soon as the primary fails or is rejected, so most requests
+ * cost a single run.
+ *
+ * @param primaryAssistantId The assistant run first.
+ * @param hedgeAssistantId   The assistant run if the primary is late or not accepted.
+ * @param delay              The time to give the primary before the hedge starts, e.g. its p90 latency.
+ * @param acceptance         Decides whether a parsed response is good enough to be returned.
+ * @param <T>                The type of the response.
+ */
+public record RunHedgePolicy<T>(
+    String primaryAssistantId,
+    String hedgeAssistantId,
+    Duration delay,
+    Predicate<? super T> acceptance) {
+
+    /**
+     * @param primaryAssistantId The assistant run first.
+     * @param hedgeAssistantId   The assistant run if the primary is late.
+     * @param delay              The time to give the primary before the hedge starts.
+     * @param <T>                The type of the response.
+     * @return A policy accepting every response that deserializes.
+     */
+    public static <T> RunHedgePolicy<T> of(final String primaryAssistantId, final String hedgeAssistantId, final Duration delay) {
+        return new RunHedgePolicy<>(primaryAssistantId, hedgeAssistantId, delay, response -> true);
+    }
+
+    public RunHedgePolicy<T> withAcceptance(final Predicate<? super T> acceptance) {
+        return new RunHedgePolicy<>(primaryAssistantId, hedgeAssistantId, delay, acceptance);
+    }
+}
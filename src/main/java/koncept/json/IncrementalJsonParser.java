@@ -0,0 +1,166 @@
+package koncept.json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Parses a JSON document that arrives in chunks, e.g. the text deltas of a streamed assistant message.
+ * <p>
+ * Built on Jackson's non-blocking parser: every chunk is consumed as soon as it is fed, the partially populated tree is
+ * available through {@link #snapshot()}, and each value is published to the {@link JsonFieldListener} as soon as its
+ * last token arrives, long before the rest of the document is complete. Instances are not thread-safe.
+ */
+public class IncrementalJsonParser implements AutoCloseable {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final JsonFieldListener listener;
+    private final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private JsonNode root;
+
+    public IncrementalJsonParser(final JsonFieldListener listener) {
+        this(JsonCodec.shared(), listener);
+    }
+
+    public IncrementalJsonParser(final JsonCodec jsonCodec, final JsonFieldListener listener) {
+        try {
+            this.parser = jsonCodec.factory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create non-blocking parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.listener = listener;
+    }
+
+    /**
+     * Feeds the next chunk of the document and publishes every value it completes.
+     *
+     * @param chunk The next piece of JSON text.
+     * @throws IOException if the text so far is not valid JSON.
+     */
+    public void feed(final String chunk) throws IOException {
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    /**
+     * Signals that no more input will arrive.
+     *
+     * @throws IOException if the document is incomplete.
+     */
+    public void endOfInput() throws IOException {
+        feeder.endOfInput();
+        drain();
+        if (!isComplete()) {
+            throw new IOException("Unexpected end of JSON input");
+        }
+    }
+
+    /**
+     * @return true once the root value has been fully parsed.
+     */
+    public boolean isComplete() {
+        return root != null && stack.isEmpty();
+    }
+
+    /**
+     * Returns a copy of the tree parsed so far. Values still being streamed are absent.
+     *
+     * @return The partially populated document, or null if no value has started yet.
+     */
+    public JsonNode snapshot() {
+        return root == null ? null : root.deepCopy();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(final JsonToken token) throws IOException {
+        switch (token) {
+            case FIELD_NAME -> stack.peek().fieldName = parser.currentName();
+            case START_OBJECT -> push(nodeFactory.objectNode());
+            case START_ARRAY -> push(nodeFactory.arrayNode());
+            case END_OBJECT, END_ARRAY -> {
+                Frame frame = stack.pop();
+                listener.onField(frame.pointer, frame.node);
+            }
+            default -> {
+                JsonNode value = scalar(token);
+                String pointer = attach(value);
+                listener.onField(pointer, value);
+            }
+        }
+    }
+
+    private void push(final JsonNode container) {
+        String pointer = attach(container);
+        stack.push(new Frame(container, pointer));
+    }
+
+    private String attach(final JsonNode value) {
+        Frame parent = stack.peek();
+        if (parent == null) {
+            root = value;
+            return "";
+        }
+        if (parent.node instanceof ObjectNode objectNode) {
+            objectNode.set(parent.fieldName, value);
+            return parent.pointer + "/" + escape(parent.fieldName);
+        }
+        ArrayNode arrayNode = (ArrayNode) parent.node;
+        arrayNode.add(value);
+        return parent.pointer + "/" + (arrayNode.size() - 1);
+    }
+
+    private JsonNode scalar(final JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> nodeFactory.textNode(parser.getText());
+            case VALUE_NUMBER_INT -> switch (parser.getNumberType()) {
+                case INT -> nodeFactory.numberNode(parser.getIntValue());
+                case LONG -> nodeFactory.numberNode(parser.getLongValue());
+                default -> nodeFactory.numberNode(parser.getBigIntegerValue());
+            };
+            case VALUE_NUMBER_FLOAT -> nodeFactory.numberNode(parser.getDecimalValue());
+            case VALUE_TRUE -> nodeFactory.booleanNode(true);
+            case VALUE_FALSE -> nodeFactory.booleanNode(false);
+            case VALUE_NULL -> nodeFactory.nullNode();
+            default -> throw new IOException("Unexpected token: " + token);
+        };
+    }
+
+    private static String escape(final String fieldName) {
+        return fieldName.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static final class Frame {
+        private final JsonNode node;
+        private final String pointer;
+        private String fieldName;
+
+        private Frame(final JsonNode node, final String pointer) {
+            this.node = node;
+            this.pointer = pointer;
+        }
+    }
+}
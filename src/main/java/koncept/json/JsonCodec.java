@@ -0,0 +1,130 @@
+package koncept.json;
+
+import java.lang.reflect.Type;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * The serialization layer shared by all components of the client.
+ * <p>
+ * Wraps a single {@link ObjectMapper} with the {@link BlackbirdModule} registered for fast accessor binding of the
+ * model records, and caches one {@link ObjectReader} and {@link ObjectWriter} per type so call sites skip the type
+ * lookup on every call. In a native image, where Blackbird cannot define its accessor classes at runtime, the records
+ * are bound by plain reflection instead. The underlying {@link JsonFactory} recycles its parser and generator buffers
+ * through the pool selected by the {@value #RECYCLER_POOL_PROPERTY} system property ({@code thread-local} by default,
+ * {@code concurrent-deque}, {@code bounded} or {@code none}); a codec with a custom factory can be created with
+ * {@link #JsonCodec(JsonFactory)}.
+ */
+public final class JsonCodec {
+
+    public static final String RECYCLER_POOL_PROPERTY = "koncept.json.recyclerPool";
+
+    private static final JsonCodec SHARED = new JsonCodec(createJsonFactory(System.getProperty(RECYCLER_POOL_PROPERTY, "thread-local")));
+
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a codec on top of the given factory.
+     *
+     * @param jsonFactory The factory used to create parsers and generators.
+     */
+    public JsonCodec(final JsonFactory jsonFactory) {
+        JsonMapper.Builder builder = JsonMapper.builder(jsonFactory);
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") == null) {
+            builder.addModule(new BlackbirdModule());
+        }
+        this.objectMapper = builder.build();
+    }
+
+    /**
+     * Returns the codec shared by the client components.
+     *
+     * @return The shared JsonCodec.
+     */
+    public static JsonCodec shared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates a JsonFactory using the named buffer recycler pool.
+     *
+     * @param recyclerPool One of {@code thread-local}, {@code concurrent-deque}, {@code bounded} or {@code none};
+     *                     {@code lock-free} is accepted as an alias of {@code concurrent-deque}.
+     * @return A new JsonFactory.
+     */
+    public static JsonFactory createJsonFactory(final String recyclerPool) {
+        return JsonFactory.builder()
+            .recyclerPool(recyclerPool(recyclerPool))
+            .build();
+    }
+
+    private static RecyclerPool<BufferRecycler> recyclerPool(final String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "thread-local" -> JsonRecyclerPools.threadLocalPool();
+            // the lock-free pool is deprecated in Jackson 2.18, the name is kept as an alias of its replacement
+            case "lock-free", "concurrent-deque" -> JsonRecyclerPools.newConcurrentDequePool();
+            case "bounded" -> JsonRecyclerPools.newBoundedPool(Runtime.getRuntime().availableProcessors() * 4);
+            case "none" -> JsonRecyclerPools.nonRecyclingPool();
+            default -> throw new IllegalArgumentException("Unknown recycler pool: " + name);
+        };
+    }
+
+    public ObjectMapper mapper() {
+        return objectMapper;
+    }
+
+    public JsonFactory factory() {
+        return objectMapper.getFactory();
+    }
+
+    /**
+     * Returns the cached reader for the given type.
+     *
+     * @param type The type to bind to.
+     * @return An ObjectReader bound to the type.
+     */
+    public ObjectReader reader(final Class<?> type) {
+        return readers.computeIfAbsent(type, t -> objectMapper.readerFor(type));
+    }
+
+    /**
+     * Returns the cached reader for the given generic type.
+     *
+     * @param type The type to bind to, e.g. a collection type built with the mapper's TypeFactory.
+     * @return An ObjectReader bound to the type.
+     */
+    public ObjectReader reader(final JavaType type) {
+        return readers.computeIfAbsent(type, t -> objectMapper.readerFor(type));
+    }
+
+    /**
+     * Returns the cached writer for the runtime class of the given value.
+     *
+     * @param value The value to be written.
+     * @return An ObjectWriter for the value's class.
+     */
+    public ObjectWriter writerFor(final Object value) {
+        if (value == null) {
+            return objectMapper.writer();
+        }
+        return writers.computeIfAbsent(value.getClass(), type -> objectMapper.writerFor(value.getClass()));
+    }
+
+    public JavaType collectionType(final Class<?> collectionClass, final Class<?> elementClass) {
+        return objectMapper.getTypeFactory().constructCollectionLikeType(collectionClass, elementClass);
+    }
+}
@@ -0,0 +1,18 @@
+package koncept.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the values completed by an {@link IncrementalJsonParser}.
+ */
+@FunctionalInterface
+public interface JsonFieldListener {
+
+    /**
+     * Called once per completed value, scalar or container, in document order.
+     *
+     * @param pointer The JSON pointer of the value, e.g. {@code /label} or {@code /reasons/0}; the root is {@code ""}.
+     * @param value   The completed value.
+     */
+    void onField(String pointer, JsonNode value);
+}
@@ -0,0 +1,29 @@
+package koncept.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives progress while a structured output is being streamed.
+ *
+ * @param <T> The response type the output is bound to.
+ */
+public interface StructuredOutputListener<T> {
+
+    /**
+     * Called for every value completed in the output, at any depth.
+     *
+     * @param pointer The JSON pointer of the value.
+     * @param value   The completed value.
+     */
+    default void onField(String pointer, JsonNode value) {
+    }
+
+    /**
+     * Called each time a top-level property of the response schema is complete, with the response bound from
+     * everything received so far. Properties not yet streamed are null (or the default of a primitive).
+     *
+     * @param partial The partially populated response.
+     */
+    default void onPartial(T partial) {
+    }
+}
@@ -0,0 +1,70 @@
+package koncept.json;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import koncept.jsonschema.SchemaTransformer;
+
+/**
+ * Incrementally binds a streamed {@code json_schema} response to its response class.
+ * <p>
+ * The top-level properties come from the schema {@link SchemaTransformer} generates for the class, which is the schema
+ * the assistant was created with; whenever one of them completes, the listener receives a partially populated instance.
+ *
+ * @param <T> The response type.
+ */
+public class StructuredOutputParser<T> implements AutoCloseable {
+
+    private final ObjectReader reader;
+    private final StructuredOutputListener<T> listener;
+    private final Set<String> topLevelPointers = new HashSet<>();
+    private final IncrementalJsonParser parser;
+
+    public StructuredOutputParser(final Class<T> responseClass, final StructuredOutputListener<T> listener) {
+        this.reader = JsonCodec.shared().reader(responseClass);
+        this.listener = listener;
+        SchemaTransformer.toJSONSchema(responseClass).path("properties").fieldNames()
+            .forEachRemaining(name -> topLevelPointers.add("/" + name.replace("~", "~0").replace("/", "~1")));
+        this.parser = new IncrementalJsonParser(this::onField);
+    }
+
+    /**
+     * Feeds the next text delta of the response.
+     *
+     * @param chunk The next piece of the response text.
+     * @throws IOException if the text so far is not valid JSON.
+     */
+    public void feed(final String chunk) throws IOException {
+        parser.feed(chunk);
+    }
+
+    /**
+     * Completes parsing and binds the whole response.
+     *
+     * @return The response.
+     * @throws IOException if the response is incomplete or cannot be bound.
+     */
+    public T complete() throws IOException {
+        parser.endOfInput();
+        return reader.readValue(parser.snapshot());
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void onField(final String pointer, final JsonNode value) {
+        listener.onField(pointer, value);
+        if (topLevelPointers.contains(pointer)) {
+            try {
+                listener.onPartial(reader.readValue(parser.snapshot()));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to bind partial response at " + pointer, e);
+            }
+        }
+    }
+}
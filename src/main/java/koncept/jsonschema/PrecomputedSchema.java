@@ -0,0 +1,15 @@
+package koncept.jsonschema;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a response type whose JSON schema should be generated at build time by {@link SchemaPrecompiler}.
+ */
+@Retention(value = RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PrecomputedSchema {
+}
@@ -0,0 +1,76 @@
+package koncept.jsonschema;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import koncept.json.JsonCodec;
+import koncept.openai.function.ToolFunction;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+
+/**
+ * Build-time entry point that writes the JSON schemas of all {@link PrecomputedSchema} types and all
+ * {@link ToolFunction} signatures into a resources directory, so {@link SchemaTransformer} can skip schema
+ * generation at runtime.
+ * <p>
+ * Usage: {@code SchemaPrecompiler <output directory> [package ...]}. The output directory is usually
+ * {@code target/classes}; see the {@code precompute-schemas} profile in the project pom.
+ */
+public class SchemaPrecompiler {
+
+    private static final java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger(SchemaPrecompiler.class.getName());
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+    private final Path outputDirectory;
+
+    public SchemaPrecompiler(final Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: SchemaPrecompiler <output directory> [package ...]");
+        }
+        String[] packages = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[]{""};
+        new SchemaPrecompiler(Paths.get(args[0])).precompile(packages);
+    }
+
+    /**
+     * Scans the given packages and writes one schema file per annotated type and tool function.
+     *
+     * @param packages The package prefixes to scan.
+     * @throws IOException if a schema file cannot be written.
+     */
+    public void precompile(final String... packages) throws IOException {
+        Reflections reflections = new Reflections(
+            new ConfigurationBuilder()
+                .forPackages(packages)
+                .addScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated)
+        );
+
+        Set<Class<?>> responseTypes = reflections.getTypesAnnotatedWith(PrecomputedSchema.class);
+        for (Class<?> responseType : responseTypes) {
+            write(SchemaTransformer.schemaResourceName(responseType), SchemaTransformer.generateSchema(responseType));
+        }
+
+        Set<Method> toolMethods = reflections.getMethodsAnnotatedWith(ToolFunction.class);
+        for (Method toolMethod : toolMethods) {
+            String toolName = toolMethod.getAnnotation(ToolFunction.class).name();
+            write(SchemaTransformer.toolSchemaResourceName(toolName), SchemaTransformer.generateToolParametersSchema(toolMethod));
+        }
+        LOGGER.info(() -> "Precomputed " + responseTypes.size() + " response schemas and " + toolMethods.size() + " tool schemas into " + outputDirectory);
+    }
+
+    private void write(final String resourceName, final ObjectNode schema) throws IOException {
+        Path target = outputDirectory.resolve(resourceName);
+        Files.createDirectories(target.getParent());
+        Files.write(target, jsonCodec.writerFor(schema).writeValueAsBytes(schema));
+    }
+}
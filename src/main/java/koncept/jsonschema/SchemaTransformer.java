@@ -1,5 +1,20 @@
 package koncept.jsonschema;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.victools.jsonschema.generator.Option;
 import com.github.victools.jsonschema.generator.OptionPreset;
@@ -7,12 +22,28 @@ import com.github.victools.jsonschema.generator.SchemaGenerator;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfig;
 import com.github.victools.jsonschema.generator.SchemaGeneratorConfigBuilder;
 import com.github.victools.jsonschema.generator.SchemaVersion;
+import koncept.json.JsonCodec;
+import koncept.openai.function.NamedParam;
+import koncept.openai.function.ToolFunction;
 
+/**
+ * Generates JSON schemas for response types and tool function signatures.
+ * <p>
+ * Schemas are cached per class (and per tool name) and returned as immutable {@link ObjectNode}s - any attempt to
+ * modify a returned schema throws {@link UnsupportedOperationException}. Schemas precomputed at build time by
+ * {@link SchemaPrecompiler} are loaded from the classpath instead of being generated; the reflective schema generator
+ * is only set up once a schema is missing, so an application with all schemas precomputed never touches it, e.g. in a
+ * native image.
+ */
 public class SchemaTransformer {
 
-    private static final SchemaGenerator schemaGenerator;
+    static final String SCHEMA_RESOURCE_DIRECTORY = "META-INF/koncept/schemas/";
+    static final String TOOL_SCHEMA_RESOURCE_DIRECTORY = "META-INF/koncept/tools/";
+
+    private static final Map<Class<?>, ObjectNode> schemaCache = new ConcurrentHashMap<>();
+    private static final Map<String, ObjectNode> toolSchemaCache = new ConcurrentHashMap<>();
 
-    static {
+    private static SchemaGenerator createSchemaGenerator() {
         SchemaGeneratorConfigBuilder configBuilder = new SchemaGeneratorConfigBuilder(SchemaVersion.DRAFT_2020_12, OptionPreset.PLAIN_JSON);
         SchemaGeneratorConfigBuilder without = configBuilder
             .with(
@@ -23,11 +54,112 @@ public class SchemaTransformer {
                 Option.SCHEMA_VERSION_INDICATOR);
         without.forFields().withRequiredCheck(field -> true);
         SchemaGeneratorConfig build = without.build();
-        schemaGenerator = new SchemaGenerator(build);
+        return new SchemaGenerator(build);
     }
 
+    /**
+     * Returns the JSON schema of the given class, generating it on first use.
+     *
+     * @param mappedClass The class to describe.
+     * @return An immutable ObjectNode holding the schema.
+     */
     public static <T> ObjectNode toJSONSchema(final Class<T> mappedClass) {
-        return schemaGenerator.generateSchema(mappedClass);
+        return schemaCache.computeIfAbsent(mappedClass, SchemaTransformer::loadOrGenerateSchema);
+    }
+
+    /**
+     * Returns the JSON schema of the parameters of a {@link ToolFunction} method, in the object form expected by the
+     * {@code parameters} field of a function tool definition.
+     *
+     * @param toolMethod A method annotated with {@link ToolFunction}.
+     * @return An immutable ObjectNode holding the schema.
+     */
+    public static ObjectNode toToolParametersSchema(final Method toolMethod) {
+        ToolFunction toolFunction = toolMethod.getAnnotation(ToolFunction.class);
+        if (toolFunction == null) {
+            throw new IllegalArgumentException("Method " + toolMethod + " is not annotated with @ToolFunction");
+        }
+        return toolSchemaCache.computeIfAbsent(toolFunction.name(), name -> loadOrGenerateToolSchema(name, toolMethod));
+    }
+
+    static ObjectNode generateSchema(final Class<?> mappedClass) {
+        return Generator.schemaGenerator.generateSchema(mappedClass);
+    }
+
+    static ObjectNode generateToolParametersSchema(final Method toolMethod) {
+        ObjectNode schema = JsonNodeFactory.instance.objectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        ArrayNode required = schema.putArray("required");
+        for (Parameter parameter : toolMethod.getParameters()) {
+            NamedParam namedParam = parameter.getAnnotation(NamedParam.class);
+            if (namedParam == null) {
+                throw new IllegalArgumentException("Parameter " + parameter + " of tool " + toolMethod + " is not annotated with @NamedParam");
+            }
+            properties.set(namedParam.value(), Generator.schemaGenerator.generateSchema(parameter.getParameterizedType()));
+            required.add(namedParam.value());
+        }
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    static String schemaResourceName(final Class<?> mappedClass) {
+        return SCHEMA_RESOURCE_DIRECTORY + mappedClass.getName() + ".json";
+    }
+
+    static String toolSchemaResourceName(final String toolName) {
+        return TOOL_SCHEMA_RESOURCE_DIRECTORY + toolName + ".json";
     }
 
+    private static ObjectNode loadOrGenerateSchema(final Class<?> mappedClass) {
+        ObjectNode precomputed = loadPrecomputed(mappedClass.getClassLoader(), schemaResourceName(mappedClass));
+        return freeze(precomputed != null ? precomputed : generateSchema(mappedClass));
+    }
+
+    private static ObjectNode loadOrGenerateToolSchema(final String toolName, final Method toolMethod) {
+        ObjectNode precomputed = loadPrecomputed(toolMethod.getDeclaringClass().getClassLoader(), toolSchemaResourceName(toolName));
+        return freeze(precomputed != null ? precomputed : generateToolParametersSchema(toolMethod));
+    }
+
+    private static ObjectNode loadPrecomputed(final ClassLoader classLoader, final String resourceName) {
+        ClassLoader loader = classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+        try (InputStream input = loader.getResourceAsStream(resourceName)) {
+            if (input == null) {
+                return null;
+            }
+            return (ObjectNode) JsonCodec.shared().mapper().readTree(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading precomputed schema: " + resourceName, e);
+        }
+    }
+
+    private static ObjectNode freeze(final ObjectNode node) {
+        Map<String, JsonNode> children = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            children.put(field.getKey(), freeze(field.getValue()));
+        }
+        return new ObjectNode(JsonNodeFactory.instance, Collections.unmodifiableMap(children));
+    }
+
+    private static JsonNode freeze(final JsonNode node) {
+        if (node.isObject()) {
+            return freeze((ObjectNode) node);
+        }
+        if (node.isArray()) {
+            List<JsonNode> elements = new ArrayList<>(node.size());
+            node.forEach(element -> elements.add(freeze(element)));
+            return new ArrayNode(JsonNodeFactory.instance, Collections.unmodifiableList(elements));
+        }
+        return node;
+    }
+
+    /**
+     * Holds the schema generator, so it is created on first use only.
+     */
+    private static final class Generator {
+
+        private static final SchemaGenerator schemaGenerator = createSchemaGenerator();
+    }
 }
@@ -0,0 +1,95 @@
+package koncept.metrics;
+
+import koncept.timeline.RunTimeline;
+
+/**
+ * Instrumentation SPI called by the transport layer of {@link koncept.openai.OpenAIAPIClient} and by
+ * {@link koncept.KonceptAIClient}. Implementations must be thread-safe and cheap, since they are called on every
+ * request; {@link InMemoryClientMetrics} keeps everything in memory and can be scraped or bridged to a monitoring
+ * system, and {@link #noop()} discards everything.
+ * <p>
+ * Every callback does nothing by default, so an implementation overrides only what it records and keeps compiling
+ * when callbacks are added.
+ * <p>
+ * Endpoints are identified by method and path template, e.g. {@code GET /v1/threads/{id}/runs/{id}}, see
+ * {@link EndpointNames}.
+ */
+public interface ClientMetrics {
+
+    /**
+     * Called right before a request is handed to the transport.
+     *
+     * @param endpoint The endpoint of the request.
+     */
+    default void requestStarted(String endpoint) {
+    }
+
+    /**
+     * Called once the response status of a request is known, or the exchange failed.
+     *
+     * @param endpoint      The endpoint of the request.
+     * @param statusCode    The HTTP status code, or -1 if the exchange failed without a response.
+     * @param durationNanos The time from {@link #requestStarted(String)} until the response headers arrived.
+     */
+    default void requestCompleted(String endpoint, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * Called when waiting for a run is over.
+     *
+     * @param polls The number of status checks made for the run.
+     */
+    default void runPolled(int polls) {
+    }
+
+    /**
+     * Called when a tool function finished.
+     *
+     * @param toolName      The name of the tool, as declared by {@link koncept.openai.function.ToolFunction}.
+     * @param durationNanos The execution time of the tool, including the completion of a returned future.
+     * @param success       Whether the tool completed normally.
+     */
+    default void toolExecuted(String toolName, long durationNanos, boolean success) {
+    }
+
+    /**
+     * Called when a task left a queue and started executing.
+     *
+     * @param queue         The name of the queue, e.g. {@code tools}.
+     * @param waitNanos     The time the task spent queued.
+     */
+    default void queueWait(String queue, long waitNanos) {
+    }
+
+    /**
+     * Called when a request or response body was transferred gzip compressed.
+     *
+     * @param endpoint          The endpoint of the request.
+     * @param direction         {@code request} or {@code response}.
+     * @param uncompressedBytes The size of the body before compression.
+     * @param compressedBytes   The size of the body on the wire.
+     */
+    default void bodyCompressed(String endpoint, String direction, long uncompressedBytes, long compressedBytes) {
+    }
+
+    /**
+     * Called when the client observed the final status of a run, to attribute its latency and token usage.
+     *
+     * @param timeline The timeline of the run.
+     */
+    default void runCompleted(RunTimeline timeline) {
+    }
+
+    /**
+     * Called instead of {@link #runCompleted(RunTimeline)} when the client stopped waiting for a run before it reached
+     * a final status, e.g. after the maximum number of polls.
+     *
+     * @param timeline The timeline of the run, ending with {@link RunTimeline#ABANDONED}.
+     */
+    default void runAbandoned(RunTimeline timeline) {
+    }
+
+    static ClientMetrics noop() {
+        return NoopClientMetrics.INSTANCE;
+    }
+}
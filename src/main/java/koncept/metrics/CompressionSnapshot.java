@@ -0,0 +1,22 @@
+package koncept.metrics;
+
+/**
+ * A point-in-time view of the gzip compressed bodies of one endpoint and direction.
+ *
+ * @param count             The number of compressed bodies.
+ * @param uncompressedBytes The total size of the bodies before compression.
+ * @param compressedBytes   The total size of the bodies on the wire.
+ */
+public record CompressionSnapshot(
+    long count,
+    long uncompressedBytes,
+    long compressedBytes) {
+
+    /**
+     * @return The uncompressed size divided by the compressed size, e.g. 5.0 if a fifth of the bytes was sent; 0 if
+     * nothing was compressed yet.
+     */
+    public double ratio() {
+        return compressedBytes == 0 ? 0 : (double) uncompressedBytes / compressedBytes;
+    }
+}
@@ -0,0 +1,31 @@
+package koncept.metrics;
+
+import java.net.URI;
+import java.util.Set;
+
+/**
+ * Derives low-cardinality endpoint names from request URIs by replacing resource ids with {@code {id}}.
+ */
+public final class EndpointNames {
+
+    private static final Set<String> COLLECTIONS = Set.of(
+        "threads", "runs", "messages", "steps", "assistants", "files", "vector_stores", "file_batches");
+
+    private EndpointNames() {
+    }
+
+    /**
+     * @param method The HTTP method.
+     * @param uri    The request URI.
+     * @return The endpoint name, e.g. {@code GET /v1/threads/{id}/runs/{id}}.
+     */
+    public static String of(final String method, final URI uri) {
+        String[] segments = uri.getRawPath().split("/");
+        StringBuilder name = new StringBuilder(method).append(' ');
+        for (int i = 1; i < segments.length; i++) {
+            name.append('/');
+            name.append(COLLECTIONS.contains(segments[i - 1]) ? "{id}" : segments[i]);
+        }
+        return name.toString();
+    }
+}
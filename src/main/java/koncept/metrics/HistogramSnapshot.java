@@ -0,0 +1,15 @@
+package koncept.metrics;
+
+/**
+ * A point-in-time view of a {@link LatencyHistogram}. Values are in the unit they were recorded in, nanoseconds for
+ * all latencies recorded by {@link InMemoryClientMetrics}.
+ */
+public record HistogramSnapshot(
+    long count,
+    double mean,
+    long p50,
+    long p90,
+    long p99,
+    long p999,
+    long max) {
+}
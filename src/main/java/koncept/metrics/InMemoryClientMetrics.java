@@ -0,0 +1,178 @@
+package koncept.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import koncept.timeline.RunTimeline;
+
+/**
+ * A lightweight {@link ClientMetrics} registry that keeps {@link LatencyHistogram}s and counters in memory. Call
+ * {@link #snapshot()} to scrape it, e.g. from a periodic task that forwards the values to a monitoring system.
+ */
+public class InMemoryClientMetrics implements ClientMetrics {
+
+    private final Map<String, LatencyHistogram> requestLatencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> inFlight = new ConcurrentHashMap<>();
+    private final LatencyHistogram pollsPerRun = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> toolExecutions = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> toolFailures = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> queueWaits = new ConcurrentHashMap<>();
+    private final Map<String, RunAttribution> runs = new ConcurrentHashMap<>();
+    private final Map<String, Compression> compression = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> abandonedRuns = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestStarted(final String endpoint) {
+        inFlight.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(final String endpoint, final int statusCode, final long durationNanos) {
+        inFlight.computeIfAbsent(endpoint, e -> new AtomicLong()).decrementAndGet();
+        requestLatencies.computeIfAbsent(endpoint, e -> new LatencyHistogram()).record(durationNanos);
+        statusCodes.computeIfAbsent(endpoint + " " + statusCode, e -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void runPolled(final int polls) {
+        pollsPerRun.record(polls);
+    }
+
+    @Override
+    public void toolExecuted(final String toolName, final long durationNanos, final boolean success) {
+        toolExecutions.computeIfAbsent(toolName, t -> new LatencyHistogram()).record(durationNanos);
+        if (!success) {
+            toolFailures.computeIfAbsent(toolName, t -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public void queueWait(final String queue, final long waitNanos) {
+        queueWaits.computeIfAbsent(queue, q -> new LatencyHistogram()).record(waitNanos);
+    }
+
+    @Override
+    public void runAbandoned(final RunTimeline timeline) {
+        abandonedRuns.computeIfAbsent(timeline.assistantId() + " " + timeline.model(), k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void bodyCompressed(final String endpoint, final String direction, final long uncompressedBytes, final long compressedBytes) {
+        compression.computeIfAbsent(endpoint + " " + direction, k -> new Compression()).record(uncompressedBytes, compressedBytes);
+    }
+
+    @Override
+    public void runCompleted(final RunTimeline timeline) {
+        runs.computeIfAbsent(timeline.assistantId() + " " + timeline.model(), k -> new RunAttribution()).record(timeline);
+    }
+
+    /**
+     * @return The latency histogram of the endpoint, e.g. to feed a hedging policy; null if it was never called.
+     */
+    public LatencyHistogram requestLatency(final String endpoint) {
+        return requestLatencies.get(endpoint);
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(
+            snapshotHistograms(requestLatencies),
+            snapshotCounters(statusCodes, LongAdder::sum),
+            snapshotCounters(inFlight, AtomicLong::get),
+            pollsPerRun.snapshot(),
+            snapshotHistograms(toolExecutions),
+            snapshotCounters(toolFailures, LongAdder::sum),
+            snapshotHistograms(queueWaits),
+            snapshotRuns(),
+            snapshotCounters(abandonedRuns, LongAdder::sum),
+            snapshotCompression());
+    }
+
+    private Map<String, CompressionSnapshot> snapshotCompression() {
+        Map<String, CompressionSnapshot> snapshot = new TreeMap<>();
+        compression.forEach((key, counters) -> snapshot.put(key, counters.snapshot()));
+        return snapshot;
+    }
+
+    private Map<String, RunAttributionSnapshot> snapshotRuns() {
+        Map<String, RunAttributionSnapshot> snapshot = new TreeMap<>();
+        runs.forEach((key, attribution) -> snapshot.put(key, attribution.snapshot()));
+        return snapshot;
+    }
+
+    private static Map<String, HistogramSnapshot> snapshotHistograms(final Map<String, LatencyHistogram> histograms) {
+        Map<String, HistogramSnapshot> snapshot = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshot.put(name, histogram.snapshot()));
+        return snapshot;
+    }
+
+    private static <C> Map<String, Long> snapshotCounters(final Map<String, C> counters, final Function<C, Long> value) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, value.apply(counter)));
+        return snapshot;
+    }
+
+    private static final class Compression {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder uncompressedBytes = new LongAdder();
+        private final LongAdder compressedBytes = new LongAdder();
+
+        void record(final long uncompressed, final long compressed) {
+            count.increment();
+            uncompressedBytes.add(uncompressed);
+            compressedBytes.add(compressed);
+        }
+
+        CompressionSnapshot snapshot() {
+            return new CompressionSnapshot(count.sum(), uncompressedBytes.sum(), compressedBytes.sum());
+        }
+    }
+
+    private static final class RunAttribution {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram queued = new LatencyHistogram();
+        private final LatencyHistogram processing = new LatencyHistogram();
+        private final LatencyHistogram requiresAction = new LatencyHistogram();
+        private final LatencyHistogram pollingLag = new LatencyHistogram();
+
+        void record(final RunTimeline timeline) {
+            count.increment();
+            promptTokens.add(timeline.promptTokens());
+            completionTokens.add(timeline.completionTokens());
+            recordDuration(total, timeline.total());
+            recordDuration(queued, timeline.queued());
+            recordDuration(processing, timeline.processing());
+            recordDuration(requiresAction, timeline.observedTimeByStatus().get("requires_action"));
+            recordDuration(pollingLag, timeline.pollingLag());
+        }
+
+        RunAttributionSnapshot snapshot() {
+            return new RunAttributionSnapshot(
+                count.sum(),
+                promptTokens.sum(),
+                completionTokens.sum(),
+                total.snapshot(),
+                queued.snapshot(),
+                processing.snapshot(),
+                requiresAction.snapshot(),
+                pollingLag.snapshot());
+        }
+
+        // server timestamps have a resolution of one second, so a lag measured against them can come out negative
+        private static void recordDuration(final LatencyHistogram histogram, final Duration duration) {
+            if (duration != null) {
+                histogram.record(Math.max(0, duration.toNanos()));
+            }
+        }
+    }
+}
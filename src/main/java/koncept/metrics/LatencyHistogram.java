@@ -0,0 +1,86 @@
+package koncept.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative long values with log-linear buckets, in the style of HdrHistogram: values
+ * below 128 are counted exactly and larger values with a relative error below 1.6%, over the whole long range, in a
+ * fixed array of 3712 counters.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_COUNT = 128;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - 7) * HALF_SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param value The value to record; negative values are recorded as 0.
+     */
+    public void record(final long value) {
+        long sanitized = Math.max(0, value);
+        counts.incrementAndGet(indexOf(sanitized));
+        totalCount.increment();
+        sum.add(sanitized);
+        max.accumulate(sanitized);
+    }
+
+    public long count() {
+        return totalCount.sum();
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100.
+     * @return The approximate value at the percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(final double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(index), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public HistogramSnapshot snapshot() {
+        long total = count();
+        return new HistogramSnapshot(
+            total,
+            total == 0 ? 0 : (double) sum.sum() / total,
+            percentile(50),
+            percentile(90),
+            percentile(99),
+            percentile(99.9),
+            max.get());
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift) - HALF_SUB_BUCKET_COUNT;
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
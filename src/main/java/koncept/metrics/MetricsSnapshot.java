@@ -0,0 +1,33 @@
+package koncept.metrics;
+
+import java.util.Map;
+
+/**
+ * A point-in-time view of an {@link InMemoryClientMetrics} registry.
+ *
+ * @param requestLatencies Latency per endpoint.
+ * @param statusCodes      Response count per endpoint and status code, keyed as {@code "<endpoint> <status>"}.
+ * @param inFlight         Requests currently in flight per endpoint.
+ * @param pollsPerRun      Distribution of the number of status checks per run.
+ * @param toolExecutions   Execution time per tool name.
+ * @param toolFailures     Failed executions per tool name.
+ * @param queueWaits       Wait time per queue.
+ * @param runs             Latency breakdown and token usage per assistant and model, keyed as
+ *                         {@code "<assistantId> <model>"}.
+ * @param abandonedRuns    Runs the client stopped waiting for before they finished, per assistant and model, keyed
+ *                         like {@code runs}; they are not included in {@code runs}.
+ * @param compression      Compressed bodies per endpoint and direction, keyed as {@code "<endpoint> request"} and
+ *                         {@code "<endpoint> response"}.
+ */
+public record MetricsSnapshot(
+    Map<String, HistogramSnapshot> requestLatencies,
+    Map<String, Long> statusCodes,
+    Map<String, Long> inFlight,
+    HistogramSnapshot pollsPerRun,
+    Map<String, HistogramSnapshot> toolExecutions,
+    Map<String, Long> toolFailures,
+    Map<String, HistogramSnapshot> queueWaits,
+    Map<String, RunAttributionSnapshot> runs,
+    Map<String, Long> abandonedRuns,
+    Map<String, CompressionSnapshot> compression) {
+}
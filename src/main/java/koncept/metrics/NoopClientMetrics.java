@@ -0,0 +1,12 @@
+package koncept.metrics;
+
+/**
+ * The default {@link ClientMetrics}, which records nothing.
+ */
+final class NoopClientMetrics implements ClientMetrics {
+
+    static final NoopClientMetrics INSTANCE = new NoopClientMetrics();
+
+    private NoopClientMetrics() {
+    }
+}
@@ -0,0 +1,24 @@
+package koncept.metrics;
+
+/**
+ * A point-in-time view of the runs completed for one assistant and model.
+ *
+ * @param runs             The number of completed runs.
+ * @param promptTokens     The prompt tokens reported for the runs.
+ * @param completionTokens The completion tokens reported for the runs.
+ * @param total            Time from requesting a run until the client observed its final status.
+ * @param queued           Time a run spent queued on the server.
+ * @param processing       Time from the server starting a run until completing it.
+ * @param requiresAction   Time a run was observed in {@code requires_action}, i.e. waiting for tool outputs.
+ * @param pollingLag       Time between the server completing a run and the client noticing.
+ */
+public record RunAttributionSnapshot(
+    long runs,
+    long promptTokens,
+    long completionTokens,
+    HistogramSnapshot total,
+    HistogramSnapshot queued,
+    HistogramSnapshot processing,
+    HistogramSnapshot requiresAction,
+    HistogramSnapshot pollingLag) {
+}
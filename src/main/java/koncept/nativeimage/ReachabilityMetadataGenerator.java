@@ -0,0 +1,220 @@
+package koncept.nativeimage;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import koncept.json.JsonCodec;
+import koncept.jsonschema.PrecomputedSchema;
+import koncept.openai.function.ToolFunction;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+
+/**
+ * Build-time entry point that writes GraalVM reflection metadata for the JSON-bound types and the {@link ToolFunction}
+ * classes of the given packages, so they can be bound by Jackson and dispatched by
+ * {@link koncept.openai.function.ToolRegistry} in a native image.
+ * <p>
+ * A type is JSON-bound if it carries a Jackson annotation on itself or on one of its fields, record components or
+ * methods, is a {@link PrecomputedSchema} type or a custom Jackson (de)serializer; the types of its fields and record
+ * components within the scanned packages are included as well, e.g. enums. Bound types are registered with all their
+ * constructors, methods and fields, tool classes with their tool methods and no-arg constructor.
+ * <p>
+ * Usage: {@code ReachabilityMetadataGenerator <output directory> <metadata id> [package ...]}, writing
+ * {@code META-INF/native-image/<metadata id>/reflect-config.json}; the metadata id is usually
+ * {@code <groupId>/<artifactId>}. See the {@code native} profile in the project pom; the metadata of this library is
+ * generated the same way and shipped in its jar.
+ */
+public class ReachabilityMetadataGenerator {
+
+    private static final java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger(ReachabilityMetadataGenerator.class.getName());
+
+    static final String METADATA_DIRECTORY = "META-INF/native-image/";
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+    private final Path outputDirectory;
+    private final String metadataId;
+
+    public ReachabilityMetadataGenerator(final Path outputDirectory, final String metadataId) {
+        this.outputDirectory = outputDirectory;
+        this.metadataId = metadataId;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: ReachabilityMetadataGenerator <output directory> <metadata id> [package ...]");
+        }
+        String[] packages = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : new String[]{""};
+        new ReachabilityMetadataGenerator(Paths.get(args[0]), args[1]).generate(packages);
+    }
+
+    /**
+     * @param metadataId The metadata id, e.g. {@code koncept/KonceptAIClient}.
+     * @return The resource name of the reflection metadata.
+     */
+    public static String reflectConfigResourceName(final String metadataId) {
+        return METADATA_DIRECTORY + metadataId + "/reflect-config.json";
+    }
+
+    /**
+     * Scans the given packages and writes the reflection metadata of their JSON-bound types and tool classes.
+     *
+     * @param packages The package prefixes to scan.
+     * @return The written file.
+     * @throws IOException if the metadata cannot be written.
+     */
+    public Path generate(final String... packages) throws IOException {
+        Reflections reflections = new Reflections(
+            new ConfigurationBuilder()
+                .forPackages(packages)
+                .addScanners(Scanners.SubTypes.filterResultsBy(type -> true), Scanners.MethodsAnnotated)
+        );
+
+        Set<Class<?>> boundTypes = new TreeSet<>((a, b) -> a.getName().compareTo(b.getName()));
+        List<Class<?>> candidates = new ArrayList<>();
+        // the scanned types are the values of the index, its keys are their supertypes wherever they are declared
+        Set<String> scannedTypes = new TreeSet<>();
+        reflections.getStore().getOrDefault(Scanners.SubTypes.index(), Map.of()).values().forEach(scannedTypes::addAll);
+        for (String typeName : scannedTypes) {
+            if (inPackages(typeName, packages)) {
+                candidates.add(load(typeName));
+            }
+        }
+        for (Class<?> candidate : candidates) {
+            if (isBound(candidate)) {
+                addWithReferencedTypes(candidate, boundTypes, packages);
+            }
+        }
+
+        Map<String, Set<Method>> toolMethods = new TreeMap<>();
+        for (Method method : reflections.getMethodsAnnotatedWith(ToolFunction.class)) {
+            if (inPackages(method.getDeclaringClass().getName(), packages)) {
+                toolMethods.computeIfAbsent(method.getDeclaringClass().getName(), name -> new TreeSet<>((a, b) -> a.toString().compareTo(b.toString())))
+                    .add(method);
+            }
+        }
+
+        Map<String, ObjectNode> entries = new TreeMap<>();
+        for (Class<?> boundType : boundTypes) {
+            ObjectNode entry = entries.computeIfAbsent(boundType.getName(), ReachabilityMetadataGenerator::entry);
+            entry.put("allDeclaredConstructors", true);
+            entry.put("allDeclaredMethods", true);
+            entry.put("allDeclaredFields", true);
+        }
+        toolMethods.forEach((className, methods) -> {
+            ArrayNode methodEntries = entries.computeIfAbsent(className, ReachabilityMetadataGenerator::entry).putArray("methods");
+            methodEntries.addObject().put("name", "<init>").putArray("parameterTypes");
+            for (Method method : methods) {
+                ArrayNode parameterTypes = methodEntries.addObject().put("name", method.getName()).putArray("parameterTypes");
+                Arrays.stream(method.getParameterTypes()).forEach(type -> parameterTypes.add(type.getTypeName()));
+            }
+        });
+
+        ArrayNode reflectConfig = JsonNodeFactory.instance.arrayNode();
+        entries.values().forEach(reflectConfig::add);
+        Path target = outputDirectory.resolve(reflectConfigResourceName(metadataId));
+        Files.createDirectories(target.getParent());
+        Files.write(target, jsonCodec.mapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(reflectConfig));
+        LOGGER.info(() -> "Wrote reflection metadata of " + boundTypes.size() + " JSON-bound types and " + toolMethods.size() + " tool classes to " + target);
+        return target;
+    }
+
+    private static ObjectNode entry(final String className) {
+        return JsonNodeFactory.instance.objectNode().put("name", className);
+    }
+
+    private static boolean isBound(final Class<?> type) {
+        if (type.isAnnotationPresent(PrecomputedSchema.class)
+            || JsonDeserializer.class.isAssignableFrom(type)
+            || JsonSerializer.class.isAssignableFrom(type)
+            || hasJacksonAnnotation(type)) {
+            return true;
+        }
+        for (Field field : type.getDeclaredFields()) {
+            if (hasJacksonAnnotation(field)) {
+                return true;
+            }
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (hasJacksonAnnotation(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJacksonAnnotation(final AnnotatedElement element) {
+        for (Annotation annotation : element.getDeclaredAnnotations()) {
+            if (annotation.annotationType().getPackageName().startsWith("com.fasterxml.jackson")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addWithReferencedTypes(final Class<?> type, final Set<Class<?>> boundTypes, final String[] packages) {
+        if (!inPackages(type.getName(), packages) || !boundTypes.add(type)) {
+            return;
+        }
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                addReferencedTypes(component.getGenericType(), boundTypes, packages);
+            }
+        }
+        for (Field field : type.getDeclaredFields()) {
+            addReferencedTypes(field.getGenericType(), boundTypes, packages);
+        }
+    }
+
+    private static void addReferencedTypes(final Type type, final Set<Class<?>> boundTypes, final String[] packages) {
+        if (type instanceof Class<?> referenced) {
+            addWithReferencedTypes(referenced.isArray() ? referenced.getComponentType() : referenced, boundTypes, packages);
+        } else if (type instanceof ParameterizedType parameterized) {
+            addReferencedTypes(parameterized.getRawType(), boundTypes, packages);
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                addReferencedTypes(argument, boundTypes, packages);
+            }
+        } else if (type instanceof GenericArrayType array) {
+            addReferencedTypes(array.getGenericComponentType(), boundTypes, packages);
+        }
+    }
+
+    private static boolean inPackages(final String className, final String[] packages) {
+        for (String packageName : packages) {
+            if (packageName.isEmpty() || className.startsWith(packageName + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> load(final String className) {
+        try {
+            return Class.forName(className, false, ReachabilityMetadataGenerator.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Error loading scanned class: " + className, e);
+        }
+    }
+}
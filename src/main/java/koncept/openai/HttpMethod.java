@@ -1,5 +1,5 @@
 package koncept.openai;
 
 public enum HttpMethod {
-    GET, POST
+    GET, POST, DELETE
 }
\ No newline at end of file
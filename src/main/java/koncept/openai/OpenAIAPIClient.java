@@ -1,23 +1,62 @@
 package koncept.openai;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import koncept.exception.OpenAIClientIntegrationException;
+import koncept.json.JsonCodec;
+import koncept.metrics.ClientMetrics;
 import koncept.openai.model.AssistantRequest;
 import koncept.openai.model.AssistantResponse;
+import koncept.openai.model.DeletionStatus;
+import koncept.openai.model.EmbeddingModel;
+import koncept.openai.model.EmbeddingRequest;
+import koncept.openai.model.EmbeddingStorage;
+import koncept.openai.model.Embeddings;
+import koncept.openai.model.FileResponse;
 import koncept.openai.model.Message;
 import koncept.openai.model.MessageResponse;
 import koncept.openai.model.MessagesListResponse;
 import koncept.openai.model.RunRequest;
 import koncept.openai.model.RunResponse;
+import koncept.openai.model.RunStatus;
+import koncept.openai.model.RunStepsListResponse;
+import koncept.openai.model.RunStreamEvent;
 import koncept.openai.model.SubmitToolOutputsRunRequest;
 import koncept.openai.model.SubmitToolOutputsRunResponse;
 import koncept.openai.model.ThreadResponse;
+import koncept.openai.model.VectorStoreRequest;
+import koncept.openai.model.VectorStoreResponse;
+import koncept.openai.trace.HttpTracer;
+import koncept.store.ConversationStore;
+import koncept.openai.transport.CompressionPolicy;
+import koncept.openai.transport.CompressionTransport;
+import koncept.openai.transport.HedgingPolicy;
+import koncept.openai.transport.HedgingTransport;
+import koncept.openai.transport.HttpTransport;
+import koncept.openai.transport.InstrumentedTransport;
+import koncept.openai.transport.JdkHttpTransport;
+import koncept.openai.transport.MultipartBody;
+import koncept.openai.transport.QosPolicy;
+import koncept.openai.transport.QosTransport;
+import koncept.openai.transport.RequestClass;
+import koncept.openai.transport.StreamedBody;
+import koncept.openai.transport.TransportRequest;
+import koncept.openai.transport.TransportResponse;
 
 /**
  * KonceptAIClient is a singleton class that provides methods to interact with the OpenAI API.
@@ -26,18 +65,57 @@ import koncept.openai.model.ThreadResponse;
 public class OpenAIAPIClient {
 
     private static volatile OpenAIAPIClient instance;
-    private final HttpClient httpClient;
+    // not synchronized: a virtual thread blocked on a monitor pins its carrier thread
+    private static final Lock INSTANCE_LOCK = new ReentrantLock();
+    private final HttpTransport transport;
+    private final ClientMetrics metrics;
     private final String apiKey;
-    private final boolean traceHttpRequests;
+    private final HttpTracer tracer;
+    private final ConversationStore conversationStore;
+    private final String threadsUrl;
+    private final String assistantsUrl;
+    private final String filesUrl;
+    private final String vectorStoresUrl;
+    private final String embeddingsUrl;
+    private final RequestClass requestClass;
 
     private static final java.util.logging.Logger LOGGER = java.util.logging.Logger.getLogger(OpenAIAPIClient.class.getName());
-    private static final String THREADS_URL = "https://api.openai.com/v1/threads";
-    private static final String ASSISTANTS_URL = "https://api.openai.com/v1/assistants";
+    public static final String DEFAULT_BASE_URL = "https://api.openai.com/v1";
+    private static final int SYNC_PAGE_SIZE = 100;
 
-    private OpenAIAPIClient(final boolean traceHttpRequests) {
-        this.apiKey = ApiKeyRetriever.getApiKey();
-        this.httpClient = HttpClient.newHttpClient();
-        this.traceHttpRequests = traceHttpRequests;
+    private OpenAIAPIClient(final Builder builder) {
+        this.apiKey = builder.apiKey != null ? builder.apiKey : ApiKeyRetriever.getApiKey();
+        this.metrics = builder.metrics;
+        HttpTransport rawTransport = builder.transport != null ? builder.transport : new JdkHttpTransport();
+        // compression sits next to the wire, so the tracer and a hedged duplicate see the same uncompressed request
+        HttpTransport encodedTransport = builder.compression == null ? rawTransport : new CompressionTransport(rawTransport, builder.compression, metrics);
+        HttpTransport baseTransport = builder.readHedging == null ? encodedTransport : new HedgingTransport(encodedTransport, builder.readHedging);
+        HttpTransport instrumentedTransport = metrics == ClientMetrics.noop() ? baseTransport : new InstrumentedTransport(baseTransport, metrics);
+        // queueing happens in front of the instrumentation, so request latencies do not include the time spent queued
+        this.transport = builder.qosPolicy == null ? instrumentedTransport : new QosTransport(instrumentedTransport, builder.qosPolicy, metrics);
+        this.tracer = builder.tracer != null ? builder.tracer
+            : builder.traceHttpRequests ? HttpTracer.builder().build() : HttpTracer.disabled();
+        this.conversationStore = builder.conversationStore;
+        this.threadsUrl = builder.baseUrl + "/threads";
+        this.assistantsUrl = builder.baseUrl + "/assistants";
+        this.filesUrl = builder.baseUrl + "/files";
+        this.vectorStoresUrl = builder.baseUrl + "/vector_stores";
+        this.embeddingsUrl = builder.baseUrl + "/embeddings";
+        this.requestClass = RequestClass.INTERACTIVE;
+    }
+
+    private OpenAIAPIClient(final OpenAIAPIClient source, final RequestClass requestClass) {
+        this.apiKey = source.apiKey;
+        this.metrics = source.metrics;
+        this.transport = source.transport;
+        this.tracer = source.tracer;
+        this.conversationStore = source.conversationStore;
+        this.threadsUrl = source.threadsUrl;
+        this.assistantsUrl = source.assistantsUrl;
+        this.filesUrl = source.filesUrl;
+        this.vectorStoresUrl = source.vectorStoresUrl;
+        this.embeddingsUrl = source.embeddingsUrl;
+        this.requestClass = requestClass;
     }
 
     /**
@@ -48,16 +126,53 @@ public class OpenAIAPIClient {
      */
     public static OpenAIAPIClient getInstance(final boolean traceHttpRequests) {
         if (instance == null) {
-            synchronized (OpenAIAPIClient.class) {
+            INSTANCE_LOCK.lock();
+            try {
                 if (instance == null) {
-                    instance = new OpenAIAPIClient(traceHttpRequests);
+                    instance = builder().traceHttpRequests(traceHttpRequests).build();
                 }
+            } finally {
+                INSTANCE_LOCK.unlock();
             }
         }
         return instance;
     }
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Creates a builder for a client that is independent of the singleton, e.g. one using a custom transport or base URL.
+     *
+     * @return A new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+
+    /**
+     * Returns a view of this client whose requests are scheduled in the given lane, sharing the transport, queues and
+     * everything else with this client. Only matters with a {@link Builder#qos(QosPolicy) QoS policy}.
+     *
+     * @param requestClass The lane of the requests sent through the view, e.g. {@link RequestClass#BULK} for batch jobs.
+     * @return A client sending its requests in the given lane.
+     */
+    public OpenAIAPIClient forLane(final RequestClass requestClass) {
+        return requestClass == this.requestClass ? this : new OpenAIAPIClient(this, requestClass);
+    }
+
+    /**
+     * @return The lane the requests of this client are scheduled in.
+     */
+    public RequestClass requestClass() {
+        return requestClass;
+    }
+
+    /**
+     * @return The metrics this client reports to.
+     */
+    public ClientMetrics metrics() {
+        return metrics;
+    }
 
     /**
      * Creates an assistant by sending a POST request to the specified assistants URL.
@@ -67,7 +182,7 @@ public class OpenAIAPIClient {
      */
     public AssistantResponse createAssistant(final AssistantRequest assistantRequest) {
         try {
-            AssistantResponse assistantResponse = sendPostRequest(ASSISTANTS_URL, assistantRequest, AssistantResponse.class);
+            AssistantResponse assistantResponse = sendPostRequest(assistantsUrl, assistantRequest, AssistantResponse.class);
             LOGGER.info(() -> "Assistant created with id: " + assistantResponse.id());
             return assistantResponse;
         } catch (Exception e) {
@@ -84,14 +199,35 @@ public class OpenAIAPIClient {
      */
     public ThreadResponse createThread() {
         try {
-            ThreadResponse threadResponse = sendPostRequest(THREADS_URL, null, ThreadResponse.class);
+            ThreadResponse threadResponse = sendPostRequest(threadsUrl, null, ThreadResponse.class);
             LOGGER.info(() -> "Thread created with id: " + threadResponse.id());
+            if (conversationStore != null) {
+                conversationStore.trackThread(threadResponse.id());
+            }
             return threadResponse;
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Deletes a thread with its messages and runs.
+     *
+     * @param threadId The ID of the thread to be deleted.
+     * @return A {@link DeletionStatus} object telling whether the thread was deleted.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public DeletionStatus deleteThread(final String threadId) {
+        String url = threadsUrl + "/" + threadId;
+        try {
+            DeletionStatus deletionStatus = sendRequest(createRequest(url, new byte[0], HttpMethod.DELETE), DeletionStatus.class);
+            LOGGER.info(() -> "Thread deleted with id: " + threadId);
+            return deletionStatus;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Sends a message to a specified thread.
      *
@@ -101,10 +237,13 @@ public class OpenAIAPIClient {
      * @throws RuntimeException if an error occurs while sending the request or processing the response.
      */
     public MessageResponse sendMessage(final Message message, final String threadId) {
-        String url = THREADS_URL + "/" + threadId + "/messages";
+        String url = threadsUrl + "/" + threadId + "/messages";
         try {
             MessageResponse messageResponse = sendPostRequest(url, message, MessageResponse.class);
             LOGGER.info(() -> "Message sent with id: " + messageResponse.id());
+            if (conversationStore != null) {
+                conversationStore.append(messageResponse);
+            }
             return messageResponse;
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
@@ -119,7 +258,7 @@ public class OpenAIAPIClient {
      * @throws RuntimeException if an error occurs while sending the request or processing the response.
      */
     public MessagesListResponse getMessages(final String threadId) {
-        String url = THREADS_URL + "/" + threadId + "/messages";
+        String url = threadsUrl + "/" + threadId + "/messages";
         try {
             MessagesListResponse messagesListResponse = sendGetRequest(url, MessagesListResponse.class);
             LOGGER.info(() -> "Messages retrieved for thread with id: " + threadId);
@@ -129,6 +268,190 @@ public class OpenAIAPIClient {
         }
     }
 
+    /**
+     * Retrieves one page of messages from a specified thread.
+     *
+     * @param threadId The ID of the thread from which messages are to be retrieved.
+     * @param after    The ID of the message after which the page starts, or null to start at the beginning.
+     * @param order    {@code asc} for oldest first, {@code desc} for newest first.
+     * @param limit    The maximum number of messages of the page, between 1 and 100.
+     * @return A {@link MessagesListResponse} object containing the page of messages.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public MessagesListResponse getMessages(final String threadId, final String after, final String order, final int limit) {
+        String url = threadsUrl + "/" + threadId + "/messages?order=" + order + "&limit=" + limit
+            + (after != null ? "&after=" + URLEncoder.encode(after, StandardCharsets.UTF_8) : "");
+        try {
+            MessagesListResponse messagesListResponse = sendGetRequest(url, MessagesListResponse.class);
+            LOGGER.fine(() -> "Messages retrieved for thread with id: " + threadId + " after: " + after);
+            return messagesListResponse;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Brings the history of a thread in the {@link ConversationStore} up to date: fetches the messages after the last
+     * synced one, or the complete history if the thread is not tracked yet. Messages stored locally since the last sync
+     * are fetched again, so messages created before them elsewhere are not skipped.
+     *
+     * @param threadId The ID of the thread to sync.
+     * @return The number of messages fetched.
+     * @throws IllegalStateException if the client has no conversation store.
+     */
+    public int syncMessages(final String threadId) {
+        ConversationStore store = requireConversationStore();
+        boolean tracked = store.isTracked(threadId);
+        String after = tracked ? store.syncedMessageId(threadId) : null;
+        List<MessageResponse> fetched = new ArrayList<>();
+        MessagesListResponse page;
+        do {
+            page = getMessages(threadId, after, "asc", SYNC_PAGE_SIZE);
+            fetched.addAll(page.data());
+            after = page.lastId();
+        } while (page.hasMore() && after != null);
+        // an untracked thread is only tracked once its complete history is at hand
+        if (!tracked) {
+            store.trackThread(threadId);
+        }
+        store.appendSynced(threadId, fetched);
+        return fetched.size();
+    }
+
+    /**
+     * Reads the history of a thread from the {@link ConversationStore}, syncing it first only if the thread is not
+     * tracked yet. Messages sent through this client, and messages completed on its streamed runs, are stored as they
+     * occur; call {@link #syncMessages(String)} to pick up messages created elsewhere.
+     *
+     * @param threadId The ID of the thread.
+     * @return The messages of the thread, oldest first.
+     * @throws IllegalStateException if the client has no conversation store.
+     */
+    public List<MessageResponse> getHistory(final String threadId) {
+        ConversationStore store = requireConversationStore();
+        if (!store.isTracked(threadId)) {
+            syncMessages(threadId);
+        }
+        return store.messages(threadId);
+    }
+
+    /**
+     * @return The conversation store of this client, or null if it has none.
+     */
+    public ConversationStore conversationStore() {
+        return conversationStore;
+    }
+
+    private ConversationStore requireConversationStore() {
+        if (conversationStore == null) {
+            throw new IllegalStateException("No conversation store configured, see OpenAIAPIClient.Builder#conversationStore");
+        }
+        return conversationStore;
+    }
+
+    /**
+     * Uploads a file for use by assistants, e.g. to add it to a vector store or attach it to a message. The file is
+     * streamed from disk as the multipart body is sent, so its size does not matter for the heap.
+     *
+     * @param file The file to upload.
+     * @return A {@link FileResponse} object containing the ID of the uploaded file.
+     * @throws RuntimeException if the file cannot be read or an error occurs while sending the request.
+     */
+    public FileResponse uploadFile(final Path file) {
+        return uploadFile(file, "assistants");
+    }
+
+    /**
+     * Works like {@link #uploadFile(Path)} for the given purpose.
+     *
+     * @param file    The file to upload.
+     * @param purpose The intended purpose of the file, e.g. {@code assistants} or {@code vision}.
+     * @return A {@link FileResponse} object containing the ID of the uploaded file.
+     * @throws RuntimeException if the file cannot be read or an error occurs while sending the request.
+     */
+    public FileResponse uploadFile(final Path file, final String purpose) {
+        try {
+            MultipartBody body = new MultipartBody()
+                .field("purpose", purpose)
+                .file("file", file);
+            TransportRequest request = createRequest(filesUrl, HttpMethod.POST, body.contentType(), new byte[0], body);
+            FileResponse fileResponse = sendRequest(request, FileResponse.class);
+            LOGGER.info(() -> "File uploaded with id: " + fileResponse.id());
+            return fileResponse;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a vector store for the {@code file_search} tool. Files passed with the request are ingested
+     * asynchronously; the store is {@code in_progress} until all of them are processed.
+     *
+     * @param vectorStoreRequest The {@link VectorStoreRequest} object containing the name and files of the store.
+     * @return A {@link VectorStoreResponse} object containing the details of the created vector store.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public VectorStoreResponse createVectorStore(final VectorStoreRequest vectorStoreRequest) {
+        try {
+            VectorStoreResponse vectorStoreResponse = sendPostRequest(vectorStoresUrl, vectorStoreRequest, VectorStoreResponse.class);
+            LOGGER.info(() -> "Vector store created with id: " + vectorStoreResponse.id());
+            return vectorStoreResponse;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Retrieves a vector store, e.g. to check whether its files have been ingested.
+     *
+     * @param vectorStoreId The ID of the vector store.
+     * @return A {@link VectorStoreResponse} object containing the status and file counts of the vector store.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public VectorStoreResponse getVectorStore(final String vectorStoreId) {
+        try {
+            return sendGetRequest(vectorStoresUrl + "/" + vectorStoreId, VectorStoreResponse.class);
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Embeds the texts in one request, decoding the vectors to primitive floats on the heap. To embed single texts from
+     * many callers, use an {@link koncept.embedding.EmbeddingBatcher}, which merges them into such requests.
+     *
+     * @param model  The embedding model.
+     * @param inputs The texts to embed, at most 2048.
+     * @return The {@link Embeddings} of the texts, in the order of {@code inputs}.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public Embeddings createEmbeddings(final EmbeddingModel model, final List<String> inputs) {
+        return createEmbeddings(new EmbeddingRequest(model, inputs), EmbeddingStorage.HEAP);
+    }
+
+    /**
+     * Embeds the inputs of the request. The vectors are decoded from the response stream straight into one float
+     * buffer, without buffering the response body or boxing the numbers.
+     *
+     * @param embeddingRequest The {@link EmbeddingRequest} object containing the model and the texts to embed.
+     * @param storage          Whether the vectors are stored on the heap or in a direct buffer.
+     * @return The {@link Embeddings} of the inputs, in the order of the inputs.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public Embeddings createEmbeddings(final EmbeddingRequest embeddingRequest, final EmbeddingStorage storage) {
+        try {
+            TransportRequest request = createRequest(embeddingsUrl, jsonCodec.writerFor(embeddingRequest).writeValueAsBytes(embeddingRequest), HttpMethod.POST);
+            ObjectReader reader = jsonCodec.reader(Embeddings.class)
+                .withAttribute(Embeddings.STORAGE_ATTRIBUTE, storage)
+                .withAttribute(Embeddings.COUNT_ATTRIBUTE, embeddingRequest.input().size());
+            Embeddings embeddings = sendRequestDecodingStream(request, reader);
+            LOGGER.fine(() -> embeddings.count() + " embeddings created with model " + embeddings.model());
+            return embeddings;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Executes a run message operation by sending a POST request to the run endpoint associated with the specified thread ID.
      *
@@ -138,7 +461,7 @@ public class OpenAIAPIClient {
      * @throws RuntimeException if an error occurs while sending the request or processing the response.
      */
     public RunResponse runMessage(final RunRequest runRequest, final String threadId) {
-        String url = THREADS_URL + "/" + threadId + "/runs";
+        String url = threadsUrl + "/" + threadId + "/runs";
         try {
             RunResponse runResponse = sendPostRequest(url, runRequest, RunResponse.class);
             LOGGER.info(() -> "Run executed for thread with id: " + threadId);
@@ -149,6 +472,27 @@ public class OpenAIAPIClient {
     }
 
 
+    /**
+     * Starts a streamed run and delivers its server-sent events to the listener as they arrive. The call returns when
+     * the stream ends, which is when the run completes, fails or requires action.
+     *
+     * @param runRequest The {@link RunRequest} object containing the details of the run to be executed.
+     * @param threadId   The ID of the thread to which the run belongs.
+     * @param listener   Receives every event of the stream, in order.
+     * @return The {@link RunStatus} carried by the last run event of the stream, or null if there was none.
+     * @throws RuntimeException if an error occurs while sending the request or reading the stream.
+     */
+    public RunStatus streamRun(final RunRequest runRequest, final String threadId, final Consumer<RunStreamEvent> listener) {
+        String url = threadsUrl + "/" + threadId + "/runs";
+        try {
+            RunStatus runStatus = sendStreamingRequest(url, runRequest.withStream(true), listener);
+            LOGGER.info(() -> "Streamed run executed for thread with id: " + threadId);
+            return runStatus;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Retrieves the details of a specific run based on the given thread ID and run ID.
      *
@@ -158,7 +502,7 @@ public class OpenAIAPIClient {
      * @throws RuntimeException if an error occurs while sending the request or processing the response.
      */
     public RunResponse getRun(final String threadId, final String runId) {
-        String url = THREADS_URL + "/" + threadId + "/runs/" + runId;
+        String url = threadsUrl + "/" + threadId + "/runs/" + runId;
         try {
             RunResponse runResponse = sendGetRequest(url, RunResponse.class);
             LOGGER.info(() -> "Run retrieved for thread with id: " + threadId);
@@ -168,6 +512,63 @@ public class OpenAIAPIClient {
         }
     }
 
+    /**
+     * Cancels a run that is queued, in progress or waiting for tool outputs; the run ends with status {@code cancelled}.
+     *
+     * @param threadId The ID of the thread to which the run belongs.
+     * @param runId    The ID of the run to be cancelled.
+     * @return A {@link RunResponse} object containing the details of the run, usually with status {@code cancelling}.
+     * @throws RuntimeException if an error occurs while sending the request, e.g. because the run has already ended.
+     */
+    public RunResponse cancelRun(final String threadId, final String runId) {
+        String url = threadsUrl + "/" + threadId + "/runs/" + runId + "/cancel";
+        try {
+            RunResponse runResponse = sendPostRequest(url, null, RunResponse.class);
+            LOGGER.info(() -> "Run cancelled with id: " + runId);
+            return runResponse;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Retrieves the steps of a specific run, e.g. to attribute the time of a run to tool calls and message creation.
+     *
+     * @param threadId The ID of the thread to which the run belongs.
+     * @param runId    The ID of the run whose steps are to be retrieved.
+     * @return A {@link RunStepsListResponse} object containing the steps of the run.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public RunStepsListResponse getRunSteps(final String threadId, final String runId) {
+        String url = threadsUrl + "/" + threadId + "/runs/" + runId + "/steps";
+        try {
+            RunStepsListResponse runStepsListResponse = sendGetRequest(url, RunStepsListResponse.class);
+            LOGGER.info(() -> "Run steps retrieved for run with id: " + runId);
+            return runStepsListResponse;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Retrieves only the status, last error and required action of a specific run. The response is decoded with a
+     * streaming parser that skips all other fields, which keeps the polling path cheap; use {@link #getRun(String, String)}
+     * when the whole run record is needed.
+     *
+     * @param threadId The ID of the thread to which the run belongs.
+     * @param runId    The ID of the run to be retrieved.
+     * @return A {@link RunStatus} object containing the status of the requested run.
+     * @throws RuntimeException if an error occurs while sending the request or processing the response.
+     */
+    public RunStatus getRunStatus(final String threadId, final String runId) {
+        String url = threadsUrl + "/" + threadId + "/runs/" + runId;
+        try {
+            return sendGetRequest(url, RunStatus.class);
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Submits tool outputs for a specific thread and run.
      *
@@ -181,7 +582,7 @@ public class OpenAIAPIClient {
     public SubmitToolOutputsRunResponse submitToolOutputs(final SubmitToolOutputsRunRequest submitToolOutputsRunRequest,
                                                           final String threadId,
                                                           final String runId) {
-        String url = THREADS_URL + "/" + threadId + "/runs/" + runId + "/submit_tool_outputs";
+        String url = threadsUrl + "/" + threadId + "/runs/" + runId + "/submit_tool_outputs";
         try {
             SubmitToolOutputsRunResponse submitToolOutputsRunResponse = sendPostRequest(url,
                 submitToolOutputsRunRequest,
@@ -194,60 +595,282 @@ public class OpenAIAPIClient {
         }
     }
 
+    /**
+     * Submits tool outputs for a streamed run and delivers the events of the continued stream to the listener.
+     *
+     * @param submitToolOutputsRunRequest The tool outputs to be submitted.
+     * @param threadId                    The ID of the thread for which tool outputs are to be submitted.
+     * @param runId                       The ID of the run associated with the tool outputs.
+     * @param listener                    Receives every event of the stream, in order.
+     * @return The {@link RunStatus} carried by the last run event of the stream, or null if there was none.
+     * @throws RuntimeException if an error occurs while sending the request or reading the stream.
+     */
+    public RunStatus streamSubmitToolOutputs(final SubmitToolOutputsRunRequest submitToolOutputsRunRequest,
+                                             final String threadId,
+                                             final String runId,
+                                             final Consumer<RunStreamEvent> listener) {
+        String url = threadsUrl + "/" + threadId + "/runs/" + runId + "/submit_tool_outputs";
+        try {
+            SubmitToolOutputsRunRequest streamedRequest = new SubmitToolOutputsRunRequest(submitToolOutputsRunRequest.toolOutputs(), true);
+            RunStatus runStatus = sendStreamingRequest(url, streamedRequest, listener);
+            LOGGER.info(() -> "Tool outputs streamed for thread with id: " + threadId + " and run with id: " + runId);
+            return runStatus;
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private <T, R> R sendPostRequest(final String url, final T requestBody, final Class<R> responseClass) throws IOException, InterruptedException {
-        String requestBodyString = requestBody == null ? "" : objectMapper.writeValueAsString(requestBody);
-        HttpRequest httpRequest = createRequest(url, requestBodyString, HttpMethod.POST);
-        return sendRequest(httpRequest, responseClass);
+        byte[] requestBodyBytes = requestBody == null ? new byte[0] : jsonCodec.writerFor(requestBody).writeValueAsBytes(requestBody);
+        TransportRequest request = createRequest(url, requestBodyBytes, HttpMethod.POST);
+        return sendRequest(request, responseClass);
     }
 
     private <R> R sendGetRequest(final String url, final Class<R> responseClass) throws IOException, InterruptedException {
-        HttpRequest httpRequest = createRequest(url, "", HttpMethod.GET);
-        return sendRequest(httpRequest, responseClass);
+        TransportRequest request = createRequest(url, new byte[0], HttpMethod.GET);
+        return sendRequest(request, responseClass);
+    }
+
+    private TransportRequest createRequest(final String url, final byte[] requestBody, final HttpMethod method) {
+        return createRequest(url, method, "application/json", requestBody, null);
     }
 
-    private HttpRequest createRequest(final String url, final String requestBody, final HttpMethod method) {
-        HttpRequest.BodyPublisher bodyPublisher = HttpRequest.BodyPublishers.ofString(requestBody);
-        return HttpRequest.newBuilder()
-            .uri(URI.create(url))
-            .header("Authorization", "Bearer " + apiKey)
-            .header("OpenAI-Beta", "assistants=v2")
-            .header("Content-Type", "application/json")
-            .method(method.name(), bodyPublisher)
-            .build();
+    private TransportRequest createRequest(final String url,
+                                           final HttpMethod method,
+                                           final String contentType,
+                                           final byte[] requestBody,
+                                           final StreamedBody streamedBody) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", "Bearer " + apiKey);
+        headers.put("OpenAI-Beta", "assistants=v2");
+        headers.put("Content-Type", contentType);
+        return new TransportRequest(method, URI.create(url), headers, requestBody, requestClass, streamedBody);
+    }
+
+    private <R> R sendRequest(final TransportRequest request, Class<R> responseClass)
+        throws IOException, InterruptedException {
+        long exchangeId = tracer.traceRequest(request);
+        TransportResponse response = transport.send(request);
+        byte[] body = response.readBody();
+        tracer.traceResponse(exchangeId, request, response, body);
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new OpenAIClientIntegrationException(
+                "HTTP error: " + response.statusCode(),
+                response.statusCode(),
+                new String(body, StandardCharsets.UTF_8)
+            );
+        }
+        return jsonCodec.reader(responseClass).readValue(body);
     }
 
-    private <R> R sendRequest(final HttpRequest httpRequest, Class<R> responseClass)
+    /**
+     * Like {@link #sendRequest(TransportRequest, Class)}, but decodes a successful response while it is read from the
+     * transport; the body of a successful response is therefore not traced.
+     */
+    private <R> R sendRequestDecodingStream(final TransportRequest request, final ObjectReader reader)
         throws IOException, InterruptedException {
-        if (traceHttpRequests) {
-            logRequest(httpRequest);
+        long exchangeId = tracer.traceRequest(request);
+        TransportResponse response = transport.send(request);
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            byte[] body = response.readBody();
+            tracer.traceResponse(exchangeId, request, response, body);
+            throw new OpenAIClientIntegrationException(
+                "HTTP error: " + response.statusCode(),
+                response.statusCode(),
+                new String(body, StandardCharsets.UTF_8)
+            );
         }
-        HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        if (traceHttpRequests) {
-            logResponse(response);
+        tracer.traceResponse(exchangeId, request, response, null);
+        try (InputStream body = response.body()) {
+            return reader.readValue(body);
         }
+    }
+
+    private <T> RunStatus sendStreamingRequest(final String url, final T requestBody, final Consumer<RunStreamEvent> listener)
+        throws IOException, InterruptedException {
+        TransportRequest request = createRequest(url, jsonCodec.writerFor(requestBody).writeValueAsBytes(requestBody), HttpMethod.POST);
+        long exchangeId = tracer.traceRequest(request);
+        TransportResponse response = transport.send(request);
         if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            byte[] body = response.readBody();
+            tracer.traceResponse(exchangeId, request, response, body);
             throw new OpenAIClientIntegrationException(
                 "HTTP error: " + response.statusCode(),
                 response.statusCode(),
-                response.body()
+                new String(body, StandardCharsets.UTF_8)
             );
         }
-        return objectMapper.readValue(response.body(), responseClass);
+        tracer.traceResponse(exchangeId, request, response, null);
+        RunStatus lastRunStatus = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String event = null;
+            StringBuilder data = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (event != null) {
+                        lastRunStatus = dispatchStreamEvent(exchangeId, request, new RunStreamEvent(event, data.toString()), lastRunStatus, listener);
+                    }
+                    event = null;
+                    data.setLength(0);
+                } else if (line.startsWith("event:")) {
+                    event = line.substring("event:".length()).trim();
+                } else if (line.startsWith("data:")) {
+                    if (!data.isEmpty()) {
+                        data.append('\n');
+                    }
+                    data.append(line.substring("data:".length()).trim());
+                }
+            }
+            if (event != null) {
+                lastRunStatus = dispatchStreamEvent(exchangeId, request, new RunStreamEvent(event, data.toString()), lastRunStatus, listener);
+            }
+        }
+        return lastRunStatus;
     }
 
-    private void logRequest(HttpRequest httpRequest) {
-        LOGGER.info(() -> "HTTP Request:\n" +
-            "URI: " + httpRequest.uri() + "\n" +
-            "Method: " + httpRequest.method() + "\n" +
-            "Headers: " + httpRequest.headers() + "\n" +
-            "Body: " + (httpRequest.bodyPublisher().isPresent() ? "Body content present" : "No body"));
+    private RunStatus dispatchStreamEvent(final long exchangeId,
+                                          final TransportRequest request,
+                                          final RunStreamEvent streamEvent,
+                                          final RunStatus lastRunStatus,
+                                          final Consumer<RunStreamEvent> listener) throws IOException {
+        tracer.traceStreamEvent(exchangeId, request, streamEvent.event(), streamEvent.data());
+        if ("error".equals(streamEvent.event())) {
+            throw new OpenAIClientIntegrationException("Stream error", 200, streamEvent.data());
+        }
+        listener.accept(streamEvent);
+        if (conversationStore != null && "thread.message.completed".equals(streamEvent.event())) {
+            conversationStore.append(jsonCodec.reader(MessageResponse.class).readValue(streamEvent.data()));
+        }
+        if (streamEvent.event().startsWith("thread.run.") && !streamEvent.event().startsWith("thread.run.step.")) {
+            return jsonCodec.reader(RunStatus.class).readValue(streamEvent.data());
+        }
+        return lastRunStatus;
     }
 
-    private void logResponse(final HttpResponse<String> response) {
-        LOGGER.info(() -> "HTTP Response:\n" +
-            "Status Code: " + response.statusCode() + "\n" +
-            "Headers: " + response.headers() + "\n" +
-            "Body: " + response.body());
+    /**
+     * Builder for {@link OpenAIAPIClient} instances.
+     */
+    public static final class Builder {
+
+        private HttpTransport transport;
+        private String baseUrl = DEFAULT_BASE_URL;
+        private String apiKey;
+        private boolean traceHttpRequests;
+        private HttpTracer tracer;
+        private ConversationStore conversationStore;
+        private QosPolicy qosPolicy;
+        private HedgingPolicy readHedging;
+        private CompressionPolicy compression;
+        private ClientMetrics metrics = ClientMetrics.noop();
+
+        private Builder() {
+        }
+
+        /**
+         * @param transport The transport used for all HTTP exchanges; defaults to a {@link JdkHttpTransport}.
+         * @return This builder.
+         */
+        public Builder transport(final HttpTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * @param baseUrl The base URL of the API, without a trailing slash; defaults to {@value OpenAIAPIClient#DEFAULT_BASE_URL}.
+         * @return This builder.
+         */
+        public Builder baseUrl(final String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * @param apiKey The API key; defaults to the key found by {@link ApiKeyRetriever}.
+         * @return This builder.
+         */
+        public Builder apiKey(final String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        /**
+         * @param traceHttpRequests Indicates whether HTTP requests should be logged for tracing raw HTTP communication with openAI.
+         *                          Traces every exchange with the defaults of {@link HttpTracer.Builder}; use
+         *                          {@link #tracer(HttpTracer)} to sample or tune the trace.
+         * @return This builder.
+         */
+        public Builder traceHttpRequests(final boolean traceHttpRequests) {
+            this.traceHttpRequests = traceHttpRequests;
+            return this;
+        }
+
+        /**
+         * @param tracer The tracer for raw HTTP exchanges, e.g. one sampling a fraction of runs; takes precedence over
+         *               {@link #traceHttpRequests(boolean)}.
+         * @return This builder.
+         */
+        public Builder tracer(final HttpTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * @param metrics The metrics the transport and the high-level client report to; defaults to {@link ClientMetrics#noop()}.
+         * @return This builder.
+         */
+        public Builder metrics(final ClientMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param conversationStore A local store of thread histories, kept up to date with the messages sent and
+         *                          received by the client and read with {@link OpenAIAPIClient#getHistory(String)};
+         *                          none by default.
+         * @return This builder.
+         */
+        public Builder conversationStore(final ConversationStore conversationStore) {
+            this.conversationStore = conversationStore;
+            return this;
+        }
+
+        /**
+         * @param qosPolicy Queues requests per {@link RequestClass} in front of the transport and schedules them by this
+         *                  policy, so bulk work sent through {@link OpenAIAPIClient#forLane(RequestClass)} cannot
+         *                  crowd out interactive calls; requests go out unscheduled by default.
+         * @return This builder.
+         */
+        public Builder qos(final QosPolicy qosPolicy) {
+            this.qosPolicy = qosPolicy;
+            return this;
+        }
+
+        /**
+         * @param readHedging Sends a duplicate of a GET request (e.g. a run status check) that is slower than the
+         *                    policy's latency percentile and takes the first response, so a single stalled exchange
+         *                    does not hold up a whole run; no request is duplicated by default.
+         * @return This builder.
+         */
+        public Builder readHedging(final HedgingPolicy readHedging) {
+            this.readHedging = readHedging;
+            return this;
+        }
+
+        /**
+         * @param compression Requests gzip encoded responses and decompresses them while they are read, and compresses
+         *                    large request bodies as the policy says; bodies go out and come back uncompressed by
+         *                    default. Compression ratios are reported to the metrics.
+         * @return This builder.
+         */
+        public Builder compression(final CompressionPolicy compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        public OpenAIAPIClient build() {
+            return new OpenAIAPIClient(this);
+        }
     }
 
 
@@ -0,0 +1,20 @@
+package koncept.openai.function;
+
+import java.util.Map;
+
+/**
+ * A tool implementation registered with {@link ToolRegistry#register(String, ToolHandler)} instead of being discovered
+ * as a {@link ToolFunction} method. It is called directly, without a classpath scan or {@link java.lang.reflect.Method}
+ * dispatch, which keeps it working in a native image without reflection metadata.
+ */
+@FunctionalInterface
+public interface ToolHandler {
+
+    /**
+     * @param arguments The arguments provided by the assistant, by parameter name.
+     * @return The result of the tool: text is passed through, a {@link java.util.concurrent.CompletionStage} is composed
+     * and any other value is serialized as JSON.
+     * @throws Exception if the tool fails.
+     */
+    Object invoke(Map<String, Object> arguments) throws Exception;
+}
@@ -3,23 +3,39 @@ package koncept.openai.function;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import koncept.json.JsonCodec;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 import org.reflections.util.ConfigurationBuilder;
 
+/**
+ * Resolves tools by name: {@link ToolFunction} methods found by a classpath scan on first use, annotated classes
+ * registered with {@link #registerAnnotated(Class)}, and handlers registered with {@link #register(String, ToolHandler)}.
+ * <p>
+ * The scan is skipped if the {@value #SCAN_PROPERTY} system property is {@code false}, and always in a native image,
+ * where there is no classpath to scan; tools must be registered explicitly then.
+ */
 public class ToolRegistry {
 
-    private static final Map<String, Method> toolMethods = new HashMap<>();
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    public static final String SCAN_PROPERTY = "koncept.tools.scan";
+
+    // a Method or a ToolHandler per tool name, so replacing a tool is a single put that concurrent invocations see whole
+    private static final Map<String, Object> tools = new ConcurrentHashMap<>();
+    private static final JsonCodec jsonCodec = JsonCodec.shared();
 
     static {
-        initializeTools();
+        if (Boolean.parseBoolean(System.getProperty(SCAN_PROPERTY, "true")) && System.getProperty("org.graalvm.nativeimage.imagecode") == null) {
+            initializeTools();
+        }
     }
 
     private static void initializeTools() {
@@ -32,18 +48,86 @@ public class ToolRegistry {
         Set<Method> annotatedMethods = reflections.getMethodsAnnotatedWith(ToolFunction.class);
         annotatedMethods.forEach(method -> {
             ToolFunction annotation = method.getAnnotation(ToolFunction.class);
-            toolMethods.put(annotation.name(), method);
+            tools.put(annotation.name(), method);
         });
         System.out.println(annotatedMethods.size() + " tools registered");
     }
 
+    /**
+     * Registers a tool implemented by a handler, replacing any tool of the same name.
+     *
+     * @param name    The tool name, as declared in the function definition of the assistant.
+     * @param handler The implementation.
+     */
+    public static void register(final String name, final ToolHandler handler) {
+        tools.put(name, handler);
+    }
+
+    /**
+     * Registers the {@link ToolFunction} methods of a class without scanning the classpath, replacing any tools of the
+     * same names. They are still dispatched reflectively, so a native image needs reflection metadata for them, e.g.
+     * generated by {@link koncept.nativeimage.ReachabilityMetadataGenerator}.
+     *
+     * @param toolClass The class declaring the tool methods.
+     */
+    public static void registerAnnotated(final Class<?> toolClass) {
+        for (Method method : toolClass.getDeclaredMethods()) {
+            ToolFunction annotation = method.getAnnotation(ToolFunction.class);
+            if (annotation != null) {
+                tools.put(annotation.name(), method);
+            }
+        }
+    }
+
+    /**
+     * @param name The tool name.
+     * @return The annotated method of the tool, or null if the tool is unknown or registered as a {@link ToolHandler}.
+     */
     public static Method getTool(String name) {
-        return toolMethods.get(name);
+        return tools.get(name) instanceof Method method ? method : null;
+    }
+
+    /**
+     * Invokes the tool asynchronously on the given executor. Tools returning a {@link CompletionStage} are composed
+     * as-is, so an I/O-bound tool does not occupy a thread while it waits; synchronous tools are run on the executor.
+     *
+     * @param toolName      The name declared in {@link ToolFunction#name()}.
+     * @param parametersMap The arguments provided by the assistant.
+     * @param executor      The executor used to run the tool method itself.
+     * @return A CompletableFuture completed with the value produced by the tool.
+     */
+    public static CompletableFuture<Object> invokeToolAsync(String toolName, Map<String, Object> parametersMap, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> invokeTool(toolName, parametersMap), executor)
+            .thenCompose(ToolRegistry::unwrap);
+    }
+
+    /**
+     * Invokes the tool asynchronously on the common pool.
+     *
+     * @see #invokeToolAsync(String, Map, Executor)
+     */
+    public static CompletableFuture<Object> invokeToolAsync(String toolName, Map<String, Object> parametersMap) {
+        return invokeToolAsync(toolName, parametersMap, ForkJoinPool.commonPool());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletionStage<Object> unwrap(Object result) {
+        if (result instanceof CompletionStage<?> stage) {
+            return ((CompletionStage<Object>) stage).thenCompose(ToolRegistry::unwrap);
+        }
+        return CompletableFuture.completedFuture(result);
     }
 
     public static Object invokeTool(String toolName, Map<String, Object> parametersMap) {
-        Method method = getTool(toolName);
-        if (method == null) {
+        Object tool = tools.get(toolName);
+        if (tool instanceof ToolHandler handler) {
+            try {
+                return handler.invoke(parametersMap);
+            } catch (Exception e) {
+                throw new RuntimeException("Error invoking tool: " + toolName + ", Parameters: " + parametersMap, e);
+            }
+        }
+        if (!(tool instanceof Method method)) {
             throw new RuntimeException("Tool not found: " + toolName);
         }
         try {
@@ -79,6 +163,15 @@ public class ToolRegistry {
     }
 
 
+    private static Object enumConstant(final Class<?> enumType, final String name) {
+        for (Object constant : enumType.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + enumType.getName() + "." + name);
+    }
+
     private static Object convertArgument(String value, Class<?> targetType) {
         if (value == null) {
             if (targetType.isPrimitive()) {
@@ -96,11 +189,11 @@ public class ToolRegistry {
             } else if (targetType == boolean.class || targetType == Boolean.class) {
                 return Boolean.parseBoolean(value);
             } else if (targetType.isEnum()) {
-                return Enum.valueOf((Class<Enum>) targetType, value);
+                return enumConstant(targetType, value);
             } else if (Collection.class.isAssignableFrom(targetType)) {
-                return objectMapper.readValue(value, objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+                return jsonCodec.reader(jsonCodec.collectionType(List.class, String.class)).readValue(value);
             } else {
-                return objectMapper.readValue(value, targetType);
+                return jsonCodec.reader(targetType).readValue(value);
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to convert value: \"" + value + "\" to type: " + targetType.getName(), e);
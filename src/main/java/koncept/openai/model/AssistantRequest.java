@@ -1,16 +1,34 @@
 package koncept.openai.model;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record AssistantRequest(
     String name,
     String model,
     String instructions,
     @JsonProperty("response_format")
-    AssistantsApiResponseFormatOption responseFormat
+    AssistantsApiResponseFormatOption responseFormat,
+    List<AssistantTool> tools,
+    @JsonProperty("tool_resources")
+    ToolResources toolResources
     ) {
-}
 
+    public AssistantRequest(final String name, final String model, final String instructions, final AssistantsApiResponseFormatOption responseFormat) {
+        this(name, model, instructions, responseFormat, null, null);
+    }
 
+    /**
+     * @param vectorStoreIds The vector stores the assistant searches with the {@code file_search} tool.
+     * @return This request with file search over the given vector stores enabled.
+     */
+    public AssistantRequest withFileSearch(final List<String> vectorStoreIds) {
+        return new AssistantRequest(name, model, instructions, responseFormat, List.of(AssistantTool.fileSearch()),
+            ToolResources.fileSearch(vectorStoreIds));
+    }
+}
@@ -0,0 +1,19 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A built-in tool enabled on an assistant or on the attachment of a message.
+ *
+ * @param type The type of the tool, e.g. {@code file_search}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AssistantTool(
+    String type) {
+
+    private static final AssistantTool FILE_SEARCH = new AssistantTool("file_search");
+
+    public static AssistantTool fileSearch() {
+        return FILE_SEARCH;
+    }
+}
@@ -0,0 +1,23 @@
+package koncept.openai.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A file attached to a message, together with the tools it is made available to.
+ *
+ * @param fileId The ID of an uploaded file.
+ * @param tools  The tools the file is added to, e.g. {@link AssistantTool#fileSearch()}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Attachment(
+    @JsonProperty("file_id")
+    String fileId,
+    List<AssistantTool> tools) {
+
+    public static Attachment forFileSearch(final String fileId) {
+        return new Attachment(fileId, List.of(AssistantTool.fileSearch()));
+    }
+}
@@ -0,0 +1,10 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DeletionStatus(
+    String id,
+    String object,
+    boolean deleted) {
+}
@@ -0,0 +1,26 @@
+package koncept.openai.model;
+
+public enum EmbeddingModel {
+    TEXT_EMBEDDING_3_SMALL("text-embedding-3-small", 1536),
+    TEXT_EMBEDDING_3_LARGE("text-embedding-3-large", 3072),
+    TEXT_EMBEDDING_ADA_002("text-embedding-ada-002", 1536);
+
+    private final String modelId;
+    private final int dimensions;
+
+    EmbeddingModel(final String modelId, final int dimensions) {
+        this.modelId = modelId;
+        this.dimensions = dimensions;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    /**
+     * @return The default number of dimensions of the vectors of this model.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+}
@@ -0,0 +1,33 @@
+package koncept.openai.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @param model          The ID of the embedding model.
+ * @param input          The texts to embed, at most 2048 per request.
+ * @param encodingFormat {@code base64} (the default of this client: a quarter of the size of the JSON numbers and
+ *                       decoded without parsing them) or {@code float}.
+ * @param dimensions     The number of dimensions of the vectors, for models supporting shortened vectors; null for the
+ *                       default of the model.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmbeddingRequest(
+    String model,
+    List<String> input,
+    @JsonProperty("encoding_format")
+    String encodingFormat,
+    Integer dimensions) {
+
+    public EmbeddingRequest(final EmbeddingModel model, final List<String> input) {
+        this(model.getModelId(), input, "base64", null);
+    }
+
+    public EmbeddingRequest withDimensions(final Integer dimensions) {
+        return new EmbeddingRequest(model, input, encodingFormat, dimensions);
+    }
+}
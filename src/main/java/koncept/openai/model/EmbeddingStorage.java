@@ -0,0 +1,17 @@
+package koncept.openai.model;
+
+/**
+ * Where the vectors of {@link Embeddings} are decoded to.
+ */
+public enum EmbeddingStorage {
+
+    /**
+     * A {@code float[]} on the heap.
+     */
+    HEAP,
+
+    /**
+     * A direct buffer outside the heap, e.g. for vectors handed to native code or kept in large numbers.
+     */
+    DIRECT
+}
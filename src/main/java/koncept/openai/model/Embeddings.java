@@ -0,0 +1,83 @@
+package koncept.openai.model;
+
+import java.nio.FloatBuffer;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import koncept.openai.model.deserializer.EmbeddingsDeserializer;
+
+/**
+ * The vectors of an embeddings response, stored contiguously as primitive floats in the order of the inputs, on the
+ * heap or off-heap depending on the {@link EmbeddingStorage} requested. Decoded by {@link EmbeddingsDeserializer}.
+ */
+@JsonDeserialize(using = EmbeddingsDeserializer.class)
+public final class Embeddings {
+
+    /**
+     * Reader attribute with the {@link EmbeddingStorage} to decode to; {@link EmbeddingStorage#HEAP} if absent.
+     */
+    public static final String STORAGE_ATTRIBUTE = "koncept.embeddings.storage";
+
+    /**
+     * Reader attribute with the number of inputs, so the storage is allocated once; optional.
+     */
+    public static final String COUNT_ATTRIBUTE = "koncept.embeddings.count";
+
+    private final FloatBuffer vectors;
+    private final int count;
+    private final int dimensions;
+    private final String model;
+    private final Usage usage;
+
+    public Embeddings(final FloatBuffer vectors, final int count, final int dimensions, final String model, final Usage usage) {
+        this.vectors = vectors;
+        this.count = count;
+        this.dimensions = dimensions;
+        this.model = model;
+        this.usage = usage;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public Usage usage() {
+        return usage;
+    }
+
+    public boolean isDirect() {
+        return vectors.isDirect();
+    }
+
+    /**
+     * @param index The position of the input.
+     * @return A copy of the vector of the input.
+     */
+    public float[] vector(final int index) {
+        float[] vector = new float[dimensions];
+        vectors.get(offset(index), vector);
+        return vector;
+    }
+
+    /**
+     * @param index The position of the input.
+     * @return A read-only view of the vector of the input, sharing the storage of all vectors.
+     */
+    public FloatBuffer buffer(final int index) {
+        return vectors.slice(offset(index), dimensions).asReadOnlyBuffer();
+    }
+
+    private int offset(final int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No embedding at index " + index + " of " + count);
+        }
+        return index * dimensions;
+    }
+}
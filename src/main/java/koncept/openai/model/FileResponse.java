@@ -0,0 +1,15 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record FileResponse(
+    String id,
+    String object,
+    long bytes,
+    @JsonProperty("created_at")
+    long createdAt,
+    String filename,
+    String purpose) {
+}
@@ -1,9 +1,18 @@
 package koncept.openai.model;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record Message(
     String role,
-    String content) {
+    String content,
+    List<Attachment> attachments) {
+
+    public Message(final String role, final String content) {
+        this(role, content, null);
+    }
 }
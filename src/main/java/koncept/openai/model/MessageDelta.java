@@ -0,0 +1,30 @@
+package koncept.openai.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MessageDelta(
+    String id,
+    String object,
+    Delta delta) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Delta(
+        String role,
+        List<Content> content) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Content(
+        int index,
+        String type,
+        Text text) {
+
+        @JsonIgnoreProperties(ignoreUnknown = true)
+        public record Text(
+            String value) {
+        }
+    }
+}
@@ -22,7 +22,8 @@ public record MessageResponse(
     String assistantId,
     @JsonProperty("run_id")
     String runId,
-    Map<String, Object> metadata) {
+    Map<String, Object> metadata,
+    List<Attachment> attachments) {
 
     public record Content(
         String type,
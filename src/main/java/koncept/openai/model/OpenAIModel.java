@@ -1,29 +1,33 @@
 package koncept.openai.model;
 
+import koncept.tokenizer.TokenEncoding;
+
 public enum OpenAIModel {
-    GPT_4O_MINI("gpt-4o-mini", true),
-    GPT_4O("gpt-4o", false),
-    GPT_4_TURBO("gpt-4-turbo", false),
-    GPT_4("gpt-4", false),
-    GPT_3_5_TURBO("gpt-3.5-turbo", false),
-    GPT_4O_MINI_2024_07_18("gpt-4o-mini-2024-07-18", true),
-    GPT_4O_2024_08_06("gpt-4o-2024-08-06", true),
-    GPT_4O_2024_05_13("gpt-4o-2024-05-13", false),
-    GPT_4_TURBO_PREVIEW("gpt-4-turbo-preview", false),
-    GPT_4_TURBO_2024_04_09("gpt-4-turbo-2024-04-09", false),
-    GPT_4_1106_PREVIEW("gpt-4-1106-preview", false),
-    GPT_4_0613("gpt-4-0613", false),
-    GPT_4_0125_PREVIEW("gpt-4-0125-preview", false),
-    GPT_3_5_TURBO_16K("gpt-3.5-turbo-16k", false),
-    GPT_3_5_TURBO_1106("gpt-3.5-turbo-1106", false),
-    GPT_3_5_TURBO_0125("gpt-3.5-turbo-0125", false);
+    GPT_4O_MINI("gpt-4o-mini", true, TokenEncoding.O200K_BASE),
+    GPT_4O("gpt-4o", false, TokenEncoding.O200K_BASE),
+    GPT_4_TURBO("gpt-4-turbo", false, TokenEncoding.CL100K_BASE),
+    GPT_4("gpt-4", false, TokenEncoding.CL100K_BASE),
+    GPT_3_5_TURBO("gpt-3.5-turbo", false, TokenEncoding.CL100K_BASE),
+    GPT_4O_MINI_2024_07_18("gpt-4o-mini-2024-07-18", true, TokenEncoding.O200K_BASE),
+    GPT_4O_2024_08_06("gpt-4o-2024-08-06", true, TokenEncoding.O200K_BASE),
+    GPT_4O_2024_05_13("gpt-4o-2024-05-13", false, TokenEncoding.O200K_BASE),
+    GPT_4_TURBO_PREVIEW("gpt-4-turbo-preview", false, TokenEncoding.CL100K_BASE),
+    GPT_4_TURBO_2024_04_09("gpt-4-turbo-2024-04-09", false, TokenEncoding.CL100K_BASE),
+    GPT_4_1106_PREVIEW("gpt-4-1106-preview", false, TokenEncoding.CL100K_BASE),
+    GPT_4_0613("gpt-4-0613", false, TokenEncoding.CL100K_BASE),
+    GPT_4_0125_PREVIEW("gpt-4-0125-preview", false, TokenEncoding.CL100K_BASE),
+    GPT_3_5_TURBO_16K("gpt-3.5-turbo-16k", false, TokenEncoding.CL100K_BASE),
+    GPT_3_5_TURBO_1106("gpt-3.5-turbo-1106", false, TokenEncoding.CL100K_BASE),
+    GPT_3_5_TURBO_0125("gpt-3.5-turbo-0125", false, TokenEncoding.CL100K_BASE);
 
     private final String modelId;
     private final boolean supportJsonSchema;
+    private final TokenEncoding encoding;
 
-    OpenAIModel(final String modelId, final boolean supportJsonSchema) {
+    OpenAIModel(final String modelId, final boolean supportJsonSchema, final TokenEncoding encoding) {
         this.modelId = modelId;
         this.supportJsonSchema = supportJsonSchema;
+        this.encoding = encoding;
     }
 
     public String getModelId() {
@@ -34,4 +38,11 @@ public enum OpenAIModel {
         return supportJsonSchema;
     }
 
+    /**
+     * @return The encoding of the model, for local token counts with {@link koncept.tokenizer.Tokenizer}.
+     */
+    public TokenEncoding getEncoding() {
+        return encoding;
+    }
+
 }
@@ -0,0 +1,9 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RunError(
+    String code,
+    String message) {
+}
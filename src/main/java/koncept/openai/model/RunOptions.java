@@ -0,0 +1,64 @@
+package koncept.openai.model;
+
+/**
+ * Per-run limits and sampling settings, sent with a {@link RunRequest}. Null fields are not sent, so the settings of
+ * the assistant apply. Used as client-wide defaults by {@link koncept.KonceptAIClient} and overridable per call.
+ *
+ * @param truncationStrategy  How much of the thread is sent to the model.
+ * @param maxPromptTokens     The maximum number of prompt tokens the run may use over all its steps.
+ * @param maxCompletionTokens The maximum number of completion tokens the run may use over all its steps.
+ * @param temperature         The sampling temperature, between 0 and 2.
+ * @param parallelToolCalls   Whether the model may request several tool calls at once.
+ */
+public record RunOptions(
+    TruncationStrategy truncationStrategy,
+    Integer maxPromptTokens,
+    Integer maxCompletionTokens,
+    Double temperature,
+    Boolean parallelToolCalls) {
+
+    private static final RunOptions DEFAULTS = new RunOptions(null, null, null, null, null);
+
+    /**
+     * @return Options leaving everything to the assistant.
+     */
+    public static RunOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public RunOptions withTruncationStrategy(final TruncationStrategy truncationStrategy) {
+        return new RunOptions(truncationStrategy, maxPromptTokens, maxCompletionTokens, temperature, parallelToolCalls);
+    }
+
+    public RunOptions withMaxPromptTokens(final int maxPromptTokens) {
+        return new RunOptions(truncationStrategy, maxPromptTokens, maxCompletionTokens, temperature, parallelToolCalls);
+    }
+
+    public RunOptions withMaxCompletionTokens(final int maxCompletionTokens) {
+        return new RunOptions(truncationStrategy, maxPromptTokens, maxCompletionTokens, temperature, parallelToolCalls);
+    }
+
+    public RunOptions withTemperature(final double temperature) {
+        return new RunOptions(truncationStrategy, maxPromptTokens, maxCompletionTokens, temperature, parallelToolCalls);
+    }
+
+    public RunOptions withParallelToolCalls(final boolean parallelToolCalls) {
+        return new RunOptions(truncationStrategy, maxPromptTokens, maxCompletionTokens, temperature, parallelToolCalls);
+    }
+
+    /**
+     * @param overrides Options taking precedence where they are set.
+     * @return These options with the set fields of {@code overrides} applied.
+     */
+    public RunOptions overriddenBy(final RunOptions overrides) {
+        if (overrides == null) {
+            return this;
+        }
+        return new RunOptions(
+            overrides.truncationStrategy != null ? overrides.truncationStrategy : truncationStrategy,
+            overrides.maxPromptTokens != null ? overrides.maxPromptTokens : maxPromptTokens,
+            overrides.maxCompletionTokens != null ? overrides.maxCompletionTokens : maxCompletionTokens,
+            overrides.temperature != null ? overrides.temperature : temperature,
+            overrides.parallelToolCalls != null ? overrides.parallelToolCalls : parallelToolCalls);
+    }
+}
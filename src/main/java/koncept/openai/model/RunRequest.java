@@ -1,10 +1,36 @@
 package koncept.openai.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record RunRequest(
     @JsonProperty("assistant_id")
-    String assistantId) {
+    String assistantId,
+    Boolean stream,
+    @JsonProperty("truncation_strategy")
+    TruncationStrategy truncationStrategy,
+    @JsonProperty("max_prompt_tokens")
+    Integer maxPromptTokens,
+    @JsonProperty("max_completion_tokens")
+    Integer maxCompletionTokens,
+    Double temperature,
+    @JsonProperty("parallel_tool_calls")
+    Boolean parallelToolCalls) {
+
+    public RunRequest(final String assistantId) {
+        this(assistantId, null, null, null, null, null, null);
+    }
+
+    public RunRequest(final String assistantId, final RunOptions options) {
+        this(assistantId, null, options.truncationStrategy(), options.maxPromptTokens(), options.maxCompletionTokens(),
+            options.temperature(), options.parallelToolCalls());
+    }
+
+    public RunRequest withStream(final boolean stream) {
+        return new RunRequest(assistantId, stream, truncationStrategy, maxPromptTokens, maxCompletionTokens, temperature,
+            parallelToolCalls);
+    }
 }
@@ -31,11 +31,12 @@ public record RunResponse(
     @JsonProperty("required_action")
     RequiredAction requiredAction,
     @JsonProperty("last_error")
-    String lastError,
+    RunError lastError,
     String model,
     String instructions,
     List<Object> tools,
     @JsonProperty("file_ids")
     List<String> fileIds,
-    Map<String, Object> metadata) {
+    Map<String, Object> metadata,
+    Usage usage) {
 }
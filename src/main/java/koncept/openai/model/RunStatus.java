@@ -0,0 +1,23 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import koncept.openai.model.deserializer.RunStatusDeserializer;
+
+/**
+ * The subset of a run needed while polling for completion: its status, error and required action, plus the scalar
+ * lifecycle fields and token usage needed to build a run timeline. Decoded by {@link RunStatusDeserializer}, which
+ * skips every other field of the run object without binding it; use {@link RunResponse} for the whole record.
+ */
+@JsonDeserialize(using = RunStatusDeserializer.class)
+public record RunStatus(
+    String id,
+    String status,
+    RunError lastError,
+    RequiredAction requiredAction,
+    String assistantId,
+    String model,
+    Long createdAt,
+    Long startedAt,
+    Long completedAt,
+    Usage usage) {
+}
@@ -0,0 +1,35 @@
+package koncept.openai.model;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RunStep(
+    String id,
+    String object,
+    @JsonProperty("created_at")
+    long createdAt,
+    @JsonProperty("assistant_id")
+    String assistantId,
+    @JsonProperty("thread_id")
+    String threadId,
+    @JsonProperty("run_id")
+    String runId,
+    String type,
+    String status,
+    @JsonProperty("step_details")
+    Map<String, Object> stepDetails,
+    @JsonProperty("last_error")
+    RunError lastError,
+    @JsonProperty("expired_at")
+    Long expiredAt,
+    @JsonProperty("cancelled_at")
+    Long cancelledAt,
+    @JsonProperty("failed_at")
+    Long failedAt,
+    @JsonProperty("completed_at")
+    Long completedAt,
+    Usage usage) {
+}
@@ -0,0 +1,18 @@
+package koncept.openai.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RunStepsListResponse(
+    String object,
+    List<RunStep> data,
+    @JsonProperty("first_id")
+    String firstId,
+    @JsonProperty("last_id")
+    String lastId,
+    @JsonProperty("has_more")
+    boolean hasMore) {
+}
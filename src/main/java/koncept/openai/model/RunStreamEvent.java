@@ -0,0 +1,12 @@
+package koncept.openai.model;
+
+/**
+ * A server-sent event of a streamed run, e.g. {@code thread.message.delta} or {@code thread.run.completed}.
+ *
+ * @param event The event name.
+ * @param data  The raw JSON payload of the event.
+ */
+public record RunStreamEvent(
+    String event,
+    String data) {
+}
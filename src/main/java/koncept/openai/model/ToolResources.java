@@ -0,0 +1,27 @@
+package koncept.openai.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The resources the tools of an assistant work on.
+ *
+ * @param fileSearch The vector stores searched by the {@code file_search} tool.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ToolResources(
+    @JsonProperty("file_search")
+    FileSearch fileSearch) {
+
+    public static ToolResources fileSearch(final List<String> vectorStoreIds) {
+        return new ToolResources(new FileSearch(vectorStoreIds));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record FileSearch(
+        @JsonProperty("vector_store_ids")
+        List<String> vectorStoreIds) {
+    }
+}
@@ -0,0 +1,28 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Controls how much of the thread is sent to the model for a run.
+ *
+ * @param type         {@code auto} to let the server drop messages in the middle of the thread to fit the context
+ *                     window, or {@code last_messages} to send only the most recent messages.
+ * @param lastMessages The number of most recent messages sent with {@code last_messages}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TruncationStrategy(
+    String type,
+    @JsonProperty("last_messages")
+    Integer lastMessages) {
+
+    public static TruncationStrategy auto() {
+        return new TruncationStrategy("auto", null);
+    }
+
+    public static TruncationStrategy lastMessages(final int lastMessages) {
+        return new TruncationStrategy("last_messages", lastMessages);
+    }
+}
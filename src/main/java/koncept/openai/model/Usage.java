@@ -0,0 +1,14 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Usage(
+    @JsonProperty("prompt_tokens")
+    long promptTokens,
+    @JsonProperty("completion_tokens")
+    long completionTokens,
+    @JsonProperty("total_tokens")
+    long totalTokens) {
+}
@@ -0,0 +1,19 @@
+package koncept.openai.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * @param name    The name of the vector store.
+ * @param fileIds The uploaded files to ingest into the store; may be null for an empty store.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record VectorStoreRequest(
+    String name,
+    @JsonProperty("file_ids")
+    List<String> fileIds) {
+}
@@ -0,0 +1,31 @@
+package koncept.openai.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A vector store; its status is {@code in_progress} while files are being ingested.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record VectorStoreResponse(
+    String id,
+    String object,
+    String name,
+    String status,
+    @JsonProperty("created_at")
+    long createdAt,
+    @JsonProperty("usage_bytes")
+    long usageBytes,
+    @JsonProperty("file_counts")
+    FileCounts fileCounts) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record FileCounts(
+        @JsonProperty("in_progress")
+        int inProgress,
+        int completed,
+        int failed,
+        int cancelled,
+        int total) {
+    }
+}
@@ -0,0 +1,160 @@
+package koncept.openai.model.deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import koncept.openai.model.EmbeddingStorage;
+import koncept.openai.model.Embeddings;
+import koncept.openai.model.Usage;
+
+/**
+ * Streaming decoder for embeddings responses. Vectors encoded as {@code base64} (little-endian float32) or as arrays
+ * of numbers are decoded token by token into one primitive float buffer, without materializing a list of boxed
+ * numbers per vector.
+ */
+public class EmbeddingsDeserializer extends JsonDeserializer<Embeddings> {
+
+    @Override
+    public Embeddings deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return (Embeddings) ctxt.handleUnexpectedToken(Embeddings.class, p);
+        }
+        Object storageAttribute = ctxt.getAttribute(Embeddings.STORAGE_ATTRIBUTE);
+        EmbeddingStorage storage = storageAttribute instanceof EmbeddingStorage requested ? requested : EmbeddingStorage.HEAP;
+        Object countAttribute = ctxt.getAttribute(Embeddings.COUNT_ATTRIBUTE);
+        int expectedCount = countAttribute instanceof Integer requested ? requested : 16;
+
+        Vectors vectors = new Vectors(storage, expectedCount);
+        String model = null;
+        Usage usage = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = p.currentName();
+            JsonToken valueToken = p.nextToken();
+            switch (fieldName) {
+                case "data" -> readData(p, ctxt, vectors);
+                case "model" -> model = p.getValueAsString();
+                case "usage" -> usage = valueToken == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Usage.class);
+                default -> p.skipChildren();
+            }
+        }
+        return vectors.toEmbeddings(model, usage);
+    }
+
+    private static void readData(final JsonParser p, final DeserializationContext ctxt, final Vectors vectors) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            ctxt.handleUnexpectedToken(Embeddings.class, p);
+            return;
+        }
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int index = -1;
+            int length = -1;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = p.currentName();
+                JsonToken valueToken = p.nextToken();
+                if (fieldName.equals("index")) {
+                    index = p.getIntValue();
+                } else if (fieldName.equals("embedding") && valueToken == JsonToken.VALUE_STRING) {
+                    length = vectors.readBase64(p.getBinaryValue());
+                } else if (fieldName.equals("embedding") && valueToken == JsonToken.START_ARRAY) {
+                    length = vectors.readNumbers(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (index < 0 || length < 0) {
+                ctxt.reportInputMismatch(Embeddings.class, "Embedding without index or vector");
+            }
+            vectors.store(index, length);
+        }
+    }
+
+    /**
+     * Decodes each vector into a scratch array and copies it to its position in the storage, which is allocated once
+     * the dimensions are known and grown if there are more vectors than expected. Every index from 0 to the highest
+     * must be stored exactly once, so no vector is left zero-filled.
+     */
+    private static final class Vectors {
+
+        private final EmbeddingStorage storage;
+        private int capacity;
+        private float[] scratch = new float[1024];
+        private FloatBuffer buffer;
+        private int dimensions = -1;
+        private int count;
+        private final BitSet stored = new BitSet();
+
+        Vectors(final EmbeddingStorage storage, final int expectedCount) {
+            this.storage = storage;
+            this.capacity = Math.max(1, expectedCount);
+        }
+
+        int readBase64(final byte[] bytes) {
+            FloatBuffer floats = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            int length = floats.remaining();
+            ensureScratch(length);
+            floats.get(scratch, 0, length);
+            return length;
+        }
+
+        int readNumbers(final JsonParser p) throws IOException {
+            int length = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                ensureScratch(length + 1);
+                scratch[length++] = p.getFloatValue();
+            }
+            return length;
+        }
+
+        void store(final int index, final int length) throws IOException {
+            if (buffer == null) {
+                dimensions = length;
+                buffer = allocate(capacity * dimensions);
+            } else if (length != dimensions) {
+                throw new IOException("Embedding " + index + " has " + length + " dimensions instead of " + dimensions);
+            }
+            if (stored.get(index)) {
+                throw new IOException("Embedding " + index + " appears more than once");
+            }
+            stored.set(index);
+            if (index >= capacity) {
+                capacity = Math.max(index + 1, capacity * 2);
+                FloatBuffer grown = allocate(capacity * dimensions);
+                grown.put(0, buffer, 0, buffer.capacity());
+                buffer = grown;
+            }
+            buffer.put(index * dimensions, scratch, 0, length);
+            count = Math.max(count, index + 1);
+        }
+
+        Embeddings toEmbeddings(final String model, final Usage usage) throws IOException {
+            if (buffer == null) {
+                return new Embeddings(allocate(0), 0, 0, model, usage);
+            }
+            int missing = stored.nextClearBit(0);
+            if (missing < count) {
+                throw new IOException("Embedding " + missing + " is missing from " + count + " embeddings");
+            }
+            return new Embeddings(buffer.slice(0, count * dimensions), count, dimensions, model, usage);
+        }
+
+        private void ensureScratch(final int length) {
+            if (length > scratch.length) {
+                scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+            }
+        }
+
+        private FloatBuffer allocate(final int floats) {
+            return storage == EmbeddingStorage.DIRECT
+                ? ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer()
+                : FloatBuffer.allocate(floats);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package koncept.openai.model.deserializer;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import koncept.openai.model.RequiredAction;
+import koncept.openai.model.RunError;
+import koncept.openai.model.RunStatus;
+import koncept.openai.model.Usage;
+
+/**
+ * Streaming decoder for the run polling path. Reads {@code id}, {@code status}, {@code last_error},
+ * {@code required_action}, the lifecycle timestamps, {@code assistant_id}, {@code model} and {@code usage}, and skips
+ * every other field, including nested objects and arrays, without materializing them.
+ */
+public class RunStatusDeserializer extends JsonDeserializer<RunStatus> {
+
+    @Override
+    public RunStatus deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return (RunStatus) ctxt.handleUnexpectedToken(RunStatus.class, p);
+        }
+        String id = null;
+        String status = null;
+        RunError lastError = null;
+        RequiredAction requiredAction = null;
+        String assistantId = null;
+        String model = null;
+        Long createdAt = null;
+        Long startedAt = null;
+        Long completedAt = null;
+        Usage usage = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = p.currentName();
+            JsonToken valueToken = p.nextToken();
+            boolean isNull = valueToken == JsonToken.VALUE_NULL;
+            switch (fieldName) {
+                case "id" -> id = p.getValueAsString();
+                case "status" -> status = p.getValueAsString();
+                case "last_error" -> lastError = isNull ? null : ctxt.readValue(p, RunError.class);
+                case "required_action" -> requiredAction = isNull ? null : ctxt.readValue(p, RequiredAction.class);
+                case "assistant_id" -> assistantId = p.getValueAsString();
+                case "model" -> model = p.getValueAsString();
+                case "created_at" -> createdAt = isNull ? null : p.getLongValue();
+                case "started_at" -> startedAt = isNull ? null : p.getLongValue();
+                case "completed_at" -> completedAt = isNull ? null : p.getLongValue();
+                case "usage" -> usage = isNull ? null : ctxt.readValue(p, Usage.class);
+                default -> p.skipChildren();
+            }
+        }
+        return new RunStatus(id, status, lastError, requiredAction, assistantId, model, createdAt, startedAt, completedAt, usage);
+    }
+}
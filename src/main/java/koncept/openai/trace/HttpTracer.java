@@ -0,0 +1,280 @@
+package koncept.openai.trace;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import koncept.openai.transport.TransportRequest;
+import koncept.openai.transport.TransportResponse;
+
+/**
+ * Traces raw HTTP exchanges of {@link koncept.openai.OpenAIAPIClient} without slowing them down.
+ * <p>
+ * The calling thread only asks the {@link TraceSampler} and enqueues references to the request and response; a
+ * background appender formats, redacts and truncates the records and hands them to the sink. The queue is bounded: when
+ * the appender cannot keep up, records are dropped rather than blocking requests, and the number of dropped records is
+ * reported in the trace output and by {@link #dropped()}.
+ */
+public class HttpTracer implements AutoCloseable {
+
+    /**
+     * Returned by {@link #traceRequest(TransportRequest)} when the exchange is not sampled.
+     */
+    public static final long NOT_SAMPLED = -1;
+
+    private static final Logger LOGGER = Logger.getLogger(HttpTracer.class.getName());
+    private static final HttpTracer DISABLED = new HttpTracer();
+    // bytes decoded beyond the limit, so secrets cut by the truncation are still recognized and redacted
+    private static final int REDACTION_MARGIN = 128;
+
+    private final TraceSampler sampler;
+    private final TraceRedactor redactor;
+    private final int maxBodyLength;
+    private final Consumer<String> sink;
+    private final BlockingQueue<TraceRecord> queue;
+    private final Thread appender;
+    private final AtomicLong exchangeIds = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private long reportedDropped;
+    private volatile boolean closed;
+
+    private HttpTracer() {
+        this.sampler = TraceSampler.never();
+        this.redactor = null;
+        this.maxBodyLength = 0;
+        this.sink = null;
+        this.queue = null;
+        this.appender = null;
+    }
+
+    private HttpTracer(final Builder builder) {
+        this.sampler = builder.sampler;
+        this.redactor = builder.redactor;
+        this.maxBodyLength = builder.maxBodyLength;
+        this.sink = builder.sink;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.appender = new Thread(this::append, "koncept-http-tracer");
+        this.appender.setDaemon(true);
+        this.appender.start();
+    }
+
+    /**
+     * @return A tracer that traces nothing and starts no thread.
+     */
+    public static HttpTracer disabled() {
+        return DISABLED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Decides whether the exchange is traced and, if so, enqueues the request.
+     *
+     * @param request The request about to be sent.
+     * @return The ID to pass to the other trace methods of the exchange, or {@link #NOT_SAMPLED}.
+     */
+    public long traceRequest(final TransportRequest request) {
+        if (this == DISABLED || closed || !sampler.sample(request)) {
+            return NOT_SAMPLED;
+        }
+        long exchangeId = exchangeIds.incrementAndGet();
+        enqueue(new TraceRecord(TraceRecord.Kind.REQUEST, exchangeId, request.method().name(), request.uri(), -1,
+            request.headers(), null, request.streamedBody() != null ? null : request.body(), null));
+        return exchangeId;
+    }
+
+    /**
+     * @param exchangeId The ID returned for the request.
+     * @param request    The request.
+     * @param response   The response.
+     * @param body       The response body, or null if it is consumed as a stream.
+     */
+    public void traceResponse(final long exchangeId, final TransportRequest request, final TransportResponse response, final byte[] body) {
+        if (exchangeId != NOT_SAMPLED) {
+            enqueue(new TraceRecord(TraceRecord.Kind.RESPONSE, exchangeId, request.method().name(), request.uri(),
+                response.statusCode(), response.headers(), null, body, null));
+        }
+    }
+
+    public void traceStreamEvent(final long exchangeId, final TransportRequest request, final String event, final String data) {
+        if (exchangeId != NOT_SAMPLED) {
+            enqueue(new TraceRecord(TraceRecord.Kind.STREAM_EVENT, exchangeId, request.method().name(), request.uri(),
+                -1, null, event, null, data));
+        }
+    }
+
+    /**
+     * @return The number of records dropped because the queue was full.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops accepting records and waits briefly for the queued ones to be written.
+     */
+    @Override
+    public void close() {
+        if (this == DISABLED || closed) {
+            return;
+        }
+        closed = true;
+        try {
+            appender.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(final TraceRecord record) {
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private void append() {
+        while (!closed || !queue.isEmpty()) {
+            try {
+                TraceRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    reportDropped();
+                    sink.accept(format(record));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warning(() -> "Failed to write HTTP trace: " + e);
+            }
+        }
+        reportDropped();
+    }
+
+    private void reportDropped() {
+        long droppedNow = dropped.sum();
+        if (droppedNow > reportedDropped) {
+            long droppedSinceLastReport = droppedNow - reportedDropped;
+            reportedDropped = droppedNow;
+            sink.accept("HTTP trace: " + droppedSinceLastReport + " records dropped, trace queue full");
+        }
+    }
+
+    String format(final TraceRecord record) {
+        StringBuilder text = new StringBuilder(256);
+        switch (record.kind()) {
+            case REQUEST -> text.append("HTTP Request #").append(record.exchangeId()).append(":\n")
+                .append(record.method()).append(' ').append(record.uri()).append('\n');
+            case RESPONSE -> text.append("HTTP Response #").append(record.exchangeId()).append(":\n")
+                .append("Status Code: ").append(record.statusCode()).append('\n');
+            case STREAM_EVENT -> text.append("Stream event #").append(record.exchangeId()).append(": ")
+                .append(record.event()).append('\n')
+                .append("Data: ").append(truncate(record.data()));
+        }
+        if (record.headers() != null) {
+            text.append("Headers: ").append(redactor.redactHeaders(record.headers())).append('\n');
+        }
+        if (record.kind() != TraceRecord.Kind.STREAM_EVENT) {
+            text.append("Body: ").append(formatBody(record.body()));
+        }
+        return text.toString();
+    }
+
+    private String formatBody(final byte[] body) {
+        if (body == null) {
+            return "streamed";
+        }
+        if (body.length == 0) {
+            return "No body";
+        }
+        int decoded = Math.min(body.length, maxBodyLength + REDACTION_MARGIN);
+        String text = new String(body, 0, decoded, StandardCharsets.UTF_8);
+        return limit(text, decoded < body.length, body.length + " bytes");
+    }
+
+    private String truncate(final String data) {
+        boolean cut = data.length() > maxBodyLength + REDACTION_MARGIN;
+        return limit(cut ? data.substring(0, maxBodyLength + REDACTION_MARGIN) : data, cut, data.length() + " characters");
+    }
+
+    private String limit(final String text, final boolean cut, final String originalSize) {
+        String redacted = redactor.redact(text);
+        if (!cut && redacted.length() <= maxBodyLength) {
+            return redacted;
+        }
+        return redacted.substring(0, Math.min(redacted.length(), maxBodyLength)) + "... (truncated, " + originalSize + ")";
+    }
+
+    /**
+     * Builder for {@link HttpTracer} instances.
+     */
+    public static final class Builder {
+
+        private TraceSampler sampler = TraceSampler.always();
+        private TraceRedactor redactor = new TraceRedactor();
+        private int maxBodyLength = 4096;
+        private int queueCapacity = 1024;
+        private Consumer<String> sink = LOGGER::info;
+
+        private Builder() {
+        }
+
+        /**
+         * @param sampler Decides which exchanges are traced; defaults to {@link TraceSampler#always()}.
+         * @return This builder.
+         */
+        public Builder sampler(final TraceSampler sampler) {
+            this.sampler = sampler;
+            return this;
+        }
+
+        /**
+         * @param redactor Removes credentials from headers and bodies; defaults to a {@link TraceRedactor} covering
+         *                 authorization headers and OpenAI keys.
+         * @return This builder.
+         */
+        public Builder redactor(final TraceRedactor redactor) {
+            this.redactor = redactor;
+            return this;
+        }
+
+        /**
+         * @param maxBodyLength The number of characters of a body or stream event written before it is truncated;
+         *                      defaults to 4096.
+         * @return This builder.
+         */
+        public Builder maxBodyLength(final int maxBodyLength) {
+            this.maxBodyLength = maxBodyLength;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity The number of records buffered for the appender before records are dropped; defaults
+         *                      to 1024.
+         * @return This builder.
+         */
+        public Builder queueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param sink Receives the formatted records on the appender thread; defaults to logging them at INFO level.
+         * @return This builder.
+         */
+        public Builder sink(final Consumer<String> sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        public HttpTracer build() {
+            return new HttpTracer(this);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package koncept.openai.trace;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * One traced element of an exchange, as captured on the calling thread. Captures only references; formatting,
+ * redaction and truncation happen on the appender thread.
+ *
+ * @param kind       What was traced.
+ * @param exchangeId Identifies the exchange, to correlate a response and stream events with their request.
+ * @param method     The HTTP method of the request.
+ * @param uri        The request URI.
+ * @param statusCode The response status, or -1 for requests.
+ * @param headers    The headers of the request or response; null for stream events.
+ * @param event      The event name of a stream event; null otherwise.
+ * @param body       The body of the request or response; null if it was not read, e.g. for a streamed response.
+ * @param data       The data of a stream event; null otherwise.
+ */
+record TraceRecord(
+    Kind kind,
+    long exchangeId,
+    String method,
+    URI uri,
+    int statusCode,
+    Map<String, ?> headers,
+    String event,
+    byte[] body,
+    String data) {
+
+    enum Kind {
+        REQUEST,
+        RESPONSE,
+        STREAM_EVENT
+    }
+}
@@ -0,0 +1,64 @@
+package koncept.openai.trace;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Removes credentials from traced headers and bodies before they are written.
+ */
+public class TraceRedactor {
+
+    static final String REDACTED = "[REDACTED]";
+
+    private static final Set<String> DEFAULT_SENSITIVE_HEADERS = Set.of(
+        "authorization", "proxy-authorization", "api-key", "openai-organization", "cookie", "set-cookie");
+
+    // OpenAI secret keys, including project and service account keys, and bearer tokens in free text
+    private static final Pattern DEFAULT_SECRET_PATTERN = Pattern.compile(
+        "sk-[A-Za-z0-9_-]{8,}|(?i:bearer)\\s+[A-Za-z0-9._~+/=-]{8,}");
+
+    private final Set<String> sensitiveHeaders;
+    private final Pattern secretPattern;
+
+    public TraceRedactor() {
+        this(DEFAULT_SENSITIVE_HEADERS, DEFAULT_SECRET_PATTERN);
+    }
+
+    /**
+     * @param sensitiveHeaders The headers whose values are replaced entirely, compared case-insensitively.
+     * @param secretPattern    The pattern of secrets that are replaced wherever they appear in header values and bodies.
+     */
+    public TraceRedactor(final Set<String> sensitiveHeaders, final Pattern secretPattern) {
+        Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        headers.addAll(sensitiveHeaders);
+        this.sensitiveHeaders = headers;
+        this.secretPattern = secretPattern;
+    }
+
+    /**
+     * @param headers Request headers with single values, or response headers with lists of values.
+     * @return The headers with the values of sensitive headers replaced and secrets removed from all other values.
+     */
+    public Map<String, String> redactHeaders(final Map<String, ?> headers) {
+        Map<String, String> redacted = new LinkedHashMap<>();
+        headers.forEach((name, value) -> {
+            if (name == null) {
+                return;
+            }
+            String text = value instanceof List<?> values
+                ? values.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                : String.valueOf(value);
+            redacted.put(name, sensitiveHeaders.contains(name) ? REDACTED : redact(text));
+        });
+        return redacted;
+    }
+
+    public String redact(final String text) {
+        return secretPattern.matcher(text).replaceAll(REDACTED);
+    }
+}
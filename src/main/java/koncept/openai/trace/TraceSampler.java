@@ -0,0 +1,68 @@
+package koncept.openai.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import koncept.openai.transport.TransportRequest;
+
+/**
+ * Decides whether an exchange is traced. The decision is made once per request and applies to its response and stream
+ * events as well.
+ */
+@FunctionalInterface
+public interface TraceSampler {
+
+    boolean sample(TransportRequest request);
+
+    static TraceSampler always() {
+        return request -> true;
+    }
+
+    static TraceSampler never() {
+        return request -> false;
+    }
+
+    /**
+     * Samples each exchange independently.
+     *
+     * @param rate The fraction of exchanges to trace, between 0.0 and 1.0.
+     * @return A sampler tracing the given fraction of exchanges.
+     */
+    static TraceSampler rate(final double rate) {
+        return request -> ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Samples whole runs rather than single exchanges, so a traced run shows up with the message it answers, its
+     * creation, all of its polls and tool output submissions. The decision is a hash of the thread ID, which every one of
+     * these requests carries while the run ID is only known once the run was created, and is therefore consistent across
+     * requests and client instances; all runs of a thread are sampled together. Requests outside of a thread are
+     * sampled at random with the same rate.
+     *
+     * @param rate The fraction of threads to trace, between 0.0 and 1.0.
+     * @return A sampler tracing the runs of the given fraction of threads.
+     */
+    static TraceSampler perRun(final double rate) {
+        Pattern threadPath = Pattern.compile("/threads/([^/]+)");
+        long threshold = (long) (rate * (1L << 32));
+        return request -> {
+            Matcher matcher = threadPath.matcher(request.uri().getPath());
+            if (!matcher.find()) {
+                return ThreadLocalRandom.current().nextDouble() < rate;
+            }
+            return (mix(matcher.group(1).hashCode()) & 0xFFFFFFFFL) < threshold;
+        };
+    }
+
+    // spreads sequential-looking IDs across the whole int range (murmur3 finalizer)
+    private static int mix(final int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,39 @@
+package koncept.openai.transport;
+
+/**
+ * How {@link CompressionTransport} compresses request bodies. Responses are always requested gzip encoded and
+ * decompressed while they are read.
+ *
+ * @param compressRequests Whether request bodies are gzip compressed; the server must accept
+ *                         {@code Content-Encoding: gzip}.
+ * @param minRequestBytes  The body size from which a request is compressed; smaller bodies, such as run status checks
+ *                         and short messages, do not gain enough to pay for the CPU time.
+ */
+public record CompressionPolicy(
+    boolean compressRequests,
+    int minRequestBytes) {
+
+    private static final CompressionPolicy DEFAULTS = new CompressionPolicy(true, 8 * 1024);
+
+    /**
+     * @return Compressing request bodies of 8 KiB and more, and decompressing responses.
+     */
+    public static CompressionPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return Decompressing responses only, for servers that do not accept compressed request bodies.
+     */
+    public static CompressionPolicy responsesOnly() {
+        return DEFAULTS.withCompressRequests(false);
+    }
+
+    public CompressionPolicy withCompressRequests(final boolean compressRequests) {
+        return new CompressionPolicy(compressRequests, minRequestBytes);
+    }
+
+    public CompressionPolicy withMinRequestBytes(final int minRequestBytes) {
+        return new CompressionPolicy(compressRequests, minRequestBytes);
+    }
+}
@@ -0,0 +1,203 @@
+package koncept.openai.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import koncept.metrics.ClientMetrics;
+import koncept.metrics.EndpointNames;
+
+/**
+ * Transport decorator for gzip content encoding: every request advertises {@code Accept-Encoding: gzip} and a gzip
+ * encoded response body is decompressed while the consumer reads it, so a large message list is never held compressed
+ * and decompressed at the same time. Request bodies from the policy's size threshold on are sent gzip compressed,
+ * unless compression does not make them smaller. Streamed bodies, e.g. file uploads, are left alone.
+ * <p>
+ * The sizes before and after compression are reported to
+ * {@link ClientMetrics#bodyCompressed(String, String, long, long)}, for responses once their body was read to the
+ * end or closed.
+ */
+public class CompressionTransport implements HttpTransport {
+
+    private static final String GZIP = "gzip";
+
+    private final HttpTransport delegate;
+    private final CompressionPolicy policy;
+    private final ClientMetrics metrics;
+
+    public CompressionTransport(final HttpTransport delegate, final CompressionPolicy policy, final ClientMetrics metrics) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        String endpoint = EndpointNames.of(request.method().name(), request.uri());
+        return decode(endpoint, delegate.send(encode(endpoint, request)));
+    }
+
+    /**
+     * Keeps the non-blocking send of the delegate, so cancelling the returned future still aborts the exchange.
+     */
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(final TransportRequest request, final Executor executor) {
+        String endpoint = EndpointNames.of(request.method().name(), request.uri());
+        TransportRequest encoded;
+        try {
+            encoded = encode(endpoint, request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<TransportResponse> exchange = delegate.sendAsync(encoded, executor);
+        CompletableFuture<TransportResponse> response = exchange.thenApply(raw -> decode(endpoint, raw));
+        response.whenComplete((ignored, e) -> {
+            if (response.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return response;
+    }
+
+    private TransportRequest encode(final String endpoint, final TransportRequest request) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>(request.headers());
+        headers.putIfAbsent("Accept-Encoding", GZIP);
+        byte[] body = request.body();
+        if (policy.compressRequests()
+            && request.streamedBody() == null
+            && body.length > 0
+            && body.length >= policy.minRequestBytes()
+            && !headers.containsKey("Content-Encoding")) {
+            byte[] compressed = gzip(body);
+            if (compressed.length < body.length) {
+                metrics.bodyCompressed(endpoint, "request", body.length, compressed.length);
+                headers.put("Content-Encoding", GZIP);
+                body = compressed;
+            }
+        }
+        return new TransportRequest(request.method(), request.uri(), headers, body, request.requestClass(), request.streamedBody());
+    }
+
+    private TransportResponse decode(final String endpoint, final TransportResponse response) {
+        if (!GZIP.equalsIgnoreCase(response.header("Content-Encoding"))) {
+            return response;
+        }
+        // the body handed on is the decoded one, so the encoding headers no longer describe it
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.headers());
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+        return new TransportResponse(response.statusCode(), headers, new GzipBody(endpoint, response.body()));
+    }
+
+    private static byte[] gzip(final byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Counts the bytes read from the wire underneath a gzip decoder, which is only created on the first read, since
+     * its constructor blocks for the gzip header and fails on an empty body.
+     */
+    private final class GzipBody extends InputStream {
+
+        private final String endpoint;
+        private final CountingInputStream compressed;
+        private final byte[] single = new byte[1];
+        private InputStream decoded;
+        private long decodedBytes;
+        private boolean reported;
+
+        GzipBody(final String endpoint, final InputStream compressed) {
+            this.endpoint = endpoint;
+            this.compressed = new CountingInputStream(compressed);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            if (decoded == null) {
+                decoded = new GZIPInputStream(compressed, 8192);
+            }
+            int read = decoded.read(buffer, offset, length);
+            if (read == -1) {
+                report();
+            } else {
+                decodedBytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return decoded == null ? 0 : decoded.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            if (decoded != null) {
+                decoded.close();
+            } else {
+                compressed.close();
+            }
+        }
+
+        private void report() {
+            if (!reported && decodedBytes > 0) {
+                metrics.bodyCompressed(endpoint, "response", decodedBytes, compressed.count);
+            }
+            reported = true;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
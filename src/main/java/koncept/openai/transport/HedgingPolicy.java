@@ -0,0 +1,53 @@
+package koncept.openai.transport;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * When {@link HedgingTransport} sends a duplicate of a slow GET request.
+ *
+ * @param percentile   The latency percentile after which a duplicate is sent, e.g. 95.
+ * @param minDelay     The least time to wait before a duplicate, so fast endpoints are not hedged on noise.
+ * @param maxHedgeRate The largest fraction of requests that may be duplicated, e.g. 0.05 for at most 5% extra load.
+ * @param minSamples   The number of observed responses needed before the percentile is trusted; no request is hedged
+ *                     before.
+ * @param executor     Runs blocking sends for transports without a non-blocking {@link HttpTransport#sendAsync}.
+ */
+public record HedgingPolicy(
+    double percentile,
+    Duration minDelay,
+    double maxHedgeRate,
+    int minSamples,
+    Executor executor) {
+
+    private static final HedgingPolicy DEFAULTS = new HedgingPolicy(95, Duration.ofMillis(50), 0.05, 100, ForkJoinPool.commonPool());
+
+    /**
+     * @return Hedging after the p95 latency, at least 50 ms, for at most 5% of the requests, once 100 responses were
+     * observed.
+     */
+    public static HedgingPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    public HedgingPolicy withPercentile(final double percentile) {
+        return new HedgingPolicy(percentile, minDelay, maxHedgeRate, minSamples, executor);
+    }
+
+    public HedgingPolicy withMinDelay(final Duration minDelay) {
+        return new HedgingPolicy(percentile, minDelay, maxHedgeRate, minSamples, executor);
+    }
+
+    public HedgingPolicy withMaxHedgeRate(final double maxHedgeRate) {
+        return new HedgingPolicy(percentile, minDelay, maxHedgeRate, minSamples, executor);
+    }
+
+    public HedgingPolicy withMinSamples(final int minSamples) {
+        return new HedgingPolicy(percentile, minDelay, maxHedgeRate, minSamples, executor);
+    }
+
+    public HedgingPolicy withExecutor(final Executor executor) {
+        return new HedgingPolicy(percentile, minDelay, maxHedgeRate, minSamples, executor);
+    }
+}
@@ -0,0 +1,215 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import koncept.metrics.EndpointNames;
+import koncept.metrics.LatencyHistogram;
+import koncept.openai.HttpMethod;
+
+/**
+ * Transport decorator hedging idempotent reads: a GET that has not been answered by the observed latency percentile
+ * of its endpoint is sent a second time, the first response wins and the other exchange is cancelled. Other methods
+ * are passed through, since repeating a POST could create a second message or run.
+ * <p>
+ * Latencies are tracked per endpoint over a sliding window of the last responses. Every request earns a fraction of a
+ * hedge, up to a small burst, and every hedge spends one, which keeps duplicates below the configured share of the
+ * traffic even while the backend is slow across the board.
+ */
+public class HedgingTransport implements HttpTransport {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final long HEDGE_CREDIT = 1_000_000;
+    private static final long MAX_CREDIT = 10 * HEDGE_CREDIT;
+
+    private final HttpTransport delegate;
+    private final HedgingPolicy policy;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong credit = new AtomicLong();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    public HedgingTransport(final HttpTransport delegate, final HedgingPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        if (request.method() != HttpMethod.GET) {
+            return delegate.send(request);
+        }
+        LatencyWindow window = latencies.computeIfAbsent(EndpointNames.of(request.method().name(), request.uri()), endpoint -> new LatencyWindow());
+        earnCredit();
+        long hedgeDelay = window.hedgeDelayNanos();
+        CompletableFuture<TransportResponse> primary = attempt(request, window);
+        if (hedgeDelay < 0) {
+            return await(primary);
+        }
+        try {
+            return primary.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // slower than the percentile: hedge below
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        if (!takeCredit()) {
+            return await(primary);
+        }
+        hedged.increment();
+        CompletableFuture<TransportResponse> hedge = attempt(request, window);
+        CompletableFuture<TransportResponse> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        race(primary, hedge, first, failures, false);
+        race(hedge, primary, first, failures, true);
+        first.whenComplete((response, e) -> {
+            if (first.isCancelled()) {
+                primary.cancel(true);
+                hedge.cancel(true);
+            }
+        });
+        return await(first);
+    }
+
+    /**
+     * @return The number of requests that were sent a second time.
+     */
+    public long hedged() {
+        return hedged.sum();
+    }
+
+    /**
+     * @return The number of hedged requests answered by the duplicate rather than the original request.
+     */
+    public long hedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    private CompletableFuture<TransportResponse> attempt(final TransportRequest request, final LatencyWindow window) {
+        long start = System.nanoTime();
+        CompletableFuture<TransportResponse> response = delegate.sendAsync(request, policy.executor());
+        response.whenComplete((ignored, e) -> {
+            if (e == null) {
+                window.record(System.nanoTime() - start);
+            }
+        });
+        return response;
+    }
+
+    private void race(final CompletableFuture<TransportResponse> attempt,
+                      final CompletableFuture<TransportResponse> other,
+                      final CompletableFuture<TransportResponse> first,
+                      final AtomicInteger failures,
+                      final boolean isHedge) {
+        attempt.whenComplete((response, e) -> {
+            if (e == null) {
+                if (first.complete(response)) {
+                    other.cancel(true);
+                    if (isHedge) {
+                        hedgesWon.increment();
+                    }
+                } else {
+                    closeQuietly(response);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void earnCredit() {
+        long earned = (long) (policy.maxHedgeRate() * HEDGE_CREDIT);
+        credit.updateAndGet(current -> Math.min(MAX_CREDIT, current + earned));
+    }
+
+    private boolean takeCredit() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < HEDGE_CREDIT) {
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - HEDGE_CREDIT));
+        return true;
+    }
+
+    private static TransportResponse await(final CompletableFuture<TransportResponse> response) throws IOException, InterruptedException {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static IOException unwrap(final ExecutionException e) throws InterruptedException {
+        Throwable cause = e.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof InterruptedException interruptedException) {
+            throw interruptedException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(cause);
+    }
+
+    private static void closeQuietly(final TransportResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            // the losing response is discarded anyway
+        }
+    }
+
+    /**
+     * The latencies of one endpoint: the current window, and the last full one while the current is still filling.
+     */
+    private final class LatencyWindow {
+
+        private final AtomicReference<LatencyHistogram> current = new AtomicReference<>(new LatencyHistogram());
+        private volatile LatencyHistogram previous;
+
+        void record(final long nanos) {
+            LatencyHistogram histogram = current.get();
+            histogram.record(nanos);
+            if (histogram.count() >= WINDOW_SIZE && current.compareAndSet(histogram, new LatencyHistogram())) {
+                previous = histogram;
+            }
+        }
+
+        /**
+         * @return The time after which a request is hedged, or -1 if too few responses were observed yet.
+         */
+        long hedgeDelayNanos() {
+            LatencyHistogram histogram = current.get();
+            if (histogram.count() < policy.minSamples()) {
+                histogram = previous;
+                if (histogram == null) {
+                    return -1;
+                }
+            }
+            return Math.max(policy.minDelay().toNanos(), histogram.percentile(policy.percentile()));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * The HTTP layer underneath {@link koncept.openai.OpenAIAPIClient}. Implementations execute one exchange at a time
+ * and must be safe for concurrent use.
+ *
+ * @see JdkHttpTransport
+ * @see RecordingTransport
+ * @see ReplayTransport
+ */
+@FunctionalInterface
+public interface HttpTransport {
+
+    /**
+     * Executes the request and returns the response. The caller is responsible for closing the response body.
+     *
+     * @param request The request to be sent.
+     * @return The response, whatever its status code.
+     * @throws IOException          if the exchange fails.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the response.
+     */
+    TransportResponse send(TransportRequest request) throws IOException, InterruptedException;
+
+    /**
+     * Executes the request without blocking the caller. Cancelling the returned future abandons the exchange; the
+     * default implementation runs {@link #send(TransportRequest)} on the executor, so the exchange itself still runs to
+     * completion, while {@link JdkHttpTransport} aborts it.
+     *
+     * @param request  The request to be sent.
+     * @param executor The executor blocking sends are run on, where the transport needs one.
+     * @return A future completed with the response, or exceptionally with the failure of the exchange.
+     */
+    default CompletableFuture<TransportResponse> sendAsync(final TransportRequest request, final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,36 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+
+import koncept.metrics.ClientMetrics;
+import koncept.metrics.EndpointNames;
+
+/**
+ * Transport decorator reporting in-flight requests, latency and status codes per endpoint to {@link ClientMetrics}.
+ * Latency is measured until the response headers arrive; reading the body is not included.
+ */
+public class InstrumentedTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final ClientMetrics metrics;
+
+    public InstrumentedTransport(final HttpTransport delegate, final ClientMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        String endpoint = EndpointNames.of(request.method().name(), request.uri());
+        metrics.requestStarted(endpoint);
+        long start = System.nanoTime();
+        int statusCode = -1;
+        try {
+            TransportResponse response = delegate.send(request);
+            statusCode = response.statusCode();
+            return response;
+        } finally {
+            metrics.requestCompleted(endpoint, statusCode, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The default transport, backed by {@link java.net.http.HttpClient}.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private final HttpClient httpClient;
+
+    public JdkHttpTransport() {
+        this(HttpClient.newHttpClient());
+    }
+
+    public JdkHttpTransport(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+        return new TransportResponse(response.statusCode(), response.headers().map(), response.body());
+    }
+
+    /**
+     * Sends on the selector threads of the {@link HttpClient}; the executor is not used. Cancelling the returned
+     * future aborts the exchange.
+     */
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(final TransportRequest request, final Executor executor) {
+        CompletableFuture<HttpResponse<InputStream>> exchange = httpClient.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<TransportResponse> response = exchange
+            .thenApply(httpResponse -> new TransportResponse(httpResponse.statusCode(), httpResponse.headers().map(), httpResponse.body()));
+        // cancelling a dependent future does not reach the exchange by itself
+        response.whenComplete((ignored, e) -> {
+            if (response.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return response;
+    }
+
+    private HttpRequest toHttpRequest(final TransportRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(request.uri())
+            .method(request.method().name(), request.streamedBody() != null ? publisher(request.streamedBody())
+                : HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        request.headers().forEach(builder::header);
+        return builder.build();
+    }
+
+    private static HttpRequest.BodyPublisher publisher(final StreamedBody streamedBody) {
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return streamedBody.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        long contentLength = streamedBody.contentLength();
+        return contentLength > 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength) : publisher;
+    }
+}
@@ -0,0 +1,40 @@
+package koncept.openai.transport;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long {@link ReplayTransport} waits before serving a replayed response.
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    /**
+     * @param request  The request being served.
+     * @param recorded The exchange that will be replayed.
+     * @return The delay before the response is returned.
+     */
+    Duration latencyFor(TransportRequest request, RecordedExchange recorded);
+
+    static LatencyModel none() {
+        return (request, recorded) -> Duration.ZERO;
+    }
+
+    static LatencyModel fixed(final Duration latency) {
+        return (request, recorded) -> latency;
+    }
+
+    static LatencyModel uniform(final Duration min, final Duration max) {
+        return (request, recorded) -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+    }
+
+    /**
+     * Replays the latency observed while recording, multiplied by the given factor.
+     *
+     * @param factor The factor applied to the recorded duration; 1.0 replays it unchanged.
+     * @return A latency model based on the recordings.
+     */
+    static LatencyModel recorded(final double factor) {
+        return (request, recorded) -> Duration.ofNanos((long) (recorded.durationMillis() * 1_000_000L * factor));
+    }
+}
@@ -0,0 +1,132 @@
+package koncept.openai.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A {@code multipart/form-data} body whose file parts are streamed from disk while the request is sent, so uploading a
+ * large document does not load it onto the heap. Only the part headers are held in memory.
+ */
+public final class MultipartBody implements StreamedBody {
+
+    private final String boundary = "koncept-" + UUID.randomUUID().toString().replace("-", "");
+    private final List<Part> parts = new ArrayList<>();
+
+    /**
+     * @param name  The name of the form field.
+     * @param value The value of the field.
+     * @return This body.
+     */
+    public MultipartBody field(final String name, final String value) {
+        parts.add(Part.of("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + escape(name) + "\"\r\n\r\n"
+            + value + "\r\n"));
+        return this;
+    }
+
+    /**
+     * @param name The name of the form field.
+     * @param file The file to stream; its content type is probed from the file name.
+     * @return This body.
+     * @throws FileNotFoundException if the file does not exist.
+     */
+    public MultipartBody file(final String name, final Path file) throws FileNotFoundException {
+        String contentType;
+        try {
+            contentType = Files.probeContentType(file);
+        } catch (IOException e) {
+            contentType = null;
+        }
+        return file(name, file, contentType != null ? contentType : "application/octet-stream");
+    }
+
+    /**
+     * @param name        The name of the form field.
+     * @param file        The file to stream.
+     * @param contentType The content type of the file.
+     * @return This body.
+     * @throws FileNotFoundException if the file does not exist.
+     * @throws UncheckedIOException  if the size of the file cannot be read.
+     */
+    public MultipartBody file(final String name, final Path file, final String contentType) throws FileNotFoundException {
+        if (!Files.isRegularFile(file)) {
+            throw new FileNotFoundException(file.toString());
+        }
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String header = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + escape(name) + "\"; filename=\""
+            + escape(file.getFileName().toString()) + "\"\r\nContent-Type: " + contentType + "\r\n\r\n";
+        parts.add(Part.of(header));
+        parts.add(new Part(null, file, size));
+        parts.add(Part.of("\r\n"));
+        return this;
+    }
+
+    /**
+     * @return The value of the {@code Content-Type} header of the request.
+     */
+    public String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    /**
+     * @return The length of the whole body, with the sizes the files had when they were added.
+     */
+    @Override
+    public long contentLength() {
+        return parts.stream().mapToLong(Part::length).sum() + closingDelimiter().length;
+    }
+
+    /**
+     * Opens the files of the body, which are read as the returned stream is.
+     */
+    @Override
+    public InputStream open() throws IOException {
+        List<InputStream> streams = new ArrayList<>(parts.size() + 1);
+        try {
+            for (Part part : parts) {
+                streams.add(part.file() != null ? Files.newInputStream(part.file()) : new ByteArrayInputStream(part.bytes()));
+            }
+        } catch (IOException e) {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+            throw e;
+        }
+        streams.add(new ByteArrayInputStream(closingDelimiter()));
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    private byte[] closingDelimiter() {
+        return ("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+    }
+
+    /**
+     * A part of the body, held in memory or read from a file.
+     */
+    private record Part(byte[] bytes, Path file, long length) {
+
+        static Part of(final String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            return new Part(bytes, null, bytes.length);
+        }
+    }
+}
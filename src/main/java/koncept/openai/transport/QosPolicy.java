@@ -0,0 +1,138 @@
+package koncept.openai.transport;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The scheduling configuration of a {@link QosTransport}: the total number of concurrent requests, a concurrency cap
+ * and a weight per {@link RequestClass}, an optional request rate limit shared by all lanes, and how queued requests
+ * are picked.
+ */
+public final class QosPolicy {
+
+    /**
+     * How the next queued request is picked when a slot frees up.
+     */
+    public enum Scheduling {
+
+        /**
+         * Strictly by lane, in the order of {@link RequestClass}: bulk requests only go out while no interactive
+         * request is queued.
+         */
+        PRIORITY,
+
+        /**
+         * By weight: while several lanes have queued requests, each gets slots and rate limit in proportion to its
+         * weight, and a lane that was idle does not bank credit. An interactive request arriving behind queued bulk
+         * work is therefore dispatched next.
+         */
+        WEIGHTED_FAIR
+    }
+
+    private final int maxConcurrency;
+    private final Map<RequestClass, Integer> laneConcurrency;
+    private final Map<RequestClass, Integer> weights;
+    private final double requestsPerSecond;
+    private final Scheduling scheduling;
+
+    private QosPolicy(final Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.laneConcurrency = new EnumMap<>(builder.laneConcurrency);
+        this.weights = new EnumMap<>(builder.weights);
+        this.requestsPerSecond = builder.requestsPerSecond;
+        this.scheduling = builder.scheduling;
+    }
+
+    /**
+     * @return 32 concurrent requests of which at most 16 bulk, interactive weighted 4 to 1 over bulk, no rate limit.
+     */
+    public static QosPolicy defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int maxConcurrency(final RequestClass requestClass) {
+        return laneConcurrency.get(requestClass);
+    }
+
+    public int weight(final RequestClass requestClass) {
+        return weights.get(requestClass);
+    }
+
+    public double requestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public Scheduling scheduling() {
+        return scheduling;
+    }
+
+    /**
+     * Builder for {@link QosPolicy} instances.
+     */
+    public static final class Builder {
+
+        private int maxConcurrency = 32;
+        private final Map<RequestClass, Integer> laneConcurrency = new EnumMap<>(Map.of(RequestClass.INTERACTIVE, 32, RequestClass.BULK, 16));
+        private final Map<RequestClass, Integer> weights = new EnumMap<>(Map.of(RequestClass.INTERACTIVE, 4, RequestClass.BULK, 1));
+        private double requestsPerSecond;
+        private Scheduling scheduling = Scheduling.WEIGHTED_FAIR;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxConcurrency The number of requests in flight across all lanes; defaults to 32.
+         * @return This builder.
+         */
+        public Builder maxConcurrency(final int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * @param requestClass   The lane.
+         * @param maxConcurrency The number of requests of the lane in flight at once, within the total.
+         * @param weight         The share of the lane under {@link Scheduling#WEIGHTED_FAIR}, at least 1.
+         * @return This builder.
+         */
+        public Builder lane(final RequestClass requestClass, final int maxConcurrency, final int weight) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("The weight of a lane must be at least 1");
+            }
+            this.laneConcurrency.put(requestClass, maxConcurrency);
+            this.weights.put(requestClass, weight);
+            return this;
+        }
+
+        /**
+         * @param requestsPerSecond The request rate shared by all lanes, with bursts of up to one second; 0, the
+         *                          default, for no limit.
+         * @return This builder.
+         */
+        public Builder requestsPerSecond(final double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param scheduling How queued requests are picked; defaults to {@link Scheduling#WEIGHTED_FAIR}.
+         * @return This builder.
+         */
+        public Builder scheduling(final Scheduling scheduling) {
+            this.scheduling = scheduling;
+            return this;
+        }
+
+        public QosPolicy build() {
+            return new QosPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import koncept.metrics.ClientMetrics;
+
+/**
+ * Transport decorator that queues requests per {@link RequestClass} in front of the delegate and dispatches them
+ * according to a {@link QosPolicy}: within the total and per-lane concurrency budgets, under the shared request rate
+ * limit, and picking the next lane by priority or by weight. A slot is held until the response headers arrive.
+ * <p>
+ * The time each request spent queued is reported to {@link ClientMetrics#queueWait(String, long)} as
+ * {@code qos.<lane>}, e.g. {@code qos.bulk}.
+ */
+public class QosTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final QosPolicy policy;
+    private final ClientMetrics metrics;
+    private final LongSupplier nanoTime;
+    // a lock rather than synchronized, so virtual threads waiting for a slot do not pin their carrier
+    private final Lock lock = new ReentrantLock();
+    private final Map<RequestClass, Lane> lanes = new EnumMap<>(RequestClass.class);
+    private int inFlight;
+    private double virtualTime;
+    private double permits;
+    private long refilledAt;
+
+    public QosTransport(final HttpTransport delegate, final QosPolicy policy, final ClientMetrics metrics) {
+        this(delegate, policy, metrics, System::nanoTime);
+    }
+
+    QosTransport(final HttpTransport delegate, final QosPolicy policy, final ClientMetrics metrics, final LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.metrics = metrics;
+        this.nanoTime = nanoTime;
+        for (RequestClass requestClass : RequestClass.values()) {
+            lanes.put(requestClass, new Lane(requestClass, policy.maxConcurrency(requestClass), policy.weight(requestClass)));
+        }
+        this.permits = Math.max(1, policy.requestsPerSecond());
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        Lane lane = lanes.get(request.requestClass());
+        long enqueuedAt = nanoTime.getAsLong();
+        admit(lane);
+        metrics.queueWait(lane.queueName, nanoTime.getAsLong() - enqueuedAt);
+        try {
+            return delegate.send(request);
+        } finally {
+            release(lane);
+        }
+    }
+
+    /**
+     * @param requestClass The lane.
+     * @return The number of requests of the lane waiting for a slot.
+     */
+    public int queued(final RequestClass requestClass) {
+        lock.lock();
+        try {
+            return lanes.get(requestClass).queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param requestClass The lane.
+     * @return The number of requests of the lane handed to the delegate and not completed yet.
+     */
+    public int inFlight(final RequestClass requestClass) {
+        lock.lock();
+        try {
+            return lanes.get(requestClass).inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void admit(final Lane lane) throws InterruptedException {
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(lock.newCondition());
+            if (lane.queue.isEmpty()) {
+                // an idle lane starts at the current virtual time instead of catching up on the slots it did not use
+                lane.pass = Math.max(lane.pass, virtualTime);
+            }
+            lane.queue.add(waiter);
+            try {
+                while (true) {
+                    long rateLimitWait = dispatch();
+                    if (waiter.admitted) {
+                        return;
+                    }
+                    if (rateLimitWait > 0) {
+                        waiter.ready.awaitNanos(rateLimitWait);
+                    } else {
+                        waiter.ready.await();
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (waiter.admitted) {
+                    releaseSlot(lane);
+                } else {
+                    lane.queue.remove(waiter);
+                    // the waiter may have been the one due to wake up for the next permit, so hand that on
+                    dispatch();
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final Lane lane) {
+        lock.lock();
+        try {
+            releaseSlot(lane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseSlot(final Lane lane) {
+        lane.inFlight--;
+        inFlight--;
+        dispatch();
+    }
+
+    /**
+     * Admits queued requests while slots are free. Called with the lock held.
+     *
+     * @return The time until the rate limit admits the next request, or 0 if it is not what holds requests back.
+     */
+    private long dispatch() {
+        while (inFlight < policy.maxConcurrency()) {
+            Lane next = nextLane();
+            if (next == null) {
+                return 0;
+            }
+            long rateLimitWait = takePermit();
+            if (rateLimitWait > 0) {
+                // make sure the next request in line wakes up when the permit is due, not only on the next release
+                next.queue.peek().ready.signal();
+                return rateLimitWait;
+            }
+            Waiter waiter = next.queue.poll();
+            waiter.admitted = true;
+            next.inFlight++;
+            inFlight++;
+            virtualTime = next.pass;
+            next.pass += 1.0 / next.weight;
+            waiter.ready.signal();
+        }
+        return 0;
+    }
+
+    private Lane nextLane() {
+        Lane next = null;
+        for (Lane lane : lanes.values()) {
+            if (lane.queue.isEmpty() || lane.inFlight >= lane.maxConcurrency) {
+                continue;
+            }
+            if (policy.scheduling() == QosPolicy.Scheduling.PRIORITY) {
+                return lane;
+            }
+            if (next == null || lane.pass < next.pass) {
+                next = lane;
+            }
+        }
+        return next;
+    }
+
+    private long takePermit() {
+        double rate = policy.requestsPerSecond();
+        if (rate <= 0) {
+            return 0;
+        }
+        long now = nanoTime.getAsLong();
+        permits = Math.min(Math.max(1, rate), permits + (now - refilledAt) * rate / 1_000_000_000.0);
+        refilledAt = now;
+        if (permits >= 1) {
+            permits--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - permits) / rate * 1_000_000_000.0);
+    }
+
+    private static final class Lane {
+
+        private final String queueName;
+        private final int maxConcurrency;
+        private final int weight;
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private int inFlight;
+        private double pass;
+
+        Lane(final RequestClass requestClass, final int maxConcurrency, final int weight) {
+            this.queueName = "qos." + requestClass.getLaneName();
+            this.maxConcurrency = maxConcurrency;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition ready;
+        private boolean admitted;
+
+        Waiter(final Condition ready) {
+            this.ready = ready;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package koncept.openai.transport;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One request/response pair as stored on disk by {@link RecordingTransport} and served by {@link ReplayTransport}.
+ * The request URI is stored without scheme and host so recordings can be replayed against any base URL.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RecordedExchange(
+    String method,
+    String path,
+    @JsonProperty("request_body")
+    String requestBody,
+    @JsonProperty("status_code")
+    int statusCode,
+    @JsonProperty("response_headers")
+    Map<String, List<String>> responseHeaders,
+    @JsonProperty("response_body")
+    String responseBody,
+    @JsonProperty("duration_millis")
+    long durationMillis) {
+}
@@ -0,0 +1,75 @@
+package koncept.openai.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import koncept.json.JsonCodec;
+
+/**
+ * Transport decorator that writes every exchange of the delegate to a directory, one JSON file per exchange, in the
+ * order the responses arrive. Request headers are not recorded, so credentials never reach the disk, and neither are
+ * streamed request bodies, e.g. uploaded files, which are recorded as null. The response body is buffered in memory
+ * before it is handed back to the caller.
+ * <p>
+ * Gzip encoded bodies, e.g. below a {@link CompressionTransport}, are recorded decoded and without their
+ * {@code Content-Encoding}, so recordings stay readable text and are replayed as plain responses.
+ */
+public class RecordingTransport implements HttpTransport {
+
+    private static final String GZIP = "gzip";
+
+    private final HttpTransport delegate;
+    private final Path directory;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+
+    public RecordingTransport(final HttpTransport delegate, final Path directory) throws IOException {
+        this.delegate = delegate;
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        TransportResponse response = delegate.send(request);
+        byte[] body = response.readBody();
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+
+        boolean gzipRequest = request.headers().entrySet().stream()
+            .anyMatch(header -> header.getKey().equalsIgnoreCase("Content-Encoding") && header.getValue().equalsIgnoreCase(GZIP));
+        boolean gzipResponse = GZIP.equalsIgnoreCase(response.header("Content-Encoding"));
+        Map<String, List<String>> responseHeaders = response.headers();
+        if (gzipResponse) {
+            responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            responseHeaders.putAll(response.headers());
+            responseHeaders.remove("Content-Encoding");
+            responseHeaders.remove("Content-Length");
+        }
+        RecordedExchange exchange = new RecordedExchange(
+            request.method().name(),
+            ReplayTransport.pathOf(request.uri()),
+            request.streamedBody() != null ? null
+                : new String(gzipRequest ? gunzip(request.body()) : request.body(), StandardCharsets.UTF_8),
+            response.statusCode(),
+            responseHeaders,
+            new String(gzipResponse ? gunzip(body) : body, StandardCharsets.UTF_8),
+            durationMillis);
+        Path file = directory.resolve(String.format("%06d-%s.json", sequence.incrementAndGet(), request.method().name()));
+        Files.write(file, jsonCodec.writerFor(exchange).withDefaultPrettyPrinter().writeValueAsBytes(exchange));
+        return new TransportResponse(response.statusCode(), response.headers(), body);
+    }
+
+    private static byte[] gunzip(final byte[] body) throws IOException {
+        try (GZIPInputStream decoded = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return decoded.readAllBytes();
+        }
+    }
+}
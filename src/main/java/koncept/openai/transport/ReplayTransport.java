@@ -0,0 +1,89 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import koncept.json.JsonCodec;
+
+/**
+ * Transport that serves exchanges recorded by {@link RecordingTransport} without any network access.
+ * <p>
+ * Requests are matched on method, path and query. Exchanges recorded for the same request are served in recording
+ * order, and the last one keeps being served once they run out, so polling loops terminate the way they did while
+ * recording. A {@link LatencyModel} decides how long each response is delayed.
+ */
+public class ReplayTransport implements HttpTransport {
+
+    private final Map<String, Queue<RecordedExchange>> pending = new ConcurrentHashMap<>();
+    private final Map<String, RecordedExchange> lastServed = new ConcurrentHashMap<>();
+    private final LatencyModel latencyModel;
+
+    public ReplayTransport(final List<RecordedExchange> exchanges, final LatencyModel latencyModel) {
+        this.latencyModel = latencyModel;
+        for (RecordedExchange exchange : exchanges) {
+            pending.computeIfAbsent(key(exchange.method(), exchange.path()), k -> new ConcurrentLinkedQueue<>()).add(exchange);
+        }
+    }
+
+    /**
+     * Loads all exchanges recorded in the given directory.
+     *
+     * @param directory    The directory written by a {@link RecordingTransport}.
+     * @param latencyModel The latency injected before each response.
+     * @return A replay transport serving the recordings.
+     * @throws IOException if the recordings cannot be read.
+     */
+    public static ReplayTransport fromDirectory(final Path directory, final LatencyModel latencyModel) throws IOException {
+        JsonCodec jsonCodec = JsonCodec.shared();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+        List<RecordedExchange> exchanges = new ArrayList<>(files.size());
+        for (Path file : files) {
+            exchanges.add(jsonCodec.reader(RecordedExchange.class).readValue(file.toFile()));
+        }
+        return new ReplayTransport(exchanges, latencyModel);
+    }
+
+    @Override
+    public TransportResponse send(final TransportRequest request) throws IOException, InterruptedException {
+        String key = key(request.method().name(), pathOf(request.uri()));
+        Queue<RecordedExchange> queue = pending.get(key);
+        RecordedExchange exchange = queue == null ? null : queue.poll();
+        if (exchange != null) {
+            lastServed.put(key, exchange);
+        } else {
+            exchange = lastServed.get(key);
+        }
+        if (exchange == null) {
+            throw new IOException("No recorded exchange for " + key);
+        }
+        Duration latency = latencyModel.latencyFor(request, exchange);
+        if (!latency.isZero()) {
+            Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+        }
+        Map<String, List<String>> headers = exchange.responseHeaders() == null ? Map.of() : exchange.responseHeaders();
+        return new TransportResponse(exchange.statusCode(), headers, exchange.responseBody().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String pathOf(final URI uri) {
+        return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+
+    private static String key(final String method, final String path) {
+        return method + " " + path;
+    }
+}
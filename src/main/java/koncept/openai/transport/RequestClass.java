@@ -0,0 +1,28 @@
+package koncept.openai.transport;
+
+/**
+ * The lane a request is scheduled in by {@link QosTransport}. Requests are {@link #INTERACTIVE} unless they are sent
+ * through a client view obtained with {@code forLane}.
+ */
+public enum RequestClass {
+
+    /**
+     * Calls a user is waiting for; scheduled ahead of queued bulk work.
+     */
+    INTERACTIVE("interactive"),
+
+    /**
+     * Background work such as batch enrichment, which tolerates queueing.
+     */
+    BULK("bulk");
+
+    private final String laneName;
+
+    RequestClass(final String laneName) {
+        this.laneName = laneName;
+    }
+
+    public String getLaneName() {
+        return laneName;
+    }
+}
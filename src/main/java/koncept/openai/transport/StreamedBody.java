@@ -0,0 +1,25 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A request body read from its source while the request is sent rather than held in memory, e.g. a
+ * {@link MultipartBody} streaming a file from disk. It can be opened more than once, so a transport may retry or
+ * replay the request.
+ */
+public interface StreamedBody {
+
+    /**
+     * @return The length of the body in bytes, or -1 if it is not known in advance.
+     */
+    long contentLength();
+
+    /**
+     * Opens the body from its first byte. The caller closes the stream.
+     *
+     * @return The content of the body.
+     * @throws IOException if the source cannot be read.
+     */
+    InputStream open() throws IOException;
+}
@@ -0,0 +1,50 @@
+package koncept.openai.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+
+import koncept.openai.HttpMethod;
+
+/**
+ * An HTTP request as handed to an {@link HttpTransport}.
+ *
+ * @param method        The HTTP method.
+ * @param uri           The absolute request URI.
+ * @param headers       The request headers.
+ * @param body          The request body; empty for requests without a body or with a streamed body.
+ * @param requestClass  The lane the request is scheduled in by a {@link QosTransport}; not sent.
+ * @param streamedBody  A body streamed from its source instead of {@code body}, e.g. a {@link MultipartBody} reading a
+ *                      file from disk; null for most requests. A transport that sends requests must send it when it is
+ *                      set, e.g. through {@link #readBody()} if it cannot stream.
+ */
+public record TransportRequest(
+    HttpMethod method,
+    URI uri,
+    Map<String, String> headers,
+    byte[] body,
+    RequestClass requestClass,
+    StreamedBody streamedBody) {
+
+    public TransportRequest(final HttpMethod method, final URI uri, final Map<String, String> headers, final byte[] body) {
+        this(method, uri, headers, body, RequestClass.INTERACTIVE);
+    }
+
+    public TransportRequest(final HttpMethod method, final URI uri, final Map<String, String> headers, final byte[] body, final RequestClass requestClass) {
+        this(method, uri, headers, body, requestClass, null);
+    }
+
+    /**
+     * @return The body to send, reading a streamed body into memory.
+     * @throws IOException if the streamed body cannot be read.
+     */
+    public byte[] readBody() throws IOException {
+        if (streamedBody == null) {
+            return body;
+        }
+        try (InputStream content = streamedBody.open()) {
+            return content.readAllBytes();
+        }
+    }
+}
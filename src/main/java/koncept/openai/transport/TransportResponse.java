@@ -0,0 +1,69 @@
+package koncept.openai.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An HTTP response as returned by an {@link HttpTransport}. The body is a stream so large or streamed responses can be
+ * consumed without buffering; it must be closed by the consumer.
+ */
+public class TransportResponse implements Closeable {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+
+    public TransportResponse(final int statusCode, final Map<String, List<String>> headers, final InputStream body) {
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.body = body;
+    }
+
+    public TransportResponse(final int statusCode, final Map<String, List<String>> headers, final byte[] body) {
+        this(statusCode, headers, new ByteArrayInputStream(body));
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    /**
+     * @param name The header name, matched case-insensitively.
+     * @return The first value of the header, or null if absent.
+     */
+    public String header(final String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public InputStream body() {
+        return body;
+    }
+
+    /**
+     * Reads the remaining body into memory and closes the stream.
+     *
+     * @return The body bytes.
+     * @throws IOException if the body cannot be read.
+     */
+    public byte[] readBody() throws IOException {
+        try (InputStream input = body) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,69 @@
+package koncept.store;
+
+import java.util.List;
+
+import koncept.openai.model.MessageResponse;
+
+/**
+ * A local copy of thread histories, so history reads do not need a round trip to the API.
+ * <p>
+ * A thread is either tracked or unknown. A tracked thread holds its complete history from its first message, so new
+ * messages can be appended and later messages synced incrementally from {@link #syncedMessageId(String)}; messages of
+ * unknown threads are ignored until a full sync tracks the thread. See
+ * {@link koncept.openai.OpenAIAPIClient#syncMessages(String)}.
+ * <p>
+ * Messages appended locally, e.g. when sent, do not advance the sync cursor: messages created meanwhile by a run are
+ * only fetched by the next sync, which then also puts the local messages back into the order of the thread.
+ */
+public interface ConversationStore extends AutoCloseable {
+
+    /**
+     * Starts tracking a thread whose complete history is about to be appended, e.g. a newly created thread.
+     *
+     * @param threadId The ID of the thread.
+     */
+    void trackThread(String threadId);
+
+    boolean isTracked(String threadId);
+
+    /**
+     * Appends a message to its tracked thread, or replaces the stored version of a message with the same ID. Messages
+     * of threads that are not tracked are ignored.
+     *
+     * @param message The message, as returned by the API.
+     */
+    void append(MessageResponse message);
+
+    /**
+     * Stores the messages fetched by a sync, which are all messages of the thread after {@link #syncedMessageId(String)}
+     * in the order of the thread, and advances the sync cursor to the last one. Messages appended locally since the
+     * previous sync are reordered accordingly. Ignored if the thread is not tracked.
+     *
+     * @param threadId The ID of the thread.
+     * @param messages The fetched messages, oldest first.
+     */
+    void appendSynced(String threadId, List<MessageResponse> messages);
+
+    /**
+     * @param threadId The ID of the thread.
+     * @return The messages of the thread, oldest first; empty if the thread is not tracked.
+     */
+    List<MessageResponse> messages(String threadId);
+
+    /**
+     * @param threadId The ID of the thread.
+     * @return The ID of the newest stored message of the thread, or null if there is none. Not a sync cursor: it may be
+     * a local message newer than messages not fetched yet.
+     */
+    String newestMessageId(String threadId);
+
+    /**
+     * @param threadId The ID of the thread.
+     * @return The ID of the last message fetched by a sync, after which the next sync continues, or null to sync from
+     * the first message.
+     */
+    String syncedMessageId(String threadId);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,337 @@
+package koncept.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import koncept.json.JsonCodec;
+import koncept.openai.model.MessageResponse;
+
+/**
+ * A {@link ConversationStore} persisting messages to an append-only, memory-mapped segment log and indexing them by
+ * thread in memory. Opening the store replays the log to rebuild the index; reads are served from decoded messages
+ * cached per thread, so they neither touch the network nor parse JSON once a thread has been read.
+ * <p>
+ * The log is never compacted: a message updated by a later sync is appended again and the index points to the newest
+ * version; each sync also logs the order of the fetched messages. Mapped segments stay mapped until the store is garbage collected.
+ */
+public class MappedConversationStore implements ConversationStore {
+
+    private static final byte THREAD_RECORD = 'T';
+    private static final byte MESSAGE_RECORD = 'M';
+    private static final byte SYNC_RECORD = 'S';
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final SegmentLog log;
+    private final Map<String, ThreadEntry> threads = new ConcurrentHashMap<>();
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+    private final Lock appendLock = new ReentrantLock();
+
+    private MappedConversationStore(final SegmentLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Opens the store in the given directory, creating it if needed, with 16 MiB segments.
+     *
+     * @param directory The directory of the segment files.
+     * @return The store, with the index rebuilt from existing segments.
+     */
+    public static MappedConversationStore open(final Path directory) {
+        return open(directory, DEFAULT_SEGMENT_SIZE, false);
+    }
+
+    /**
+     * @param directory   The directory of the segment files.
+     * @param segmentSize The size of a new segment file in bytes.
+     * @param force       Whether every append is flushed to the device, rather than left to the page cache.
+     * @return The store, with the index rebuilt from existing segments.
+     */
+    public static MappedConversationStore open(final Path directory, final int segmentSize, final boolean force) {
+        MappedConversationStore store = new MappedConversationStore(new SegmentLog(directory, segmentSize, force));
+        store.log.replay(store::index);
+        return store;
+    }
+
+    @Override
+    public void trackThread(final String threadId) {
+        appendLock.lock();
+        try {
+            if (!threads.containsKey(threadId)) {
+                log.append(THREAD_RECORD, threadId.getBytes(StandardCharsets.UTF_8));
+                threads.put(threadId, new ThreadEntry());
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTracked(final String threadId) {
+        return threads.containsKey(threadId);
+    }
+
+    @Override
+    public void append(final MessageResponse message) {
+        ThreadEntry thread = threads.get(message.threadId());
+        if (thread == null) {
+            return;
+        }
+        byte[] payload = encode(message);
+        appendLock.lock();
+        try {
+            thread.put(message.id(), log.append(MESSAGE_RECORD, payload), message);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Logs the fetched messages followed by a sync record listing their IDs, from which replay restores the order and
+     * the sync cursor.
+     */
+    @Override
+    public void appendSynced(final String threadId, final List<MessageResponse> messages) {
+        ThreadEntry thread = threads.get(threadId);
+        if (thread == null || messages.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = messages.stream().map(this::encode).toList();
+        List<String> messageIds = messages.stream().map(MessageResponse::id).toList();
+        StringBuilder sync = new StringBuilder(threadId);
+        messageIds.forEach(messageId -> sync.append('\n').append(messageId));
+        appendLock.lock();
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                thread.put(messageIds.get(i), log.append(MESSAGE_RECORD, payloads.get(i)), messages.get(i));
+            }
+            log.append(SYNC_RECORD, sync.toString().getBytes(StandardCharsets.UTF_8));
+            thread.synced(messageIds);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public List<MessageResponse> messages(final String threadId) {
+        ThreadEntry thread = threads.get(threadId);
+        return thread == null ? List.of() : thread.messages();
+    }
+
+    @Override
+    public String newestMessageId(final String threadId) {
+        ThreadEntry thread = threads.get(threadId);
+        return thread == null ? null : thread.newestMessageId();
+    }
+
+    @Override
+    public String syncedMessageId(final String threadId) {
+        ThreadEntry thread = threads.get(threadId);
+        return thread == null ? null : thread.syncedMessageId();
+    }
+
+    /**
+     * Flushes all segments to the device.
+     */
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            log.flush();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void index(final byte type, final RecordLocation location, final byte[] payload) {
+        if (type == THREAD_RECORD) {
+            threads.putIfAbsent(new String(payload, StandardCharsets.UTF_8), new ThreadEntry());
+        } else if (type == MESSAGE_RECORD) {
+            MessageResponse message = decode(payload);
+            ThreadEntry thread = threads.get(message.threadId());
+            if (thread != null) {
+                thread.put(message.id(), location, null);
+            }
+        } else if (type == SYNC_RECORD) {
+            List<String> lines = List.of(new String(payload, StandardCharsets.UTF_8).split("\n"));
+            ThreadEntry thread = threads.get(lines.get(0));
+            if (thread != null) {
+                thread.synced(lines.subList(1, lines.size()));
+            }
+        }
+    }
+
+    private byte[] encode(final MessageResponse message) {
+        try {
+            return jsonCodec.writerFor(message).writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MessageResponse decode(final byte[] payload) {
+        try {
+            return jsonCodec.reader(MessageResponse.class).readValue(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The messages of one thread, in order, as slots of an array that only grows by appending: a published slot is only
+     * replaced in place by a newer version of the same message, and the rare reordering by a sync swaps in a new array,
+     * so reads never lock. Changes are made under the append lock, or during replay.
+     */
+    private final class ThreadEntry {
+
+        private final Map<String, Integer> positions = new HashMap<>();
+        private Slot[] slots = new Slot[INITIAL_CAPACITY];
+        private int size;
+        private int syncedSize;
+        private String syncedMessageId;
+        private volatile View view = new View(slots, 0, null, null);
+
+        /**
+         * @param message The appended message, or null during replay, where messages are decoded on the first read
+         *                rather than kept for every thread of the log.
+         */
+        void put(final String messageId, final RecordLocation location, final MessageResponse message) {
+            Integer position = positions.get(messageId);
+            if (position != null) {
+                slots[position] = new Slot(messageId, location, message);
+            } else {
+                if (size == slots.length) {
+                    slots = Arrays.copyOf(slots, size * 2);
+                }
+                positions.put(messageId, size);
+                slots[size++] = new Slot(messageId, location, message);
+            }
+            publish();
+        }
+
+        /**
+         * Advances the sync cursor past the given messages, which follow the synced ones in the thread; messages stored
+         * since the previous sync and not among them stay after them.
+         */
+        void synced(final List<String> messageIds) {
+            Set<String> fetched = new LinkedHashSet<>(messageIds);
+            fetched.retainAll(positions.keySet());
+            if (fetched.isEmpty()) {
+                return;
+            }
+            int expected = syncedSize;
+            boolean inOrder = true;
+            for (String messageId : fetched) {
+                inOrder &= positions.get(messageId) == expected++;
+            }
+            if (inOrder) {
+                syncedSize = expected;
+            } else {
+                Slot[] reordered = new Slot[slots.length];
+                int next = 0;
+                for (int i = 0; i < syncedSize; i++) {
+                    if (!fetched.contains(slots[i].messageId())) {
+                        reordered[next++] = slots[i];
+                    }
+                }
+                for (String messageId : fetched) {
+                    reordered[next++] = slots[positions.get(messageId)];
+                }
+                int synced = next;
+                for (int i = syncedSize; i < size; i++) {
+                    if (!fetched.contains(slots[i].messageId())) {
+                        reordered[next++] = slots[i];
+                    }
+                }
+                for (int i = 0; i < size; i++) {
+                    positions.put(reordered[i].messageId(), i);
+                }
+                slots = reordered;
+                syncedSize = synced;
+            }
+            syncedMessageId = slots[syncedSize - 1].messageId();
+            publish();
+        }
+
+        private void publish() {
+            view = new View(slots, size, size == 0 ? null : slots[size - 1].messageId(), syncedMessageId);
+        }
+
+        List<MessageResponse> messages() {
+            View current = view;
+            List<MessageResponse> messages = current.messages;
+            if (messages == null) {
+                MessageResponse[] decoded = new MessageResponse[current.size];
+                List<Slot> decodedSlots = new ArrayList<>();
+                for (int i = 0; i < current.size; i++) {
+                    Slot slot = current.slots[i];
+                    decoded[i] = slot.message();
+                    if (decoded[i] == null) {
+                        decoded[i] = decode(log.read(slot.location()));
+                        decodedSlots.add(new Slot(slot.messageId(), slot.location(), decoded[i]));
+                    }
+                }
+                if (!decodedSlots.isEmpty()) {
+                    keepDecoded(decodedSlots);
+                }
+                messages = List.of(decoded);
+                current.messages = messages;
+            }
+            return messages;
+        }
+
+        private void keepDecoded(final List<Slot> decodedSlots) {
+            appendLock.lock();
+            try {
+                for (Slot decoded : decodedSlots) {
+                    Integer position = positions.get(decoded.messageId());
+                    if (position != null && slots[position].location().equals(decoded.location())) {
+                        slots[position] = decoded;
+                    }
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        String newestMessageId() {
+            return view.newestMessageId;
+        }
+
+        String syncedMessageId() {
+            return view.syncedMessageId;
+        }
+    }
+
+    private record Slot(String messageId, RecordLocation location, MessageResponse message) {
+    }
+
+    private static final class View {
+
+        private final Slot[] slots;
+        private final int size;
+        private final String newestMessageId;
+        private final String syncedMessageId;
+        // decoded lazily; racing readers may both decode, which is harmless
+        private volatile List<MessageResponse> messages;
+
+        View(final Slot[] slots, final int size, final String newestMessageId, final String syncedMessageId) {
+            this.slots = slots;
+            this.size = size;
+            this.newestMessageId = newestMessageId;
+            this.syncedMessageId = syncedMessageId;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package koncept.store;
+
+/**
+ * Where the payload of a record is stored in a {@link SegmentLog}.
+ *
+ * @param segment The index of the segment.
+ * @param offset  The offset of the payload within the segment.
+ * @param length  The length of the payload.
+ */
+record RecordLocation(int segment, int offset, int length) {
+}
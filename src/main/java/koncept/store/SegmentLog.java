@@ -0,0 +1,140 @@
+package koncept.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of typed records in memory-mapped segment files {@code segment-000000.log},
+ * {@code segment-000001.log}, ... Each record is framed as {@code [int length][int crc32c][byte type][payload]}; the
+ * unwritten tail of a segment is zero, so a zero length marks the end of a segment. Writes go to the mapping and reach
+ * the file through the page cache, so they survive a crash of the process; {@code force} additionally flushes every
+ * append to the device.
+ * <p>
+ * Not thread-safe for appends; readers may read records that were appended before they obtained the location.
+ */
+final class SegmentLog {
+
+    interface RecordVisitor {
+        void visit(byte type, RecordLocation location, byte[] payload);
+    }
+
+    private static final int HEADER = Integer.BYTES * 2 + 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean force;
+    // copy-on-write, since readers look up segments while an append may add one
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private int position;
+
+    SegmentLog(final Path directory, final int segmentSize, final boolean force) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.force = force;
+    }
+
+    /**
+     * Maps the existing segments and visits their records in order. A record with a wrong checksum, e.g. one torn by a
+     * crash during the append, ends the log; later appends overwrite it.
+     */
+    void replay(final RecordVisitor visitor) {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(file -> file.getFileName().toString().matches("segment-\\d{6}\\.log")).sorted().toList();
+            }
+            for (Path file : files) {
+                segments.add(map(file, (int) Files.size(file)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open conversation store at " + directory, e);
+        }
+        CRC32C crc = new CRC32C();
+        for (int segment = 0; segment < segments.size(); segment++) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int offset = 0;
+            while (offset + HEADER <= buffer.capacity()) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER + length > buffer.capacity()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(offset + HEADER, payload);
+                crc.reset();
+                crc.update(buffer.get(offset + Integer.BYTES * 2));
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                    break;
+                }
+                visitor.visit(buffer.get(offset + Integer.BYTES * 2), new RecordLocation(segment, offset + HEADER, length), payload);
+                offset += HEADER + length;
+            }
+            position = offset;
+        }
+    }
+
+    RecordLocation append(final byte type, final byte[] payload) {
+        int recordSize = HEADER + payload.length;
+        if (segments.isEmpty() || position + recordSize > current().capacity()) {
+            newSegment(Math.max(segmentSize, recordSize + Integer.BYTES));
+        }
+        MappedByteBuffer buffer = current();
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        int offset = position;
+        buffer.put(offset + HEADER, payload);
+        buffer.put(offset + Integer.BYTES * 2, type);
+        buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        // the length is written last, so a torn append reads as the end of the segment
+        buffer.putInt(offset, payload.length);
+        if (position + recordSize + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt(position + recordSize, 0);
+        }
+        if (force) {
+            buffer.force();
+        }
+        position += recordSize;
+        return new RecordLocation(segments.size() - 1, offset + HEADER, payload.length);
+    }
+
+    byte[] read(final RecordLocation location) {
+        byte[] payload = new byte[location.length()];
+        segments.get(location.segment()).get(location.offset(), payload);
+        return payload;
+    }
+
+    void flush() {
+        segments.forEach(MappedByteBuffer::force);
+    }
+
+    private MappedByteBuffer current() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void newSegment(final int size) {
+        Path file = directory.resolve(String.format("segment-%06d.log", segments.size()));
+        try {
+            segments.add(map(file, size));
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create segment " + file, e);
+        }
+    }
+
+    private static MappedByteBuffer map(final Path file, final int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package koncept.timeline;
+
+/**
+ * The response of a run together with its timeline.
+ *
+ * @param response The assistant's response parsed into the requested class.
+ * @param timeline The lifecycle and token usage of the run that produced it.
+ * @param <T>      The type of the response.
+ */
+public record RunResult<T>(
+    T response,
+    RunTimeline timeline) {
+}
@@ -0,0 +1,118 @@
+package koncept.timeline;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import koncept.openai.model.Usage;
+
+/**
+ * The lifecycle of one run, combining the server-side timestamps of the run with what the client observed locally, to
+ * attribute the latency of a call to queueing, model processing, tool execution and polling lag, and its cost to an
+ * assistant and model.
+ * <p>
+ * Server timestamps have a resolution of one second and may be null when the run never reached the corresponding
+ * state.
+ *
+ * @param threadId       The ID of the thread of the run.
+ * @param runId          The ID of the run.
+ * @param assistantId    The ID of the assistant that executed the run.
+ * @param model          The model used by the run.
+ * @param finalStatus    The last status observed for the run; not a final status if the run was abandoned.
+ * @param createdAt      When the server created the run.
+ * @param startedAt      When the server started processing the run.
+ * @param completedAt    When the server completed the run.
+ * @param submittedAt    When the client requested the run.
+ * @param finishedAt     When the client observed the final status or abandoned the run.
+ * @param observations   The statuses in the order they were observed while polling, followed by
+ *                       {@link #ABANDONED} if the client stopped waiting for the run.
+ * @param toolCalls      The tool calls executed for the run.
+ * @param usage          The token usage of the run, if reported.
+ */
+public record RunTimeline(
+    String threadId,
+    String runId,
+    String assistantId,
+    String model,
+    String finalStatus,
+    Instant createdAt,
+    Instant startedAt,
+    Instant completedAt,
+    Instant submittedAt,
+    Instant finishedAt,
+    List<StatusObservation> observations,
+    List<ToolCallTiming> toolCalls,
+    Usage usage) {
+
+    /**
+     * The observation added when the client stopped waiting for a run that had not reached a final status.
+     */
+    public static final String ABANDONED = "abandoned";
+
+    /**
+     * @return Whether the client stopped waiting before the run reached a final status.
+     */
+    public boolean abandoned() {
+        return !observations.isEmpty() && ABANDONED.equals(observations.get(observations.size() - 1).status());
+    }
+
+    /**
+     * @return The time from requesting the run until the client observed its final status.
+     */
+    public Duration total() {
+        return Duration.between(submittedAt, finishedAt);
+    }
+
+    /**
+     * @return The time the run spent queued on the server, or null if it never started.
+     */
+    public Duration queued() {
+        return createdAt == null || startedAt == null ? null : Duration.between(createdAt, startedAt);
+    }
+
+    /**
+     * @return The time from the server starting the run until completing it, including time in {@code requires_action}.
+     */
+    public Duration processing() {
+        return startedAt == null || completedAt == null ? null : Duration.between(startedAt, completedAt);
+    }
+
+    /**
+     * @return The time between the server completing the run and the client noticing, or null if it did not complete.
+     */
+    public Duration pollingLag() {
+        return completedAt == null ? null : Duration.between(completedAt, finishedAt);
+    }
+
+    /**
+     * Attributes the locally observed time to statuses: each status is charged until the next one was observed.
+     *
+     * @return The observed time per status, in order of first observation.
+     */
+    public Map<String, Duration> observedTimeByStatus() {
+        Map<String, Duration> timeByStatus = new LinkedHashMap<>();
+        for (int i = 0; i < observations.size(); i++) {
+            StatusObservation observation = observations.get(i);
+            Instant end = i + 1 < observations.size() ? observations.get(i + 1).observedAt() : finishedAt;
+            timeByStatus.merge(observation.status(), Duration.between(observation.observedAt(), end), Duration::plus);
+        }
+        return timeByStatus;
+    }
+
+    /**
+     * @return The summed execution time of all tool calls.
+     */
+    public Duration toolTime() {
+        return toolCalls.stream().map(ToolCallTiming::duration).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    public long promptTokens() {
+        return usage == null ? 0 : usage.promptTokens();
+    }
+
+    public long completionTokens() {
+        return usage == null ? 0 : usage.completionTokens();
+    }
+}
@@ -0,0 +1,94 @@
+package koncept.timeline;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import koncept.openai.model.RunStatus;
+
+/**
+ * Collects the observations of one run while the client waits for it. Thread-safe, since statuses are observed on the
+ * polling thread while tool calls complete on other threads.
+ */
+public class RunTimelineRecorder {
+
+    private final Clock clock;
+    private final String threadId;
+    private final Instant submittedAt;
+    private final List<StatusObservation> observations = new ArrayList<>();
+    private final List<ToolCallTiming> toolCalls = new ArrayList<>();
+    private String runId;
+    private RunStatus lastStatus;
+
+    public RunTimelineRecorder(final String threadId) {
+        this(Clock.systemUTC(), threadId);
+    }
+
+    public RunTimelineRecorder(final Clock clock, final String threadId) {
+        this.clock = clock;
+        this.threadId = threadId;
+        this.submittedAt = clock.instant();
+    }
+
+    public synchronized void runCreated(final String runId) {
+        this.runId = runId;
+    }
+
+    /**
+     * Records a polled status; only status changes are kept as observations.
+     *
+     * @param runStatus The status returned by the poll.
+     */
+    public synchronized void observe(final RunStatus runStatus) {
+        if (lastStatus == null || !lastStatus.status().equals(runStatus.status())) {
+            observations.add(new StatusObservation(runStatus.status(), clock.instant()));
+        }
+        lastStatus = runStatus;
+    }
+
+    public synchronized void toolCall(final String toolCallId, final String toolName, final Duration duration, final boolean success) {
+        toolCalls.add(new ToolCallTiming(toolCallId, toolName, duration, success));
+    }
+
+    /**
+     * @return The timeline as of now, with the current time as the time the final status was observed.
+     */
+    public synchronized RunTimeline finish() {
+        return timeline();
+    }
+
+    /**
+     * Ends the timeline of a run the client stopped waiting for before it reached a final status, e.g. after the
+     * maximum number of polls: an {@link RunTimeline#ABANDONED} observation is added after the last observed status.
+     *
+     * @return The timeline as of now.
+     */
+    public synchronized RunTimeline abandon() {
+        observations.add(new StatusObservation(RunTimeline.ABANDONED, clock.instant()));
+        return timeline();
+    }
+
+    private RunTimeline timeline() {
+        RunStatus status = lastStatus;
+        return new RunTimeline(
+            threadId,
+            runId,
+            status == null ? null : status.assistantId(),
+            status == null ? null : status.model(),
+            status == null ? null : status.status(),
+            epochSecond(status == null ? null : status.createdAt()),
+            epochSecond(status == null ? null : status.startedAt()),
+            epochSecond(status == null ? null : status.completedAt()),
+            submittedAt,
+            clock.instant(),
+            List.copyOf(observations),
+            List.copyOf(toolCalls),
+            status == null ? null : status.usage());
+    }
+
+    private static Instant epochSecond(final Long epochSecond) {
+        return epochSecond == null ? null : Instant.ofEpochSecond(epochSecond);
+    }
+}
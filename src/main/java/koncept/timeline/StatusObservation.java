@@ -0,0 +1,14 @@
+package koncept.timeline;
+
+import java.time.Instant;
+
+/**
+ * A run status as first observed locally while polling.
+ *
+ * @param status     The run status, e.g. {@code queued} or {@code requires_action}.
+ * @param observedAt When the client first saw the status.
+ */
+public record StatusObservation(
+    String status,
+    Instant observedAt) {
+}
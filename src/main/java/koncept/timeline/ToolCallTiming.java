@@ -0,0 +1,18 @@
+package koncept.timeline;
+
+import java.time.Duration;
+
+/**
+ * The execution of one tool call requested by a run.
+ *
+ * @param toolCallId The id of the tool call.
+ * @param toolName   The name of the tool.
+ * @param duration   The execution time of the tool, excluding time spent queued.
+ * @param success    Whether the tool completed normally.
+ */
+public record ToolCallTiming(
+    String toolCallId,
+    String toolName,
+    Duration duration,
+    boolean success) {
+}
@@ -0,0 +1,140 @@
+package koncept.tokenizer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import koncept.exception.TokenBudgetExceededException;
+
+/**
+ * A tokens-per-minute budget for admission control: a token bucket that holds up to one minute of tokens and refills
+ * continuously. Requests acquire their estimated tokens before they are sent and are held back while the budget is
+ * exhausted; once the actual usage of a run is known, {@link #reconcile(long, long)} charges the difference, so
+ * underestimates (e.g. the thread history a run pays for) slow down the following requests.
+ */
+public class TokenBudget {
+
+    private final long tokensPerMinute;
+    private final Duration maxWait;
+    private final LongSupplier nanoTime;
+    private final Lock lock = new ReentrantLock();
+    private double available;
+    private long refilledAt;
+
+    /**
+     * @param tokensPerMinute The sustained number of tokens per minute, also the burst size.
+     * @param maxWait         How long {@link #acquire(long)} waits for tokens before giving up.
+     */
+    public TokenBudget(final long tokensPerMinute, final Duration maxWait) {
+        this(tokensPerMinute, maxWait, System::nanoTime);
+    }
+
+    TokenBudget(final long tokensPerMinute, final Duration maxWait, final LongSupplier nanoTime) {
+        this.tokensPerMinute = tokensPerMinute;
+        this.maxWait = maxWait;
+        this.nanoTime = nanoTime;
+        this.available = tokensPerMinute;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    /**
+     * @param tokensPerMinute The sustained number of tokens per minute, also the burst size.
+     * @return A budget waiting up to one minute for tokens.
+     */
+    public static TokenBudget perMinute(final long tokensPerMinute) {
+        return new TokenBudget(tokensPerMinute, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Takes the tokens if they are available right now.
+     *
+     * @param tokens The estimated tokens of the request.
+     * @return Whether the tokens were taken.
+     */
+    public boolean tryAcquire(final long tokens) {
+        lock.lock();
+        try {
+            refill();
+            if (available >= admissible(tokens)) {
+                available -= tokens;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the tokens are available and takes them. A request larger than the whole budget is admitted once the
+     * budget is full, and leaves it in debt.
+     *
+     * @param tokens The estimated tokens of the request.
+     * @throws TokenBudgetExceededException if the tokens do not become available within the maximum wait.
+     * @throws InterruptedException         if the thread is interrupted while waiting.
+     */
+    public void acquire(final long tokens) throws InterruptedException {
+        long deadline = nanoTime.getAsLong() + maxWait.toNanos();
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                double missing = admissible(tokens) - available;
+                if (missing <= 0) {
+                    available -= tokens;
+                    return;
+                }
+                waitNanos = (long) Math.ceil(missing * TimeUnit.MINUTES.toNanos(1) / tokensPerMinute);
+            } finally {
+                lock.unlock();
+            }
+            if (nanoTime.getAsLong() + waitNanos > deadline) {
+                throw new TokenBudgetExceededException(
+                    "Token budget of " + tokensPerMinute + " tokens per minute exhausted, " + tokens + " tokens requested", tokens);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Corrects the budget once the actual usage of a request is known.
+     *
+     * @param estimatedTokens The tokens acquired for the request.
+     * @param actualTokens    The tokens the request actually used.
+     */
+    public void reconcile(final long estimatedTokens, final long actualTokens) {
+        lock.lock();
+        try {
+            refill();
+            available = Math.min(tokensPerMinute, available + estimatedTokens - actualTokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The tokens currently available; negative while the budget is in debt.
+     */
+    public long available() {
+        lock.lock();
+        try {
+            refill();
+            return (long) available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double admissible(final long tokens) {
+        return Math.min(tokens, tokensPerMinute);
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        available = Math.min(tokensPerMinute, available + (double) (now - refilledAt) * tokensPerMinute / TimeUnit.MINUTES.toNanos(1));
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,36 @@
+package koncept.tokenizer;
+
+import java.util.regex.Pattern;
+
+/**
+ * The byte pair encodings used by OpenAI models. The merge ranks are bundled as gzipped {@code .tiktoken} resources in
+ * {@code koncept/tokenizer}; the patterns split text into pieces the same way the server does before merging.
+ */
+public enum TokenEncoding {
+    O200K_BASE("o200k_base",
+        "[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]*[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]+(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+            + "|[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]+[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]*(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+            + "|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n/]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+"),
+    CL100K_BASE("cl100k_base",
+        "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+    private final String encodingName;
+    private final Pattern pattern;
+
+    TokenEncoding(final String encodingName, final String pattern) {
+        this.encodingName = encodingName;
+        this.pattern = Pattern.compile(pattern, Pattern.UNICODE_CHARACTER_CLASS);
+    }
+
+    public String getEncodingName() {
+        return encodingName;
+    }
+
+    Pattern pattern() {
+        return pattern;
+    }
+
+    String resourceName() {
+        return "koncept/tokenizer/" + encodingName + ".tiktoken.gz";
+    }
+}
@@ -0,0 +1,115 @@
+package koncept.tokenizer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The merge ranks of an encoding, stored in flat arrays: the bytes of all tokens back to back, and an open addressing
+ * hash table from byte sequences to ranks. Lookups take a slice of a caller's buffer, so encoding does not allocate a
+ * key per candidate merge.
+ */
+final class TokenTable {
+
+    private final byte[] tokenBytes;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int[] slots;
+    private final int mask;
+
+    private TokenTable(final byte[] tokenBytes, final int[] offsets, final int[] lengths) {
+        this.tokenBytes = tokenBytes;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        int capacity = Integer.highestOneBit(Math.max(lengths.length, 1) * 2) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int rank = 0; rank < lengths.length; rank++) {
+            if (lengths[rank] >= 0) {
+                int slot = hash(tokenBytes, offsets[rank], lengths[rank]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = rank + 1;
+            }
+        }
+    }
+
+    static TokenTable load(final TokenEncoding encoding) {
+        try (InputStream resource = TokenTable.class.getClassLoader().getResourceAsStream(encoding.resourceName())) {
+            if (resource == null) {
+                throw new IllegalStateException("Missing tokenizer resource " + encoding.resourceName());
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(resource), StandardCharsets.US_ASCII));
+            ByteArrayOutputStream tokenBytes = new ByteArrayOutputStream(1 << 20);
+            int[] offsets = new int[1 << 16];
+            int[] lengths = new int[1 << 16];
+            Arrays.fill(lengths, -1);
+            int size = 0;
+            Base64.Decoder decoder = Base64.getDecoder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator < 0) {
+                    continue;
+                }
+                byte[] token = decoder.decode(line.substring(0, separator));
+                int rank = Integer.parseInt(line, separator + 1, line.length(), 10);
+                if (rank >= lengths.length) {
+                    int newLength = Math.max(rank + 1, lengths.length * 2);
+                    offsets = Arrays.copyOf(offsets, newLength);
+                    int oldLength = lengths.length;
+                    lengths = Arrays.copyOf(lengths, newLength);
+                    Arrays.fill(lengths, oldLength, newLength, -1);
+                }
+                offsets[rank] = tokenBytes.size();
+                lengths[rank] = token.length;
+                tokenBytes.write(token);
+                size = Math.max(size, rank + 1);
+            }
+            return new TokenTable(tokenBytes.toByteArray(), Arrays.copyOf(offsets, size), Arrays.copyOf(lengths, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load tokenizer resource " + encoding.resourceName(), e);
+        }
+    }
+
+    /**
+     * @return The rank of the token with the given bytes, or -1 if there is none.
+     */
+    int rank(final byte[] bytes, final int offset, final int length) {
+        int slot = hash(bytes, offset, length) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            int rank = entry - 1;
+            if (lengths[rank] == length
+                && Arrays.equals(tokenBytes, offsets[rank], offsets[rank] + length, bytes, offset, offset + length)) {
+                return rank;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int length(final int rank) {
+        return rank >= 0 && rank < lengths.length ? lengths[rank] : -1;
+    }
+
+    void copyBytes(final int rank, final ByteArrayOutputStream out) {
+        out.write(tokenBytes, offsets[rank], lengths[rank]);
+    }
+
+    private static int hash(final byte[] bytes, final int offset, final int length) {
+        int hash = 0x811c9dc5;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xff)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
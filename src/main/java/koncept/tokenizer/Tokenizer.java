@@ -0,0 +1,235 @@
+package koncept.tokenizer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+
+import koncept.openai.model.Message;
+import koncept.openai.model.OpenAIModel;
+
+/**
+ * An offline byte pair encoding tokenizer, to size prompts for rate limiting, admission control and truncation without
+ * a network call. Text is split with the pattern of the {@link TokenEncoding}, each piece is UTF-8 encoded into a
+ * reusable buffer and merged by rank against a flat {@link TokenTable}; counting tokens allocates nothing per piece.
+ * <p>
+ * Instances are thread-safe and cached per encoding; the ranks are loaded on first use, which takes a few hundred
+ * milliseconds. Special tokens such as {@code <|endoftext|>} are encoded as plain text.
+ */
+public final class Tokenizer {
+
+    // per message overhead of the chat format: <|start|>{role}\n{content}<|end|>\n, and the priming of the reply
+    private static final int TOKENS_PER_MESSAGE = 3;
+    private static final int TOKENS_PER_REPLY = 3;
+
+    private static final Map<TokenEncoding, Tokenizer> TOKENIZERS = new ConcurrentHashMap<>();
+
+    private final TokenEncoding encoding;
+    private final TokenTable table;
+
+    private Tokenizer(final TokenEncoding encoding) {
+        this.encoding = encoding;
+        this.table = TokenTable.load(encoding);
+    }
+
+    public static Tokenizer forModel(final OpenAIModel model) {
+        return forEncoding(model.getEncoding());
+    }
+
+    public static Tokenizer forEncoding(final TokenEncoding encoding) {
+        return TOKENIZERS.computeIfAbsent(encoding, Tokenizer::new);
+    }
+
+    public TokenEncoding encoding() {
+        return encoding;
+    }
+
+    public int countTokens(final CharSequence text) {
+        Encoder encoder = new Encoder(false);
+        encoder.encode(text);
+        return encoder.count;
+    }
+
+    public int[] encode(final CharSequence text) {
+        Encoder encoder = new Encoder(true);
+        encoder.encode(text);
+        return Arrays.copyOf(encoder.tokens, encoder.count);
+    }
+
+    public String decode(final int[] tokens) {
+        return decode(tokens, tokens.length);
+    }
+
+    /**
+     * Estimates the prompt tokens of messages in the chat format, i.e. content and role plus a fixed overhead per
+     * message. Runs also pay for the instructions of the assistant and the history of the thread.
+     *
+     * @param messages The messages to be sent.
+     * @return The estimated number of prompt tokens.
+     */
+    public int countMessageTokens(final List<Message> messages) {
+        int tokens = TOKENS_PER_REPLY;
+        for (Message message : messages) {
+            tokens += TOKENS_PER_MESSAGE;
+            if (message.role() != null) {
+                tokens += countTokens(message.role());
+            }
+            if (message.content() != null) {
+                tokens += countTokens(message.content());
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @param text      The text to be shortened.
+     * @param maxTokens The maximum number of tokens of the result.
+     * @return The longest prefix of the text encoding to at most {@code maxTokens} tokens, cut at token boundaries; the
+     * text itself if it fits.
+     */
+    public String truncate(final String text, final int maxTokens) {
+        int[] tokens = encode(text);
+        if (tokens.length <= maxTokens) {
+            return text;
+        }
+        String prefix = decode(tokens, maxTokens);
+        // a token boundary may split a multi-byte character, which decodes to a replacement character
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == '\uFFFD') {
+            end--;
+        }
+        return prefix.substring(0, end);
+    }
+
+    private String decode(final int[] tokens, final int count) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(count * 4);
+        for (int i = 0; i < count; i++) {
+            if (table.length(tokens[i]) < 0) {
+                throw new IllegalArgumentException("Unknown token " + tokens[i] + " for encoding " + encoding.getEncodingName());
+            }
+            table.copyBytes(tokens[i], bytes);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The state of one encode call: the UTF-8 bytes of the current piece, the boundaries and pair ranks of its parts
+     * while merging, and the output tokens unless only counting.
+     */
+    private final class Encoder {
+
+        private byte[] bytes = new byte[64];
+        private int[] starts = new int[65];
+        private int[] ranks = new int[65];
+        private int[] tokens;
+        private int count;
+
+        Encoder(final boolean collect) {
+            this.tokens = collect ? new int[64] : null;
+        }
+
+        void encode(final CharSequence text) {
+            Matcher matcher = encoding.pattern().matcher(text);
+            while (matcher.find()) {
+                int length = utf8(text, matcher.start(), matcher.end());
+                int rank = table.rank(bytes, 0, length);
+                if (rank >= 0) {
+                    emit(rank);
+                } else {
+                    merge(length);
+                }
+            }
+        }
+
+        // the byte_pair_merge of tiktoken: repeatedly merge the adjacent pair of parts with the lowest rank
+        private void merge(final int length) {
+            if (starts.length < length + 1) {
+                starts = new int[length + 1];
+                ranks = new int[length + 1];
+            }
+            int parts = length;
+            for (int i = 0; i <= length; i++) {
+                starts[i] = i;
+            }
+            for (int i = 0; i < parts - 1; i++) {
+                ranks[i] = pairRank(i, parts);
+            }
+            while (parts > 1) {
+                int minRank = Integer.MAX_VALUE;
+                int minIndex = -1;
+                for (int i = 0; i < parts - 1; i++) {
+                    if (ranks[i] < minRank) {
+                        minRank = ranks[i];
+                        minIndex = i;
+                    }
+                }
+                if (minIndex < 0) {
+                    break;
+                }
+                System.arraycopy(starts, minIndex + 2, starts, minIndex + 1, parts - minIndex - 1);
+                System.arraycopy(ranks, minIndex + 1, ranks, minIndex, parts - minIndex - 2);
+                parts--;
+                if (minIndex < parts - 1) {
+                    ranks[minIndex] = pairRank(minIndex, parts);
+                }
+                if (minIndex > 0) {
+                    ranks[minIndex - 1] = pairRank(minIndex - 1, parts);
+                }
+            }
+            for (int i = 0; i < parts; i++) {
+                emit(table.rank(bytes, starts[i], starts[i + 1] - starts[i]));
+            }
+        }
+
+        private int pairRank(final int index, final int parts) {
+            int end = index + 2 <= parts ? starts[index + 2] : starts[parts];
+            int rank = table.rank(bytes, starts[index], end - starts[index]);
+            return rank < 0 ? Integer.MAX_VALUE : rank;
+        }
+
+        private void emit(final int rank) {
+            if (tokens != null) {
+                if (count == tokens.length) {
+                    tokens = Arrays.copyOf(tokens, count * 2);
+                }
+                tokens[count] = rank;
+            }
+            count++;
+        }
+
+        private int utf8(final CharSequence text, final int start, final int end) {
+            if (bytes.length < (end - start) * 3) {
+                bytes = new byte[(end - start) * 3];
+            }
+            int length = 0;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogate, encoded as U+FFFD like String.getBytes
+                    bytes[length++] = (byte) 0xEF;
+                    bytes[length++] = (byte) 0xBF;
+                    bytes[length++] = (byte) 0xBD;
+                } else {
+                    bytes[length++] = (byte) (0xE0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            return length;
+        }
+    }
+}
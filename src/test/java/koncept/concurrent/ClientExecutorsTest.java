@@ -0,0 +1,37 @@
+package koncept.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+public class ClientExecutorsTest {
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testVirtualThreadsRunTasksOnVirtualThreads() throws Exception {
+        ClientExecutors executors = ClientExecutors.virtualThreads();
+
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executors.io()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(ClientExecutors.virtualThreadsSupported());
+        assertTrue(executors.usesVirtualThreads());
+        // Thread.isVirtual() is not part of the Java 17 API the tests are compiled against
+        assertEquals(true, Thread.class.getMethod("isVirtual").invoke(thread));
+        assertTrue(thread.getName().startsWith("koncept-virtual-"), thread.getName());
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    public void testVirtualThreadsAreUnsupportedBeforeJava21() {
+        assertFalse(ClientExecutors.virtualThreadsSupported());
+        assertThrows(UnsupportedOperationException.class, ClientExecutors::virtualThreads);
+    }
+}
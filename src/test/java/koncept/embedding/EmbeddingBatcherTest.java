@@ -0,0 +1,89 @@
+package koncept.embedding;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import koncept.json.JsonCodec;
+import koncept.openai.OpenAIAPIClient;
+import koncept.openai.model.EmbeddingModel;
+import koncept.openai.transport.TransportRequest;
+import koncept.openai.transport.TransportResponse;
+import org.junit.jupiter.api.Test;
+
+public class EmbeddingBatcherTest {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testRejectsBatchSizesAndDelaysTheEndpointCannotServe() {
+        EmbeddingBatcher.Builder builder = EmbeddingBatcher.builder(OpenAIAPIClient.builder().apiKey("sk-test").build(),
+            EmbeddingModel.TEXT_EMBEDDING_3_SMALL);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxBatchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxBatchSize(2049));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxDelay(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxDelay(null));
+        builder.maxBatchSize(2048).maxDelay(Duration.ZERO);
+    }
+
+    @Test
+    public void testMergesSingleTextsIntoBatchesAndSplitsTheVectors() throws Exception {
+        OpenAIAPIClient apiClient = OpenAIAPIClient.builder()
+            .transport(this::respond)
+            .baseUrl("http://localhost/v1")
+            .apiKey("sk-test")
+            .build();
+        List<CompletableFuture<float[]>> vectors = new ArrayList<>();
+        try (EmbeddingBatcher batcher = EmbeddingBatcher.builder(apiClient, EmbeddingModel.TEXT_EMBEDDING_3_SMALL)
+            .maxBatchSize(8)
+            .maxDelay(Duration.ofMillis(50))
+            .build()) {
+            for (int i = 0; i < 20; i++) {
+                vectors.add(batcher.embed("text " + i));
+            }
+            for (int i = 0; i < 20; i++) {
+                assertArrayEquals(new float[]{i, ("text " + i).length()}, vectors.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // the batches are sent concurrently, so they may arrive in any order
+        assertEquals(List.of(4, 8, 8), batchSizes.stream().sorted().toList());
+    }
+
+    /**
+     * Answers with base64 vectors of the number in each text and its length, as the API does for
+     * {@code encoding_format=base64}.
+     */
+    private TransportResponse respond(final TransportRequest request) throws java.io.IOException {
+        JsonNode body = JsonCodec.shared().mapper().readTree(request.body());
+        assertEquals("base64", body.get("encoding_format").asText());
+        StringBuilder data = new StringBuilder();
+        JsonNode inputs = body.get("input");
+        batchSizes.add(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            String text = inputs.get(i).asText();
+            ByteBuffer vector = ByteBuffer.allocate(2 * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putFloat(Float.parseFloat(text.substring("text ".length())))
+                .putFloat(text.length());
+            data.append(i == 0 ? "" : ",")
+                .append("{\"object\": \"embedding\", \"index\": ").append(i)
+                .append(", \"embedding\": \"").append(Base64.getEncoder().encodeToString(vector.array())).append("\"}");
+        }
+        String json = "{\"object\": \"list\", \"data\": [" + data + "], \"model\": \"text-embedding-3-small\"}";
+        return new TransportResponse(200, Map.of(), json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package koncept.hedge;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.KonceptAIClient;
+import koncept.openai.OpenAIAPIClient;
+import koncept.openai.transport.TransportRequest;
+import koncept.openai.transport.TransportResponse;
+import org.junit.jupiter.api.Test;
+
+public class HedgedRunTest {
+
+    public record Classification(String label) {
+    }
+
+    /**
+     * Runs of {@code asst_slow} stay in progress until cancelled, runs of {@code asst_fast} complete right away, and
+     * every thread is answered by the assistant that ran on it.
+     */
+    private final Map<String, String> assistantByThread = new ConcurrentHashMap<>();
+    private final Set<String> cancelledThreads = ConcurrentHashMap.newKeySet();
+    private final Set<String> deletedThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Test
+    public void testHedgeWinsWhenPrimaryIsLateAndPrimaryIsCancelled() throws Exception {
+        HedgedResult<Classification> result = newClient()
+            .sendAndRunMessageHedgedAsync("Is this spam?", Classification.class,
+                RunHedgePolicy.<Classification>of("asst_slow", "asst_fast", Duration.ofMillis(20)))
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals("asst_fast", result.assistantId());
+        assertEquals("spam from asst_fast", result.response().label());
+        assertTrue(result.hedgeStarted());
+        awaitThread(cancelledThreads, "thread_1");
+        awaitThread(deletedThreads, "thread_1");
+        assertFalse(deletedThreads.contains("thread_2"));
+    }
+
+    @Test
+    public void testRejectedPrimaryStartsHedgeWithoutWaitingForTheDelay() throws Exception {
+        HedgedResult<Classification> result = newClient()
+            .sendAndRunMessageHedgedAsync("Is this spam?", Classification.class,
+                RunHedgePolicy.<Classification>of("asst_fast", "asst_other_fast", Duration.ofMinutes(1))
+                    .withAcceptance(classification -> classification.label().endsWith("asst_other_fast")))
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals("asst_other_fast", result.assistantId());
+        assertEquals(2, threads.get());
+        assertFalse(cancelledThreads.contains("thread_1"));
+        awaitThread(deletedThreads, "thread_1");
+    }
+
+    @Test
+    public void testThrowingAcceptanceRejectsTheAttempt() throws Exception {
+        HedgedResult<Classification> result = newClient()
+            .sendAndRunMessageHedgedAsync("Is this spam?", Classification.class,
+                RunHedgePolicy.<Classification>of("asst_fast", "asst_other_fast", Duration.ofMinutes(1))
+                    .withAcceptance(classification -> {
+                        if (classification.label().endsWith(" asst_fast")) {
+                            throw new IllegalStateException("Unexpected label: " + classification.label());
+                        }
+                        return true;
+                    }))
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals("asst_other_fast", result.assistantId());
+        awaitThread(deletedThreads, "thread_1");
+        assertFalse(deletedThreads.contains("thread_2"));
+    }
+
+    private static void awaitThread(final Set<String> threadIds, final String threadId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!threadIds.contains(threadId) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(threadIds.contains(threadId));
+    }
+
+    private KonceptAIClient newClient() {
+        OpenAIAPIClient apiClient = OpenAIAPIClient.builder()
+            .transport(this::respond)
+            .baseUrl("http://localhost/v1")
+            .apiKey("sk-test")
+            .build();
+        return KonceptAIClient.builder(apiClient)
+            .pollInterval(Duration.ofMillis(5))
+            .maxPollAttempts(1000)
+            .build();
+    }
+
+    private TransportResponse respond(final TransportRequest request) {
+        String[] path = request.uri().getPath().split("/");
+        String body;
+        if (path.length == 3) {
+            body = "{\"id\": \"thread_" + threads.incrementAndGet() + "\"}";
+        } else if (path.length == 4 && request.method().name().equals("DELETE")) {
+            deletedThreads.add(path[3]);
+            body = "{\"id\": \"" + path[3] + "\", \"object\": \"thread.deleted\", \"deleted\": true}";
+        } else if (path.length == 5 && path[4].equals("runs")) {
+            String assistantId = new String(request.body(), StandardCharsets.UTF_8).replaceAll(".*\"assistant_id\":\"([^\"]+)\".*", "$1");
+            assistantByThread.put(path[3], assistantId);
+            body = run(path[3], "queued");
+        } else if (path.length == 7 && path[6].equals("cancel")) {
+            cancelledThreads.add(path[3]);
+            body = run(path[3], "cancelling");
+        } else if (path.length == 6) {
+            boolean slow = assistantByThread.get(path[3]).equals("asst_slow");
+            body = run(path[3], cancelledThreads.contains(path[3]) ? "cancelled" : slow ? "in_progress" : "completed");
+        } else if (request.method().name().equals("POST")) {
+            body = "{\"id\": \"msg_1\", \"role\": \"user\"}";
+        } else {
+            body = "{\"object\": \"list\", \"data\": [{\"id\": \"msg_2\", \"role\": \"assistant\", \"content\": [{\"type\": \"text\","
+                + " \"text\": {\"value\": \"{\\\"label\\\": \\\"spam from " + assistantByThread.get(path[3]) + "\\\"}\", \"annotations\": []}}]}]}";
+        }
+        return new TransportResponse(200, Map.of("content-type", List.of("application/json")), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String run(final String threadId, final String status) {
+        return "{\"id\": \"run_" + threadId + "\", \"thread_id\": \"" + threadId + "\", \"status\": \"" + status + "\"}";
+    }
+}
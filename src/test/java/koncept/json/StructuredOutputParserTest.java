@@ -0,0 +1,51 @@
+package koncept.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+public class StructuredOutputParserTest {
+
+    public record Classification(String label, double confidence, List<String> reasons) {
+    }
+
+    @Test
+    public void testPublishesFieldsBeforeDocumentIsComplete() throws Exception {
+        List<String> pointers = new ArrayList<>();
+        List<Classification> partials = new ArrayList<>();
+        StructuredOutputListener<Classification> listener = new StructuredOutputListener<>() {
+            @Override
+            public void onField(String pointer, JsonNode value) {
+                pointers.add(pointer);
+            }
+
+            @Override
+            public void onPartial(Classification partial) {
+                partials.add(partial);
+            }
+        };
+        try (StructuredOutputParser<Classification> parser = new StructuredOutputParser<>(Classification.class, listener)) {
+            parser.feed("{\"lab");
+            parser.feed("el\": \"sp");
+            assertEquals(List.of(), pointers);
+            parser.feed("am\", \"confidence\": 0.9");
+            assertEquals(List.of("/label"), pointers);
+            assertEquals("spam", partials.get(0).label());
+            assertNull(partials.get(0).reasons());
+
+            parser.feed("7, \"reasons\": [\"unsolicited\", \"lin");
+            parser.feed("ks\"]}");
+            Classification result = parser.complete();
+
+            assertEquals(List.of("/label", "/confidence", "/reasons/0", "/reasons/1", "/reasons", ""), pointers);
+            assertEquals(3, partials.size());
+            assertEquals(0.97, result.confidence());
+            assertEquals(List.of("unsolicited", "links"), result.reasons());
+        }
+    }
+}
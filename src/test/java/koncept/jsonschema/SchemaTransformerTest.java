@@ -0,0 +1,48 @@
+package koncept.jsonschema;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import koncept.openai.function.NamedParam;
+import koncept.openai.function.ToolFunction;
+import org.junit.jupiter.api.Test;
+
+public class SchemaTransformerTest {
+
+    public record Classification(String label, List<String> reasons) {
+    }
+
+    @ToolFunction(name = "schema_test_tool")
+    public static String schemaTestTool(@NamedParam("labels") List<String> labels, @NamedParam("limit") int limit) {
+        return labels.subList(0, limit).toString();
+    }
+
+    @Test
+    public void testSchemaIsCachedPerClass() {
+        ObjectNode first = SchemaTransformer.toJSONSchema(Classification.class);
+        ObjectNode second = SchemaTransformer.toJSONSchema(Classification.class);
+        assertSame(first, second);
+        assertEquals("object", first.get("type").asText());
+    }
+
+    @Test
+    public void testCachedSchemaIsImmutable() {
+        ObjectNode schema = SchemaTransformer.toJSONSchema(Classification.class);
+        assertThrows(UnsupportedOperationException.class, () -> schema.put("type", "array"));
+        assertThrows(UnsupportedOperationException.class, () -> ((ObjectNode) schema.get("properties")).remove("label"));
+    }
+
+    @Test
+    public void testToolParametersSchema() throws NoSuchMethodException {
+        Method method = SchemaTransformerTest.class.getMethod("schemaTestTool", List.class, int.class);
+        ObjectNode schema = SchemaTransformer.toToolParametersSchema(method);
+        assertEquals("array", schema.get("properties").get("labels").get("type").asText());
+        assertEquals("integer", schema.get("properties").get("limit").get("type").asText());
+        assertEquals(2, schema.get("required").size());
+    }
+}
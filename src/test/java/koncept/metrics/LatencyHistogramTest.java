@@ -0,0 +1,47 @@
+package koncept.metrics;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        assertEquals(100_000, histogram.count());
+        assertWithinPrecision(50_000_000, histogram.percentile(50));
+        assertWithinPrecision(99_000_000, histogram.percentile(99));
+        assertEquals(100_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value : new long[]{0, 1, 127, 128, 129, 255, 256, 1_000_000_007L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestEquivalentValue(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testEndpointNamesReplaceIds() {
+        assertEquals("GET /v1/threads/{id}/runs/{id}",
+            EndpointNames.of("GET", URI.create("https://api.openai.com/v1/threads/thread_abc/runs/run_def")));
+        assertEquals("POST /v1/threads/{id}/runs/{id}/submit_tool_outputs",
+            EndpointNames.of("POST", URI.create("https://api.openai.com/v1/threads/thread_abc/runs/run_def/submit_tool_outputs")));
+        assertEquals("POST /v1/threads", EndpointNames.of("POST", URI.create("https://api.openai.com/v1/threads")));
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.016, "expected ~" + expected + " but was " + actual);
+    }
+}
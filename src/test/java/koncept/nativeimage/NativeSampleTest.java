@@ -0,0 +1,89 @@
+package koncept.nativeimage;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import koncept.json.JsonCodec;
+import koncept.jsonschema.PrecomputedSchema;
+import koncept.jsonschema.SchemaTransformer;
+import koncept.openai.function.ToolRegistry;
+import koncept.openai.model.RunStatus;
+import koncept.openai.model.SubmitToolOutputsRunRequest;
+import koncept.openai.model.ToolCall;
+import koncept.openai.model.ToolOutput;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.condition.EnabledInNativeImage;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A tool round as a native function would run it: decode a run waiting for tool outputs, dispatch the call to a
+ * registered tool and encode the outputs, and describe a response type by its precomputed schema. Built and run as a
+ * native image by {@code mvn -Pnative test}, which also precomputes the schemas of this package.
+ */
+@Tag("native")
+public class NativeSampleTest {
+
+    @PrecomputedSchema
+    public record Forecast(String city, int temperature) {
+    }
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+
+    @Test
+    public void testToolRoundWithRegisteredTool() throws Exception {
+        ToolRegistry.register("native_sample_weather", arguments -> "Sunny in " + arguments.get("city"));
+        String json = """
+            {"id": "run_1", "status": "requires_action",
+             "required_action": {"type": "submit_tool_outputs", "submit_tool_outputs": {"tool_calls": [
+                {"id": "call_1", "type": "function", "function": {"name": "native_sample_weather", "arguments": "{\\"city\\": \\"Oslo\\"}"}}
+             ]}}}
+            """;
+
+        RunStatus runStatus = jsonCodec.reader(RunStatus.class).readValue(json);
+        ToolCall call = runStatus.requiredAction().submitToolOutputs().toolCalls().get(0);
+        Object result = ToolRegistry.invokeToolAsync(call.function().name(), call.function().arguments()).join();
+        SubmitToolOutputsRunRequest outputs = new SubmitToolOutputsRunRequest(List.of(new ToolOutput(call.id(), (String) result)), null);
+
+        assertEquals("{\"tool_outputs\":[{\"tool_call_id\":\"call_1\",\"output\":\"Sunny in Oslo\"}],\"stream\":null}",
+            jsonCodec.writerFor(outputs).writeValueAsString(outputs));
+    }
+
+    @Test
+    public void testSchemaOfResponseType() {
+        assertEquals("{\"type\":\"object\",\"properties\":{\"city\":{\"type\":\"string\"},\"temperature\":{\"type\":\"integer\",\"format\":\"int32\"}},"
+                + "\"required\":[\"city\",\"temperature\"],\"additionalProperties\":false}",
+            SchemaTransformer.toJSONSchema(Forecast.class).toString());
+    }
+
+    @Test
+    @EnabledInNativeImage
+    public void testSchemaIsPrecomputedInNativeImage() throws Exception {
+        // loaded from the image instead of being generated by reflection
+        try (InputStream schema = getClass().getClassLoader()
+            .getResourceAsStream("META-INF/koncept/schemas/" + Forecast.class.getName() + ".json")) {
+            assertNotNull(schema);
+        }
+    }
+
+    @Test
+    @DisabledInNativeImage
+    public void testShippedMetadataIsUpToDate(@TempDir final Path outputDirectory) throws Exception {
+        String resourceName = ReachabilityMetadataGenerator.reflectConfigResourceName("koncept/KonceptAIClient");
+        Path generated = new ReachabilityMetadataGenerator(outputDirectory, "koncept/KonceptAIClient")
+            .generate("koncept.openai.model", "koncept.openai.transport");
+
+        try (InputStream shipped = getClass().getClassLoader().getResourceAsStream(resourceName)) {
+            assertNotNull(shipped, resourceName);
+            // regenerate with: ReachabilityMetadataGenerator src/main/resources koncept/KonceptAIClient koncept.openai.model koncept.openai.transport
+            assertArrayEquals(shipped.readAllBytes(), Files.readAllBytes(generated));
+        }
+    }
+}
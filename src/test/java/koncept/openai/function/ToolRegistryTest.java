@@ -3,9 +3,12 @@ package koncept.openai.function;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -31,6 +34,11 @@ public class ToolRegistryTest {
         return "expectedResult with " + paramName;
     }
 
+    @ToolFunction(name = "async_tool")
+    public static CompletableFuture<String> asyncTool(@NamedParam("paramName") String paramName) {
+        return CompletableFuture.supplyAsync(() -> "expectedResult with " + paramName);
+    }
+
     @Test
     public void testInvokeToolWithValidStaticMethod() {
         Map<String, Object> parametersMap = new HashMap<>();
@@ -63,6 +71,53 @@ public class ToolRegistryTest {
         assertEquals("expectedResult with [VALUE1, VALUE2]", result);
     }
 
+    @Test
+    public void testInvokeToolAsyncComposesReturnedFuture() {
+        Map<String, Object> parametersMap = new HashMap<>();
+        parametersMap.put("paramName", "expectedValue");
+        Object result = ToolRegistry.invokeToolAsync("async_tool", parametersMap).join();
+        assertEquals("expectedResult with expectedValue", result);
+    }
+
+    @Test
+    public void testInvokeToolAsyncWithSynchronousMethod() {
+        Map<String, Object> parametersMap = new HashMap<>();
+        parametersMap.put("paramName", "expectedValue");
+        Object result = ToolRegistry.invokeToolAsync("static_tool", parametersMap).join();
+        assertEquals("expectedResult with expectedValue", result);
+    }
+
+    @Test
+    public void testRegisteredHandlerIsInvokedAndReplacesTool() {
+        ToolRegistry.register("registered_tool", arguments -> "handled " + arguments.get("paramName"));
+
+        assertEquals("handled expectedValue", ToolRegistry.invokeTool("registered_tool", Map.of("paramName", "expectedValue")));
+
+        ToolRegistry.registerAnnotated(RegisteredTools.class);
+
+        assertEquals("annotated expectedValue", ToolRegistry.invokeTool("registered_tool", Map.of("paramName", "expectedValue")));
+    }
+
+    @Test
+    public void testReplacingToolIsNeverSeenAsMissing() throws Exception {
+        AtomicBoolean replacing = new AtomicBoolean(true);
+        Thread replacer = new Thread(() -> {
+            while (replacing.get()) {
+                ToolRegistry.register("registered_tool", arguments -> "handled " + arguments.get("paramName"));
+                ToolRegistry.registerAnnotated(RegisteredTools.class);
+            }
+        });
+        replacer.start();
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                assertTrue(ToolRegistry.invokeTool("registered_tool", Map.of("paramName", "x")).toString().endsWith(" x"));
+            }
+        } finally {
+            replacing.set(false);
+            replacer.join();
+        }
+    }
+
     @Test
     public void testInvokeToolMethodNotFound() {
         Map<String, Object> parametersMap = new HashMap<>();
@@ -72,6 +127,14 @@ public class ToolRegistryTest {
         });
     }
 
+    public static class RegisteredTools {
+
+        @ToolFunction(name = "registered_tool")
+        public String registeredTool(@NamedParam("paramName") String paramName) {
+            return "annotated " + paramName;
+        }
+    }
+
     public enum TestEnum {
         VALUE1, VALUE2, VALUE3
     }
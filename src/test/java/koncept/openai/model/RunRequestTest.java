@@ -0,0 +1,28 @@
+package koncept.openai.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import koncept.json.JsonCodec;
+import org.junit.jupiter.api.Test;
+
+public class RunRequestTest {
+
+    @Test
+    public void testSerializesOnlySetOptions() throws Exception {
+        RunOptions defaults = RunOptions.defaults()
+            .withTruncationStrategy(TruncationStrategy.lastMessages(10))
+            .withMaxPromptTokens(2000);
+        RunOptions perCall = RunOptions.defaults()
+            .withMaxPromptTokens(500)
+            .withParallelToolCalls(false);
+
+        RunRequest runRequest = new RunRequest("asst_1", defaults.overriddenBy(perCall)).withStream(true);
+
+        assertEquals("{\"assistant_id\":\"asst_1\",\"stream\":true,"
+                + "\"truncation_strategy\":{\"type\":\"last_messages\",\"last_messages\":10},"
+                + "\"max_prompt_tokens\":500,\"parallel_tool_calls\":false}",
+            JsonCodec.shared().writerFor(runRequest).writeValueAsString(runRequest));
+        assertEquals("{\"assistant_id\":\"asst_1\"}",
+            JsonCodec.shared().writerFor(runRequest).writeValueAsString(new RunRequest("asst_1", RunOptions.defaults())));
+    }
+}
@@ -0,0 +1,52 @@
+package koncept.openai.model.deserializer;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.json.JsonCodec;
+import koncept.openai.model.EmbeddingStorage;
+import koncept.openai.model.Embeddings;
+import org.junit.jupiter.api.Test;
+
+public class EmbeddingsDeserializerTest {
+
+    @Test
+    public void testDecodesNumberArraysByIndexIntoDirectStorage() throws Exception {
+        String json = """
+            {"object": "list", "data": [
+              {"object": "embedding", "index": 1, "embedding": [0.5, -1.25, 3]},
+              {"object": "embedding", "embedding": [1, 2, 3], "index": 0, "extra": {"nested": [1, 2]}}
+            ], "model": "text-embedding-3-small", "usage": {"prompt_tokens": 4, "total_tokens": 4}}
+            """;
+
+        Embeddings embeddings = JsonCodec.shared().reader(Embeddings.class)
+            .withAttribute(Embeddings.STORAGE_ATTRIBUTE, EmbeddingStorage.DIRECT)
+            .readValue(json);
+
+        assertTrue(embeddings.isDirect());
+        assertEquals(2, embeddings.count());
+        assertEquals(3, embeddings.dimensions());
+        assertArrayEquals(new float[]{1, 2, 3}, embeddings.vector(0));
+        assertArrayEquals(new float[]{0.5f, -1.25f, 3}, embeddings.vector(1));
+        assertEquals(-1.25f, embeddings.buffer(1).get(1));
+        assertEquals("text-embedding-3-small", embeddings.model());
+        assertEquals(4, embeddings.usage().promptTokens());
+    }
+
+    @Test
+    public void testRejectsDuplicateAndMissingIndexes() {
+        String duplicate = """
+            {"data": [{"index": 0, "embedding": [1, 2]}, {"index": 0, "embedding": [3, 4]}]}
+            """;
+        String missing = """
+            {"data": [{"index": 0, "embedding": [1, 2]}, {"index": 2, "embedding": [3, 4]}]}
+            """;
+
+        assertThrows(IOException.class, () -> JsonCodec.shared().reader(Embeddings.class).readValue(duplicate));
+        assertThrows(IOException.class, () -> JsonCodec.shared().reader(Embeddings.class).readValue(missing));
+    }
+}
@@ -0,0 +1,43 @@
+package koncept.openai.model.deserializer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import koncept.json.JsonCodec;
+import koncept.openai.model.RunStatus;
+import org.junit.jupiter.api.Test;
+
+public class RunStatusDeserializerTest {
+
+    private final JsonCodec jsonCodec = JsonCodec.shared();
+
+    @Test
+    public void testSkipsUnrelatedFields() throws Exception {
+        String json = """
+            {"id": "run_1", "object": "thread.run", "created_at": 1700000000, "status": "in_progress",
+             "instructions": "Be helpful", "tools": [{"type": "function", "function": {"name": "f", "parameters": {}}}],
+             "metadata": {"a": {"b": [1, 2, 3]}}, "required_action": null, "last_error": null, "usage": null}
+            """;
+        RunStatus runStatus = jsonCodec.reader(RunStatus.class).readValue(json);
+        assertEquals("run_1", runStatus.id());
+        assertEquals("in_progress", runStatus.status());
+        assertNull(runStatus.requiredAction());
+        assertNull(runStatus.lastError());
+    }
+
+    @Test
+    public void testDecodesRequiredActionAndError() throws Exception {
+        String json = """
+            {"id": "run_2", "tools": [], "status": "requires_action",
+             "last_error": {"code": "rate_limit_exceeded", "message": "slow down"},
+             "required_action": {"type": "submit_tool_outputs", "submit_tool_outputs": {"tool_calls": [
+                {"id": "call_1", "type": "function", "function": {"name": "static_tool", "arguments": "{\\"paramName\\": \\"x\\"}"}}
+             ]}}}
+            """;
+        RunStatus runStatus = jsonCodec.reader(RunStatus.class).readValue(json);
+        assertEquals("requires_action", runStatus.status());
+        assertEquals("rate_limit_exceeded", runStatus.lastError().code());
+        assertEquals("call_1", runStatus.requiredAction().submitToolOutputs().toolCalls().get(0).id());
+        assertEquals("x", runStatus.requiredAction().submitToolOutputs().toolCalls().get(0).function().arguments().get("paramName"));
+    }
+}
@@ -0,0 +1,66 @@
+package koncept.openai.trace;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.openai.HttpMethod;
+import koncept.openai.transport.TransportRequest;
+import koncept.openai.transport.TransportResponse;
+import org.junit.jupiter.api.Test;
+
+public class HttpTracerTest {
+
+    private static final String API_KEY = "sk-proj-0123456789abcdefghij";
+
+    @Test
+    public void testRedactsCredentialsAndTruncatesBodies() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        TransportRequest request = request("/v1/threads/thread_1/runs", "{\"key\":\"" + API_KEY + "\"}");
+        TransportResponse response = new TransportResponse(200, Map.of("set-cookie", List.of("session=1")), new byte[0]);
+
+        try (HttpTracer tracer = HttpTracer.builder().maxBodyLength(40).sink(lines::add).build()) {
+            long exchangeId = tracer.traceRequest(request);
+            tracer.traceResponse(exchangeId, request, response, "x".repeat(100).getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(2, lines.size());
+        String traced = String.join("\n", lines);
+        assertFalse(traced.contains(API_KEY));
+        assertFalse(traced.contains("session=1"));
+        assertTrue(lines.get(0).contains("Authorization=" + TraceRedactor.REDACTED));
+        assertTrue(lines.get(0).contains("{\"key\":\"" + TraceRedactor.REDACTED + "\"}"));
+        assertTrue(lines.get(1).endsWith("x".repeat(40) + "... (truncated, 100 bytes)"));
+    }
+
+    @Test
+    public void testPerRunSamplingIsConsistentAcrossRequestsOfARun() {
+        TraceSampler sampler = TraceSampler.perRun(0.5);
+        int sampledRuns = 0;
+        for (int run = 0; run < 1000; run++) {
+            String thread = "/v1/threads/thread_" + run;
+            boolean sampled = sampler.sample(request(thread + "/messages", ""));
+            assertEquals(sampled, sampler.sample(request(thread + "/runs", "")));
+            assertEquals(sampled, sampler.sample(request(thread + "/runs/run_" + run, "")));
+            assertEquals(sampled, sampler.sample(request(thread + "/runs/run_" + run + "/submit_tool_outputs", "")));
+            sampledRuns += sampled ? 1 : 0;
+        }
+        assertTrue(sampledRuns > 400 && sampledRuns < 600, "sampled " + sampledRuns + " of 1000 runs");
+    }
+
+    @Test
+    public void testDisabledTracerSamplesNothing() {
+        assertEquals(HttpTracer.NOT_SAMPLED, HttpTracer.disabled().traceRequest(request("/v1/threads", "")));
+    }
+
+    private static TransportRequest request(final String path, final String body) {
+        return new TransportRequest(HttpMethod.POST, URI.create("http://localhost" + path),
+            Map.of("Authorization", "Bearer " + API_KEY), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
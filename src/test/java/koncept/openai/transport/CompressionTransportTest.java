@@ -0,0 +1,89 @@
+package koncept.openai.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.metrics.CompressionSnapshot;
+import koncept.metrics.InMemoryClientMetrics;
+import koncept.openai.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+public class CompressionTransportTest {
+
+    private static final String ENDPOINT = "POST /v1/threads/{id}/messages";
+
+    private final InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+    private final AtomicReference<TransportRequest> sent = new AtomicReference<>();
+
+    @Test
+    public void testCompressesLargeRequestsAndDecompressesResponses() throws Exception {
+        byte[] body = "{\"content\": \"%s\"}".formatted("lorem ipsum ".repeat(1000)).getBytes(StandardCharsets.UTF_8);
+        CompressionTransport transport = new CompressionTransport(this::echoGzip, CompressionPolicy.defaults(), metrics);
+
+        TransportResponse response = transport.send(request(body));
+
+        assertEquals("gzip", sent.get().headers().get("Accept-Encoding"));
+        assertEquals("gzip", sent.get().headers().get("Content-Encoding"));
+        assertArrayEquals(body, gunzip(sent.get().body()));
+        assertNull(response.header("Content-Encoding"));
+        assertArrayEquals(body, response.readBody());
+        CompressionSnapshot requests = metrics.snapshot().compression().get(ENDPOINT + " request");
+        CompressionSnapshot responses = metrics.snapshot().compression().get(ENDPOINT + " response");
+        assertEquals(body.length, requests.uncompressedBytes());
+        assertEquals(sent.get().body().length, requests.compressedBytes());
+        assertEquals(body.length, responses.uncompressedBytes());
+        assertTrue(responses.ratio() > 10);
+    }
+
+    @Test
+    public void testSmallRequestsAndPlainResponsesPassUnchanged() throws Exception {
+        byte[] body = "{\"role\": \"user\", \"content\": \"hi\"}".getBytes(StandardCharsets.UTF_8);
+        CompressionTransport transport = new CompressionTransport(this::echoPlain, CompressionPolicy.defaults(), metrics);
+
+        TransportResponse response = transport.send(request(body));
+
+        assertFalse(sent.get().headers().containsKey("Content-Encoding"));
+        assertArrayEquals(body, sent.get().body());
+        assertArrayEquals(body, response.readBody());
+        assertTrue(metrics.snapshot().compression().isEmpty());
+    }
+
+    private TransportResponse echoGzip(final TransportRequest request) throws IOException {
+        sent.set(request);
+        byte[] body = gunzip(request.body());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return new TransportResponse(200, Map.of("Content-Encoding", List.of("gzip")), compressed.toByteArray());
+    }
+
+    private TransportResponse echoPlain(final TransportRequest request) {
+        sent.set(request);
+        return new TransportResponse(200, Map.of(), request.body());
+    }
+
+    private static TransportRequest request(final byte[] body) {
+        return new TransportRequest(HttpMethod.POST, URI.create("https://api.openai.com/v1/threads/thread_1/messages"), Map.of(), body);
+    }
+
+    private static byte[] gunzip(final byte[] compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package koncept.openai.transport;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import koncept.openai.HttpMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class HedgingTransportTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch stalledReleased = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    public void releaseStalledExchange() {
+        stalledReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testStalledReadIsAnsweredByTheDuplicate() throws Exception {
+        HedgingTransport transport = new HedgingTransport(this::stallEleventhCall, policy(1.0));
+        warmUp(transport);
+
+        TransportResponse response = transport.send(request(HttpMethod.GET));
+
+        assertEquals("call 12", new String(response.readBody(), StandardCharsets.UTF_8));
+        assertEquals(1, transport.hedged());
+        assertEquals(1, transport.hedgesWon());
+    }
+
+    @Test
+    public void testHedgeRateCapAndWritesAreNeverDuplicated() throws Exception {
+        HedgingTransport transport = new HedgingTransport(this::stallEleventhCall, policy(0.0));
+        warmUp(transport);
+        Thread release = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            stalledReleased.countDown();
+        });
+        release.start();
+
+        TransportResponse response = transport.send(request(HttpMethod.GET));
+        transport.send(request(HttpMethod.POST));
+
+        assertEquals("call 11", new String(response.readBody(), StandardCharsets.UTF_8));
+        assertEquals(0, transport.hedged());
+        assertEquals(12, calls.get());
+    }
+
+    private HedgingPolicy policy(final double maxHedgeRate) {
+        return HedgingPolicy.defaults()
+            .withMinSamples(10)
+            .withMinDelay(Duration.ofMillis(20))
+            .withMaxHedgeRate(maxHedgeRate)
+            .withExecutor(executor);
+    }
+
+    private static void warmUp(final HedgingTransport transport) throws Exception {
+        for (int i = 0; i < 10; i++) {
+            transport.send(request(HttpMethod.GET)).readBody();
+        }
+    }
+
+    private TransportResponse stallEleventhCall(final TransportRequest request) throws InterruptedException {
+        int call = calls.incrementAndGet();
+        if (call == 11) {
+            stalledReleased.await(5, TimeUnit.SECONDS);
+        }
+        return new TransportResponse(200, Map.of("content-type", List.of("text/plain")), ("call " + call).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TransportRequest request(final HttpMethod method) {
+        return new TransportRequest(method, URI.create("http://localhost/v1/threads/t/runs/r"), Map.of(), new byte[0]);
+    }
+}
@@ -0,0 +1,82 @@
+package koncept.openai.transport;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sun.net.httpserver.HttpServer;
+import koncept.openai.HttpMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MultipartBodyTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testStreamsFieldsAndFileWithKnownLength() throws Exception {
+        Path file = Files.writeString(directory.resolve("notes \"v2\".txt"), "line one\nline two\n");
+        MultipartBody body = new MultipartBody()
+            .field("purpose", "assistants")
+            .file("file", file, "text/plain");
+        String boundary = body.contentType().substring("multipart/form-data; boundary=".length());
+
+        byte[] bytes;
+        try (InputStream content = body.open()) {
+            bytes = content.readAllBytes();
+        }
+
+        assertEquals(bytes.length, body.contentLength());
+        assertEquals("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"purpose\"\r\n\r\n"
+            + "assistants\r\n"
+            + "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"notes %22v2%22.txt\"\r\n"
+            + "Content-Type: text/plain\r\n\r\n"
+            + "line one\nline two\n\r\n"
+            + "--" + boundary + "--\r\n", new String(bytes, StandardCharsets.UTF_8));
+        assertArrayEquals(bytes, new TransportRequest(HttpMethod.POST, URI.create("http://localhost/v1/files"), Map.of(),
+            new byte[0], RequestClass.INTERACTIVE, body).readBody());
+    }
+
+    @Test
+    public void testJdkTransportSendsStreamedBodyWithContentLength() throws Exception {
+        Path file = Files.write(directory.resolve("data.bin"), new byte[256 * 1024]);
+        MultipartBody body = new MultipartBody().file("file", file);
+        CompletableFuture<String> contentLength = new CompletableFuture<>();
+        CompletableFuture<byte[]> received = new CompletableFuture<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/files", exchange -> {
+            contentLength.complete(exchange.getRequestHeaders().getFirst("Content-Length"));
+            received.complete(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/files");
+            TransportResponse response = new JdkHttpTransport().send(new TransportRequest(HttpMethod.POST, uri,
+                Map.of("Content-Type", body.contentType()), new byte[0], RequestClass.INTERACTIVE, body));
+            response.readBody();
+
+            assertEquals(200, response.statusCode());
+            assertEquals(String.valueOf(body.contentLength()), contentLength.get(5, TimeUnit.SECONDS));
+            try (InputStream content = body.open()) {
+                assertArrayEquals(content.readAllBytes(), received.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package koncept.openai.transport;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.metrics.ClientMetrics;
+import koncept.openai.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+public class QosTransportTest {
+
+    private final List<RequestClass> dispatched = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch firstRequestReleased = new CountDownLatch(1);
+
+    @Test
+    public void testInteractiveRequestOvertakesQueuedBulkWork() throws Exception {
+        QosTransport transport = new QosTransport(this::blockFirstRequest, QosPolicy.builder()
+            .maxConcurrency(1)
+            .scheduling(QosPolicy.Scheduling.PRIORITY)
+            .build(), ClientMetrics.noop());
+
+        List<Thread> senders = new ArrayList<>();
+        senders.add(send(transport, RequestClass.BULK));
+        awaitInFlight(transport, RequestClass.BULK, 1);
+        for (int i = 0; i < 3; i++) {
+            senders.add(send(transport, RequestClass.BULK));
+        }
+        awaitQueued(transport, RequestClass.BULK, 3);
+        senders.add(send(transport, RequestClass.INTERACTIVE));
+        awaitQueued(transport, RequestClass.INTERACTIVE, 1);
+
+        firstRequestReleased.countDown();
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        assertEquals(List.of(RequestClass.BULK, RequestClass.INTERACTIVE, RequestClass.BULK, RequestClass.BULK, RequestClass.BULK), dispatched);
+    }
+
+    @Test
+    public void testSharesSlotsByWeightWhileBothLanesAreBacklogged() throws Exception {
+        QosTransport transport = new QosTransport(this::blockFirstRequest, QosPolicy.builder()
+            .maxConcurrency(1)
+            .lane(RequestClass.INTERACTIVE, 1, 3)
+            .lane(RequestClass.BULK, 1, 1)
+            .build(), ClientMetrics.noop());
+
+        List<Thread> senders = new ArrayList<>();
+        senders.add(send(transport, RequestClass.INTERACTIVE));
+        awaitInFlight(transport, RequestClass.INTERACTIVE, 1);
+        for (int i = 0; i < 8; i++) {
+            senders.add(send(transport, RequestClass.BULK));
+            senders.add(send(transport, RequestClass.INTERACTIVE));
+        }
+        awaitQueued(transport, RequestClass.BULK, 8);
+        awaitQueued(transport, RequestClass.INTERACTIVE, 8);
+
+        firstRequestReleased.countDown();
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        List<RequestClass> firstEight = dispatched.subList(1, 9);
+        assertEquals(6, Collections.frequency(firstEight, RequestClass.INTERACTIVE));
+        assertEquals(2, Collections.frequency(firstEight, RequestClass.BULK));
+    }
+
+    @Test
+    public void testInterruptedCallerHandsOnItsTurnUnderTheRateLimit() throws Exception {
+        AtomicLong nanoTime = new AtomicLong();
+        QosTransport transport = new QosTransport(request -> new TransportResponse(200, Map.of(), new byte[0]), QosPolicy.builder()
+            .requestsPerSecond(1.0 / 60)
+            .build(), ClientMetrics.noop(), nanoTime::get);
+        transport.send(request(RequestClass.BULK));
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread head = new Thread(() -> {
+            try {
+                transport.send(request(RequestClass.BULK));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        head.setDaemon(true);
+        head.start();
+        awaitQueued(transport, RequestClass.BULK, 1);
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread next = new Thread(() -> {
+            try {
+                transport.send(request(RequestClass.BULK));
+                admitted.countDown();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        next.setDaemon(true);
+        next.start();
+        awaitQueued(transport, RequestClass.BULK, 2);
+
+        // the next permit is due, but both callers sleep for a minute unless one of them is woken up
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        head.interrupt();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(admitted.await(5, TimeUnit.SECONDS), "the caller queued behind the interrupted one was never admitted");
+        assertEquals(0, transport.queued(RequestClass.BULK));
+    }
+
+    private TransportResponse blockFirstRequest(final TransportRequest request) throws InterruptedException {
+        boolean first;
+        synchronized (dispatched) {
+            first = dispatched.isEmpty();
+            dispatched.add(request.requestClass());
+        }
+        if (first) {
+            firstRequestReleased.await(5, TimeUnit.SECONDS);
+        }
+        return new TransportResponse(200, Map.of(), new byte[0]);
+    }
+
+    private static TransportRequest request(final RequestClass requestClass) {
+        return new TransportRequest(HttpMethod.GET, URI.create("http://localhost/v1/threads/t/runs/r"), Map.of(), new byte[0], requestClass);
+    }
+
+    private static Thread send(final QosTransport transport, final RequestClass requestClass) {
+        TransportRequest request = request(requestClass);
+        Thread sender = new Thread(() -> {
+            try {
+                transport.send(request);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        sender.start();
+        return sender;
+    }
+
+    private static void awaitQueued(final QosTransport transport, final RequestClass requestClass, final int queued) throws InterruptedException {
+        while (transport.queued(requestClass) < queued) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitInFlight(final QosTransport transport, final RequestClass requestClass, final int inFlight) throws InterruptedException {
+        while (transport.inFlight(requestClass) < inFlight) {
+            Thread.sleep(1);
+        }
+    }
+}
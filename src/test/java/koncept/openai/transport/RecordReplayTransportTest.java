@@ -0,0 +1,150 @@
+package koncept.openai.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.KonceptAIClient;
+import koncept.openai.OpenAIAPIClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RecordReplayTransportTest {
+
+    public record Classification(String label) {
+    }
+
+    @TempDir
+    Path recordings;
+
+    @Test
+    public void testReplaysRecordedConversationOffline() throws IOException {
+        AtomicInteger stubCalls = new AtomicInteger();
+        HttpTransport stub = request -> {
+            stubCalls.incrementAndGet();
+            return respond(request);
+        };
+        Classification recorded = newClient(new RecordingTransport(stub, recordings))
+            .sendAndRunMessage("Is this spam?", "thread_1", "asst_1", Classification.class);
+        int recordedCalls = stubCalls.get();
+
+        List<Path> files;
+        try (var listing = Files.list(recordings)) {
+            files = listing.toList();
+        }
+        assertEquals(recordedCalls, files.size());
+        for (Path file : files) {
+            assertFalse(Files.readString(file).contains("sk-test"));
+        }
+
+        ReplayTransport replay = ReplayTransport.fromDirectory(recordings, LatencyModel.fixed(Duration.ofMillis(1)));
+        Classification replayed = newClient(replay)
+            .sendAndRunMessage("Is this spam?", "thread_1", "asst_1", Classification.class);
+
+        assertEquals("spam", recorded.label());
+        assertEquals(recorded, replayed);
+        assertEquals(recordedCalls, stubCalls.get());
+    }
+
+    @Test
+    public void testRecordsGzipEncodedExchangesDecodedForReplayWithCompression() throws IOException {
+        AtomicInteger compressedRequests = new AtomicInteger();
+        HttpTransport gzipServer = request -> {
+            if ("gzip".equals(request.headers().get("Content-Encoding"))) {
+                compressedRequests.incrementAndGet();
+            }
+            TransportResponse response = respond(request);
+            if (!"gzip".equals(request.headers().get("Accept-Encoding"))) {
+                return response;
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(response.readBody());
+            }
+            return new TransportResponse(200, Map.of("content-type", List.of("application/json"), "content-encoding", List.of("gzip")),
+                compressed.toByteArray());
+        };
+        String content = "Is this spam? " + "Buy now! ".repeat(2000);
+        Classification recorded = newClient(new RecordingTransport(gzipServer, recordings), CompressionPolicy.defaults())
+            .sendAndRunMessage(content, "thread_1", "asst_1", Classification.class);
+
+        assertEquals(1, compressedRequests.get());
+        List<Path> files;
+        try (var listing = Files.list(recordings)) {
+            files = listing.toList();
+        }
+        boolean messageRecorded = false;
+        for (Path file : files) {
+            String recording = Files.readString(file);
+            assertFalse(recording.toLowerCase().contains("content-encoding"), recording);
+            messageRecorded |= recording.contains("Buy now! Buy now!");
+        }
+        assertTrue(messageRecorded);
+
+        ReplayTransport replay = ReplayTransport.fromDirectory(recordings, LatencyModel.none());
+        Classification replayed = newClient(replay, CompressionPolicy.defaults())
+            .sendAndRunMessage(content, "thread_1", "asst_1", Classification.class);
+
+        assertEquals("spam", recorded.label());
+        assertEquals(recorded, replayed);
+    }
+
+    @Test
+    public void testServesLastExchangeOnceRecordingsRunOut() throws Exception {
+        ReplayTransport replay = new ReplayTransport(List.of(
+            new RecordedExchange("GET", "/v1/threads/t/runs/r", "", 200, Map.of(), "{\"status\":\"queued\"}", 5),
+            new RecordedExchange("GET", "/v1/threads/t/runs/r", "", 200, Map.of(), "{\"status\":\"completed\"}", 5)
+        ), LatencyModel.none());
+        OpenAIAPIClient client = OpenAIAPIClient.builder().transport(replay).baseUrl("http://localhost/v1").apiKey("sk-test").build();
+
+        assertEquals("queued", client.getRunStatus("t", "r").status());
+        assertEquals("completed", client.getRunStatus("t", "r").status());
+        assertEquals("completed", client.getRunStatus("t", "r").status());
+        assertEquals("completed", client.getRun("t", "r").status());
+    }
+
+    private KonceptAIClient newClient(final HttpTransport transport) {
+        return newClient(transport, null);
+    }
+
+    private KonceptAIClient newClient(final HttpTransport transport, final CompressionPolicy compression) {
+        OpenAIAPIClient apiClient = OpenAIAPIClient.builder()
+            .transport(transport)
+            .baseUrl("http://localhost/v1")
+            .apiKey("sk-test")
+            .compression(compression)
+            .build();
+        return KonceptAIClient.builder(apiClient)
+            .pollInterval(Duration.ofMillis(10))
+            .build();
+    }
+
+    private static TransportResponse respond(final TransportRequest request) {
+        String path = request.uri().getPath();
+        String body;
+        if (path.endsWith("/runs")) {
+            body = "{\"id\": \"run_1\", \"status\": \"queued\"}";
+        } else if (path.endsWith("/runs/run_1")) {
+            body = "{\"id\": \"run_1\", \"status\": \"completed\"}";
+        } else if (request.method().name().equals("POST")) {
+            body = "{\"id\": \"msg_1\", \"role\": \"user\"}";
+        } else {
+            body = """
+                {"object": "list", "data": [{"id": "msg_2", "role": "assistant",
+                 "content": [{"type": "text", "text": {"value": "{\\"label\\": \\"spam\\"}", "annotations": []}}]}]}
+                """;
+        }
+        return new TransportResponse(200, Map.of("content-type", List.of("application/json")), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
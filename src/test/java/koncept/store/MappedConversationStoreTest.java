@@ -0,0 +1,124 @@
+package koncept.store;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import koncept.openai.OpenAIAPIClient;
+import koncept.openai.model.Message;
+import koncept.openai.model.MessageResponse;
+import koncept.openai.transport.TransportResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedConversationStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRebuildsIndexFromLogOnReopen() {
+        try (MappedConversationStore store = MappedConversationStore.open(directory, 256, false)) {
+            store.trackThread("thread_1");
+            store.append(message("msg_1", "thread_1", "user", "Hello"));
+            store.append(message("msg_x", "thread_2", "user", "not tracked"));
+            store.append(message("msg_2", "thread_1", "assistant", "Hi there, how can I help you today?"));
+            store.append(message("msg_3", "thread_1", "user", "Tell me a joke"));
+            store.append(message("msg_2", "thread_1", "assistant", "Hi!"));
+            assertEquals(List.of("Hello", "Hi!", "Tell me a joke"), texts(store.messages("thread_1")));
+        }
+
+        try (MappedConversationStore reopened = MappedConversationStore.open(directory, 256, false)) {
+            assertEquals(List.of("Hello", "Hi!", "Tell me a joke"), texts(reopened.messages("thread_1")));
+            assertEquals("msg_3", reopened.newestMessageId("thread_1"));
+            assertEquals(List.of(), reopened.messages("thread_2"));
+            assertNull(reopened.newestMessageId("thread_2"));
+
+            reopened.append(message("msg_4", "thread_1", "assistant", "Why did the segment roll over?"));
+            assertEquals(4, reopened.messages("thread_1").size());
+        }
+    }
+
+    @Test
+    public void testSyncsIncrementallyFromNewestStoredMessage() {
+        List<String> requests = new ArrayList<>();
+        try (MappedConversationStore store = MappedConversationStore.open(directory)) {
+            OpenAIAPIClient client = OpenAIAPIClient.builder()
+                .transport(request -> {
+                    requests.add(request.uri().getQuery());
+                    String body = request.uri().getQuery().contains("after=msg_2")
+                        ? "{\"data\": [" + json("msg_3") + "], \"last_id\": \"msg_3\", \"has_more\": false}"
+                        : "{\"data\": [" + json("msg_1") + "," + json("msg_2") + "], \"last_id\": \"msg_2\", \"has_more\": false}";
+                    return new TransportResponse(200, Map.of(), body.getBytes(StandardCharsets.UTF_8));
+                })
+                .baseUrl("http://localhost/v1")
+                .apiKey("sk-test")
+                .conversationStore(store)
+                .build();
+
+            assertEquals(2, client.getHistory("thread_1").size());
+            assertEquals(2, client.getHistory("thread_1").size());
+            assertEquals(1, client.syncMessages("thread_1"));
+            assertEquals(3, client.getHistory("thread_1").size());
+            assertEquals(List.of("order=asc&limit=100", "order=asc&limit=100&after=msg_2"), requests);
+        }
+    }
+
+    @Test
+    public void testSyncAfterLocalAppendFetchesSkippedMessagesInThreadOrder() {
+        List<String> requests = new ArrayList<>();
+        try (MappedConversationStore store = MappedConversationStore.open(directory)) {
+            OpenAIAPIClient client = OpenAIAPIClient.builder()
+                .transport(request -> {
+                    String query = request.uri().getQuery();
+                    requests.add(request.method() + " " + (query == null ? request.uri().getPath() : query));
+                    String body = request.method().name().equals("POST")
+                        ? json("msg_4")
+                        : query.contains("after=msg_2")
+                        ? "{\"data\": [" + json("msg_3") + "," + json("msg_4") + "], \"last_id\": \"msg_4\", \"has_more\": false}"
+                        : "{\"data\": [" + json("msg_1") + "," + json("msg_2") + "], \"last_id\": \"msg_2\", \"has_more\": false}";
+                    return new TransportResponse(200, Map.of(), body.getBytes(StandardCharsets.UTF_8));
+                })
+                .baseUrl("http://localhost/v1")
+                .apiKey("sk-test")
+                .conversationStore(store)
+                .build();
+
+            client.syncMessages("thread_1");
+            // msg_3 was created by a run meanwhile and not fetched
+            client.sendMessage(new Message("user", "msg_4"), "thread_1");
+            assertEquals(List.of("msg_1", "msg_2", "msg_4"), texts(client.getHistory("thread_1")));
+            assertEquals("msg_2", store.syncedMessageId("thread_1"));
+
+            assertEquals(2, client.syncMessages("thread_1"));
+            assertEquals("GET order=asc&limit=100&after=msg_2", requests.get(requests.size() - 1));
+            assertEquals(List.of("msg_1", "msg_2", "msg_3", "msg_4"), texts(client.getHistory("thread_1")));
+            assertEquals("msg_4", store.syncedMessageId("thread_1"));
+        }
+
+        try (MappedConversationStore reopened = MappedConversationStore.open(directory)) {
+            assertEquals(List.of("msg_1", "msg_2", "msg_3", "msg_4"), texts(reopened.messages("thread_1")));
+            assertEquals("msg_4", reopened.syncedMessageId("thread_1"));
+        }
+    }
+
+    private static String json(final String id) {
+        return "{\"id\": \"" + id + "\", \"thread_id\": \"thread_1\", \"role\": \"user\", "
+            + "\"content\": [{\"type\": \"text\", \"text\": {\"value\": \"" + id + "\"}}]}";
+    }
+
+    private static MessageResponse message(final String id, final String threadId, final String role, final String text) {
+        return new MessageResponse(id, "thread.message", 0, threadId, role,
+            List.of(new MessageResponse.Content("text", new MessageResponse.Content.Text(text, List.of()))),
+            null, null, null, null, null);
+    }
+
+    private static List<String> texts(final List<MessageResponse> messages) {
+        return messages.stream().map(message -> message.content().get(0).text().value()).toList();
+    }
+}
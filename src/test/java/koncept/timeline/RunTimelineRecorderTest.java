@@ -0,0 +1,120 @@
+package koncept.timeline;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.openai.model.RunStatus;
+import koncept.openai.model.Usage;
+import org.junit.jupiter.api.Test;
+
+public class RunTimelineRecorderTest {
+
+    private static final long CREATED_AT = 1_700_000_000L;
+
+    @Test
+    public void testAttributesLatencyToServerAndObservedStatuses() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(CREATED_AT));
+        RunTimelineRecorder recorder = new RunTimelineRecorder(clock, "thread_1");
+        recorder.runCreated("run_1");
+
+        clock.advance(Duration.ofSeconds(1));
+        recorder.observe(status("queued", null, null, null));
+        clock.advance(Duration.ofSeconds(2));
+        recorder.observe(status("in_progress", CREATED_AT + 2, null, null));
+        clock.advance(Duration.ofSeconds(1));
+        recorder.observe(status("in_progress", CREATED_AT + 2, null, null));
+        clock.advance(Duration.ofSeconds(2));
+        recorder.observe(status("requires_action", CREATED_AT + 2, null, null));
+        recorder.toolCall("call_1", "lookup", Duration.ofMillis(1500), true);
+        clock.advance(Duration.ofSeconds(3));
+        recorder.observe(status("completed", CREATED_AT + 2, CREATED_AT + 8, new Usage(120, 30, 150)));
+
+        RunTimeline timeline = recorder.finish();
+
+        assertEquals("run_1", timeline.runId());
+        assertEquals("asst_1 gpt-4o", timeline.assistantId() + " " + timeline.model());
+        assertEquals("completed", timeline.finalStatus());
+        assertFalse(timeline.abandoned());
+        assertEquals(4, timeline.observations().size());
+        assertEquals(Duration.ofSeconds(9), timeline.total());
+        assertEquals(Duration.ofSeconds(2), timeline.queued());
+        assertEquals(Duration.ofSeconds(6), timeline.processing());
+        assertEquals(Duration.ofSeconds(1), timeline.pollingLag());
+        assertEquals(Duration.ofMillis(1500), timeline.toolTime());
+        assertEquals(Map.of(
+            "queued", Duration.ofSeconds(2),
+            "in_progress", Duration.ofSeconds(3),
+            "requires_action", Duration.ofSeconds(3),
+            "completed", Duration.ZERO), timeline.observedTimeByStatus());
+        assertEquals(120, timeline.promptTokens());
+        assertEquals(30, timeline.completionTokens());
+    }
+
+    @Test
+    public void testAbandonedRunEndsWithAbandonedObservation() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(CREATED_AT));
+        RunTimelineRecorder recorder = new RunTimelineRecorder(clock, "thread_1");
+        recorder.runCreated("run_1");
+        clock.advance(Duration.ofSeconds(1));
+        recorder.observe(status("in_progress", CREATED_AT + 1, null, null));
+        clock.advance(Duration.ofSeconds(4));
+
+        RunTimeline timeline = recorder.abandon();
+
+        assertTrue(timeline.abandoned());
+        assertEquals("in_progress", timeline.finalStatus());
+        assertEquals(null, timeline.pollingLag());
+        assertEquals(Duration.ofSeconds(4), timeline.observedTimeByStatus().get("in_progress"));
+        assertEquals(RunTimeline.ABANDONED, timeline.observations().get(1).status());
+    }
+
+    @Test
+    public void testTimelineWithoutObservations() {
+        RunTimeline timeline = new RunTimelineRecorder("thread_1").finish();
+
+        assertEquals(List.of(), timeline.observations());
+        assertEquals(null, timeline.queued());
+        assertEquals(0, timeline.promptTokens());
+    }
+
+    private static RunStatus status(final String status, final Long startedAt, final Long completedAt, final Usage usage) {
+        return new RunStatus("run_1", status, null, null, "asst_1", "gpt-4o", CREATED_AT, startedAt, completedAt, usage);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package koncept.tokenizer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import koncept.exception.TokenBudgetExceededException;
+import koncept.openai.model.Message;
+import koncept.openai.model.OpenAIModel;
+import org.junit.jupiter.api.Test;
+
+public class TokenizerTest {
+
+    @Test
+    public void testEncodesLikeTheServer() {
+        Tokenizer o200k = Tokenizer.forModel(OpenAIModel.GPT_4O);
+        Tokenizer cl100k = Tokenizer.forModel(OpenAIModel.GPT_4_TURBO);
+
+        assertArrayEquals(new int[]{13225, 2375}, o200k.encode("Hello world"));
+        assertArrayEquals(new int[]{15390, 22797, 220, 7633, 2548, 20290}, o200k.encode("I'm streaming 12345 tokens"));
+        assertArrayEquals(new int[]{9906, 1917}, cl100k.encode("Hello world"));
+        assertArrayEquals(new int[]{40, 2846, 17265, 220, 4513, 1774, 11460}, cl100k.encode("I'm streaming 12345 tokens"));
+        assertEquals(6, o200k.countTokens("antidisestablishmentarianism"));
+    }
+
+    @Test
+    public void testDecodeAndTruncate() {
+        Tokenizer tokenizer = Tokenizer.forEncoding(TokenEncoding.O200K_BASE);
+        String text = "Grüße aus Köln 🚀 and some more words";
+
+        assertEquals(text, tokenizer.decode(tokenizer.encode(text)));
+        String truncated = tokenizer.truncate(text, 5);
+        assertTrue(text.startsWith(truncated));
+        assertTrue(tokenizer.countTokens(truncated) <= 5);
+        assertEquals(text, tokenizer.truncate(text, 100));
+    }
+
+    @Test
+    public void testCountsMessageOverhead() {
+        Tokenizer tokenizer = Tokenizer.forEncoding(TokenEncoding.O200K_BASE);
+
+        assertEquals(3 + 3 + 1 + 2, tokenizer.countMessageTokens(List.of(new Message("user", "Hello world"))));
+    }
+
+    @Test
+    public void testTokenBudgetRefillsAndReconciles() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        TokenBudget budget = new TokenBudget(600, Duration.ZERO, now::get);
+
+        assertTrue(budget.tryAcquire(500));
+        assertFalse(budget.tryAcquire(200));
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(budget.tryAcquire(200));
+
+        budget.reconcile(200, 400);
+        assertEquals(-200, budget.available());
+        assertThrows(TokenBudgetExceededException.class, () -> budget.acquire(1));
+    }
+}